@@ -0,0 +1,94 @@
+package teammate.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import teammate.model.Participant;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+// Account persistence: loading the participant accounts CSV, saving after one survey (one journal
+// record), the same with 8 threads saving at once (group commit) and compacting the journal into a full rewrite of the CSV.
+// AuthService keeps accounts in a static repository, so each trial loads n accounts before measuring saves.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int n;
+
+    @Param({"uniform"})
+    String skew;
+
+    private Path accounts;
+    private Path output;
+    private AuthService authService;
+    private Participant surveyed;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        accounts = SyntheticParticipants.writeAccountsCsv(
+                Files.createTempFile("accounts_bench", ".csv"), n, skew, 42L);
+        output = Files.createTempFile("accounts_bench_out", ".csv");
+        AuthService.loadParticipantAccounts(accounts.toString());
+        authService = new AuthService();
+        // the first save writes the full snapshot; later saves append only what changed
+        authService.saveAllAccountsToFile(output.toString());
+        Participant first = SyntheticParticipants.generate(1, skew, 42L).get(0);
+        surveyed = authService.participantLogin(
+                new Scanner(first.getUsername() + "\n" + first.getPassword() + "\n"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(accounts);
+        Files.deleteIfExists(output);
+        Files.deleteIfExists(Path.of(output + AccountJournal.SUFFIX));
+    }
+
+    @Benchmark
+    public void loadParticipantAccounts() {
+        AuthService.loadParticipantAccounts(accounts.toString());
+    }
+
+    // one participant finished a survey: one journal record (plus a compaction every ~n saves)
+    @Benchmark
+    public void saveAllAccountsToFile() {
+        surveyed.setPersonalityScore(20 + (round++ % 81));
+        authService.markAccountChanged(surveyed);
+        authService.saveAllAccountsToFile(output.toString());
+    }
+
+    // 8 participants finishing at once: their saves are merged into shared journal writes
+    @Benchmark
+    @Threads(8)
+    public void saveAllAccountsToFileConcurrent() {
+        authService.saveAllAccountsToFile(output.toString());
+    }
+
+    // full rewrite of the CSV, what every save used to cost
+    @Benchmark
+    public void compactAccountsFile() {
+        authService.compactAccountsFile(output.toString());
+    }
+}
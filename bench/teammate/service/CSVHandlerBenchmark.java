@@ -0,0 +1,91 @@
+package teammate.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import teammate.model.Participant;
+import teammate.model.ParticipantStore;
+import teammate.model.Team;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Participant CSV import and team CSV export.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVHandlerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int n;
+
+    @Param({"5"})
+    int teamSize;
+
+    @Param({"uniform"})
+    String skew;
+
+    private final CSVHandler csvHandler = new CSVHandler();
+    private final LoggerService logger = LoggerService.getInstance();
+
+    private Path input;
+    private ArrayList<Team> teams;
+    private String lastExport;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        input = SyntheticParticipants.writeParticipantCsv(
+                Files.createTempFile("participants_bench", ".csv"), n, skew, 42L);
+        ArrayList<Participant> participants = SyntheticParticipants.generate(n, skew, 42L);
+        teams = new TeamBuilder().buildTeams(ParticipantStore.of(participants), teamSize,
+                logger, new SplittableRandom(42L));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(input);
+    }
+
+    // saveTeamsAuto always writes into src/teammate/TeamMembers – do not leave benchmark files behind
+    @TearDown(Level.Invocation)
+    public void deleteExport() {
+        if (lastExport != null) {
+            new File(lastExport).delete();
+            lastExport = null;
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Participant> loadParticipants() {
+        return csvHandler.loadParticipants(input.toString(), logger);
+    }
+
+    @Benchmark
+    public ParticipantStore loadParticipantStore() {
+        return csvHandler.loadParticipantStore(input.toString(), logger);
+    }
+
+    @Benchmark
+    public String saveTeamsAuto() {
+        lastExport = csvHandler.saveTeamsAuto(teams, logger);
+        return lastExport;
+    }
+}
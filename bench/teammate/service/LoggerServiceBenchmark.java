@@ -0,0 +1,37 @@
+package teammate.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of one info() call, single-threaded and with the survey/formation threads contending.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerServiceBenchmark {
+
+    private final LoggerService logger = LoggerService.getInstance();
+
+    @Benchmark
+    public void info() {
+        logger.info("Benchmark: Team 12 -> size=5, avgSkill=5.40");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void infoContended() {
+        logger.info("Benchmark: Team 12 -> size=5, avgSkill=5.40");
+    }
+}
@@ -0,0 +1,82 @@
+package teammate.service;
+
+import teammate.model.Participant;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.SplittableRandom;
+
+// Deterministic synthetic participants for the JMH benchmarks.
+// skew = "uniform": games/roles/personalities evenly spread.
+// skew = "skewed": ~70% play the first game, ~60% share one role and ~40% are Leaders,
+//                  which stresses the game cap / role variety / leader penalties.
+final class SyntheticParticipants {
+
+    private static final String[] GAMES = ParticipantSurveyService.GAME_OPTIONS;
+    private static final String[] ROLES = ParticipantSurveyService.ROLE_OPTIONS;
+    private static final String[] TYPES = {"Leader", "Thinker", "Balanced"};
+
+    private SyntheticParticipants() {
+    }
+
+    static ArrayList<Participant> generate(int n, String skew, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        boolean skewed = "skewed".equals(skew);
+        ArrayList<Participant> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String game = pick(GAMES, rnd, skewed ? 0.7 : 0.0);
+            String role = pick(ROLES, rnd, skewed ? 0.6 : 0.0);
+            String type = pick(TYPES, rnd, skewed ? 0.4 : 0.0);
+            Participant p = new Participant("Participant_" + i, "user" + i + "@university.edu",
+                    game, 1 + rnd.nextInt(10), role);
+            p.setId("P" + (100 + i));
+            p.setPersonalityType(type);
+            p.setPersonalityScore(20 + rnd.nextInt(81));
+            p.setUsername("user" + i);
+            p.setPassword("pw" + (1000 + i % 9000));
+            list.add(p);
+        }
+        return list;
+    }
+
+    // CSV in the format CSVHandler.loadParticipants expects
+    static Path writeParticipantCsv(Path file, int n, String skew, long seed) throws IOException {
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(file))) {
+            pw.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            for (Participant p : generate(n, skew, seed)) {
+                pw.println(p.getId() + "," + p.getName() + "," + p.getEmail() + ","
+                        + p.getPreferredGame() + "," + p.getSkillLevel() + "," + p.getRole() + ","
+                        + p.getPersonalityScore() + "," + p.getPersonalityType());
+            }
+        }
+        return file;
+    }
+
+    // accounts file in the format AuthService.loadParticipantAccounts expects (Base64 passwords)
+    static Path writeAccountsCsv(Path file, int n, String skew, long seed) throws IOException {
+        try (PrintWriter pw = new PrintWriter(Files.newBufferedWriter(file))) {
+            pw.println("username,password,ID,fullName,email,preferredGame,skillLevel,role,personalityScore,personalityType");
+            for (Participant p : generate(n, skew, seed)) {
+                String encoded = Base64.getEncoder()
+                        .encodeToString(p.getPassword().getBytes(StandardCharsets.UTF_8));
+                pw.println(p.getUsername() + "," + encoded + "," + p.getId() + "," + p.getName() + ","
+                        + p.getEmail() + "," + p.getPreferredGame() + "," + p.getSkillLevel() + ","
+                        + p.getRole() + "," + p.getPersonalityScore() + "," + p.getPersonalityType());
+            }
+        }
+        return file;
+    }
+
+    // first value with probability `bias`, otherwise uniform over all values
+    private static String pick(String[] values, SplittableRandom rnd, double bias) {
+        if (bias > 0 && rnd.nextDouble() < bias) {
+            return values[0];
+        }
+        return values[rnd.nextInt(values.length)];
+    }
+}
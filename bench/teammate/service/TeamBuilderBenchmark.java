@@ -0,0 +1,130 @@
+package teammate.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import teammate.model.Participant;
+import teammate.model.ParticipantStore;
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Formation hot path: full buildTeams runs, single placement probes and the min-size repair.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamBuilderBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int n;
+
+    @Param({"4", "6"})
+    int teamSize;
+
+    @Param({"uniform", "skewed"})
+    String skew;
+
+    private final TeamBuilder builder = new TeamBuilder();
+    // same rules compiled from (default) weights, for comparing the two scorers
+    private final TeamBuilder weightedBuilder = new TeamBuilder(EventSink.none(),
+            WeightedPlacementScorer.fromProperties(new Properties()));
+    private final LoggerService logger = LoggerService.getInstance();
+
+    private ArrayList<Participant> participants;
+    private ParticipantStore store;
+    private double globalAvg;
+
+    // fixed probe set for evaluatePlacementScore
+    private ArrayList<Team> formed;
+    private int[] probeTeam;
+    private int[] probeRow;
+
+    // undersized layout rebuilt before every ensureMinTeamSize call
+    private ArrayList<Team> undersized;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        participants = SyntheticParticipants.generate(n, skew, 42L);
+        store = ParticipantStore.of(participants);
+        globalAvg = (double) store.totalSkill() / store.size();
+
+        formed = builder.buildTeams(store, teamSize, logger, new SplittableRandom(42L));
+        SplittableRandom rnd = new SplittableRandom(7L);
+        probeTeam = new int[1024];
+        probeRow = new int[1024];
+        for (int i = 0; i < probeTeam.length; i++) {
+            probeTeam[i] = rnd.nextInt(formed.size());
+            probeRow[i] = rnd.nextInt(store.size());
+        }
+    }
+
+    // full-size teams first, then a tail of one-member teams that must be topped up
+    @Setup(Level.Invocation)
+    public void setUpUndersized() {
+        undersized = new ArrayList<>();
+        int singles = Math.max(1, n / (teamSize * 10));
+        int inFullTeams = n - singles;
+        Team current = null;
+        for (int i = 0; i < n; i++) {
+            if (i >= inFullTeams || current == null || current.size() == teamSize) {
+                current = new Team("Team " + (undersized.size() + 1));
+                undersized.add(current);
+            }
+            current.addMember(participants.get(i));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void evaluatePlacementScoreWeighted(Blackhole bh) {
+        for (int i = 0; i < probeTeam.length; i++) {
+            int row = probeRow[i];
+            bh.consume(weightedBuilder.evaluatePlacementScore(formed.get(probeTeam[i]),
+                    store.skill(row), store.gameCode(row), store.roleCode(row),
+                    store.personality(row), globalAvg));
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Team> buildTeams() {
+        return builder.buildTeams(store, teamSize, logger, new SplittableRandom(42L));
+    }
+
+    @Benchmark
+    public ArrayList<Team> buildTeamsFromList() {
+        return builder.buildTeams(participants, teamSize, logger, new SplittableRandom(42L));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void evaluatePlacementScore(Blackhole bh) {
+        for (int i = 0; i < probeTeam.length; i++) {
+            int row = probeRow[i];
+            bh.consume(builder.evaluatePlacementScore(formed.get(probeTeam[i]),
+                    store.skill(row), store.gameCode(row), store.roleCode(row),
+                    store.personality(row), globalAvg));
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Team> ensureMinTeamSize() {
+        builder.ensureMinTeamSize(undersized, 3, logger);
+        return undersized;
+    }
+}
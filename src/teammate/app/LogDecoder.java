@@ -0,0 +1,53 @@
+package teammate.app;
+
+import teammate.service.BinaryLogReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Command-line tool that prints binary log files (log_yyyy-MM-dd_HH.bin) in the
+// normal text format "[yyyy-MM-dd HH:mm:ss] message".
+// Usage: java teammate.app.LogDecoder <file.bin | log directory> ...
+public class LogDecoder {
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java teammate.app.LogDecoder <file.bin | log directory> ...");
+            return;
+        }
+
+        boolean failed = false;
+        for (File file : binaryFiles(args)) {
+            try {
+                BinaryLogReader.decode(file.toPath(), System.out::println);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error decoding " + file + ": " + e.getMessage());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    // files named on the command line, plus every .bin file (oldest hour first) in named directories
+    private static List<File> binaryFiles(String[] args) {
+        List<File> files = new ArrayList<>();
+        for (String arg : args) {
+            File f = new File(arg);
+            if (f.isDirectory()) {
+                File[] bins = f.listFiles((dir, name) -> name.endsWith(".bin"));
+                if (bins != null) {
+                    Arrays.sort(bins);
+                    files.addAll(Arrays.asList(bins));
+                }
+            } else {
+                files.add(f);
+            }
+        }
+        return files;
+    }
+}
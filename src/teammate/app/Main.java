@@ -1,6 +1,10 @@
 package teammate.app;
 
+import teammate.model.MergeListener;
+import teammate.model.MergePolicy;
+import teammate.model.MergeResult;
 import teammate.model.Participant;
+import teammate.model.ParticipantRegistry;
 import teammate.model.Team;
 import teammate.service.*;
 
@@ -13,10 +17,16 @@ import static teammate.service.ParticipantSurveyService.GAME_OPTIONS;
 import static teammate.service.ParticipantSurveyService.ROLE_OPTIONS;
 
 public class Main {
-    //Stores all participant records in memory
-    static ArrayList<Participant> participants = new ArrayList<>();
+    //Stores all participant records in memory (indexed by identity, id, email and username)
+    static ParticipantRegistry participants = new ParticipantRegistry();
    //Holds all formed teams
-    private static ArrayList<Team> teams = new ArrayList<>();
+    private static List<Team> teams = new ArrayList<>();
+    //Applies single changes (survey, update, delete) to the current teams; null until needed after a restore
+    private static IncrementalFormation formation;
+    //Team size the restored teams were formed with; 0 when the snapshot does not record it
+    private static int restoredTeamSize;
+    //True when single changes (survey, update, delete, import) have not been saved to the snapshot yet
+    private static boolean teamsChanged;
     //Logger instance for tracking system activities
     private static final LoggerService logger = LoggerService.getInstance();
     //File path fot participant data
@@ -25,19 +35,35 @@ public class Main {
     //File path for organizer data
     private static final String ORGANIZER_FILE =
             "src/teammate/auth/organizer_account.csv";
+    //Binary snapshot of the last formed teams (restored at startup)
+    private static final String TEAMS_SNAPSHOT_FILE =
+            "src/teammate/TeamMembers/teams.snapshot";
+    //Independent formation passes run in parallel; the best one is kept
+    private static final int FORMATION_STARTS = Runtime.getRuntime().availableProcessors();
+    //Time budget for the swap/move improvement pass after formation
+    private static final long FORMATION_OPTIMISE_MILLIS = 500;
+    //Time limit for the optional exact (branch and bound) formation of small events
+    private static final long EXACT_FORMATION_MILLIS = 10_000;
+    //Optional per-event placement weights (-Dteammate.scoring.file=...); built-in rules otherwise
+    static final String SCORING_FILE_PROPERTY = "teammate.scoring.file";
+    private static PlacementScorer placementScorer = PlacementScorer.standard();
 
     //Starts the system, shows main menu, and handles all user actions.
     public static void main(String[] args) {
 
         Scanner sc = new Scanner(System.in);
         CSVHandler csvHandler = new CSVHandler();
-        TeamBuilder teamBuilder = new TeamBuilder();
+        placementScorer = loadPlacementScorer(logger);
+        TeamBuilder teamBuilder = new TeamBuilder(EventSink.console(), placementScorer);
         AuthService authService = new AuthService();
         ParticipantSurveyService surveyService = new ParticipantSurveyService();
         ExecutorService executor = Executors.newFixedThreadPool(4);
+        // log calls only enqueue from here on; a background thread writes the files
+        logger.startAsync();
         logger.info("Application started");
         System.out.println();
         System.out.println("========= TeamMate: Intelligent Team Formation System ========= ");
+        restoreTeams(logger);
 
         boolean running = true;
         while (running) {
@@ -90,8 +116,12 @@ public class Main {
                     running = false;
                     System.out.println();
                     System.out.println("Exiting system...");
+                    saveChangedTeams(logger);
                     executor.shutdown();
+                    // fold the account journal back into the CSV
+                    authService.compactAccountsFile(ACCOUNTS_FILE);
                     logger.info("Executor service shut down. Application exiting.");
+                    logger.stopAsync();
                     break;
 
                 default:
@@ -117,7 +147,8 @@ public class Main {
             System.out.println("5. Update participant data");
             System.out.println("6. Delete participant");
             System.out.println("7. Change organizer password");
-            System.out.println("8. Logout");
+            System.out.println("8. Delete participant login");
+            System.out.println("9. Logout");
             System.out.println();
             System.out.print("Enter choice: ");
             String ch = sc.nextLine().trim();
@@ -134,11 +165,21 @@ public class Main {
                     // [CSV 1.3] loadParticipants(filePath)
                     ArrayList<Participant> loaded = csvHandler.loadParticipants(path, logger);
                     if (!loaded.isEmpty()) {
-                        participants.addAll(loaded);
-                        // [CSV 3.2.1] Merge list into global participants
-                        logger.info("Organizer loaded " + loaded.size() + " participants from CSV: " + path); // [CSV 3.2.2] log
+                        // [CSV 3.2.1] Merge list into global participants (matched by ID, then email)
+                        MergePolicy policy = participants.isEmpty() ? MergePolicy.NEWEST_WINS : askMergePolicy(sc);
+                        // placed participants the import overwrites are taken out and re-placed around the change
+                        IncrementalFormation current = formation();
+                        MergeResult merged = participants.merge(loaded, policy, new java.io.File(path).lastModified(),
+                                (current == null) ? MergeListener.none() : current.mergeListener());
+                        if (current != null && merged.getUpdated() > 0) {
+                            teamsChanged = true;
+                        }
+                        logger.info("Organizer loaded " + loaded.size() + " participants from CSV: " + path
+                                + " (" + policy + ": " + merged + ")"); // [CSV 3.2.2] log
                         // Merge with existing (keep sign-ups also)
-                        System.out.println("Loaded " + loaded.size() + " participants. Current Total: " + participants.size()); // [CSV 3.2.3]
+                        System.out.println("Loaded " + loaded.size() + " participants: " + merged.getInserted() + " new, "
+                                + merged.getUpdated() + " updated, " + merged.getSkipped() + " skipped. Current Total: "
+                                + participants.size()); // [CSV 3.2.3]
                         // process survey data in a background thread
                     } else {
                         // [CSV 1.3.1.1.5] & [CSV 1.3.2.1.5] & [CSV 1.3.3.1.5] log
@@ -161,11 +202,17 @@ public class Main {
                     System.out.println();
                     System.out.println("--- Team Formation ---");
                     int teamSize = askTeamSize(sc, participants.size());
+                    FormationOptions options = FormationOptions.defaults()
+                            .starts(FORMATION_STARTS)
+                            .optimiseMillis(FORMATION_OPTIMISE_MILLIS);
+                    if (participants.size() <= ExactTeamSolver.MAX_PARTICIPANTS && askExactFormation(sc)) {
+                        options = options.exactMillis(EXACT_FORMATION_MILLIS);
+                    }
 
                     // create the task (same as before)
                     // [FORM 1.2.4]
                     TeamFormationTask tfTask =
-                            new TeamFormationTask(participants, teamSize, teamBuilder);
+                            new TeamFormationTask(participants.toList(), teamSize, teamBuilder, options);
 
                     try {
                         // [FORM 1.2.5]
@@ -183,11 +230,20 @@ public class Main {
                         future.get();   // [FORM 1.2.7]
 
                         // [FORM 2.4] get result from task
-                        teams = tfTask.getResult();
+                        formation = new IncrementalFormation(tfTask.getResult(), teamSize, teamBuilder);
+                        teams = formation.teams();
                         // [FORM 3.1]
                         // [FORM 3.3] One or more teams formed
                         logger.info("Teams formed: " + teams.size() + " with team size " + teamSize); // [FORM 3.3.2] log
                         System.out.println("Teams formed: " + teams.size() + " with team size " + teamSize); // [FORM 3.3.1]
+                        SolverResult exact = tfTask.getExactResult();
+                        if (exact != null) {
+                            System.out.println(exact.isOptimal()
+                                    ? "These teams are optimal."
+                                    : String.format(Locale.ROOT, "Best teams found in the time limit (within %.1f%% of optimal).",
+                                            exact.getRelativeGap() * 100.0));
+                        }
+                        saveTeamsSnapshot(logger);
 
                     } catch (Exception e) {
                         // [FORM 3.2] No teams formed empty results
@@ -236,6 +292,11 @@ public class Main {
                     break;
 
                 case "8":
+                    deleteParticipantLogin(sc, logger, authService);
+                    break;
+
+                case "9":
+                    saveChangedTeams(logger);
                     back = true;
                     break;
 
@@ -263,6 +324,136 @@ public class Main {
         }
     }
 
+    //Small events can spend a few seconds searching for provably optimal teams instead of the quick heuristic
+    static boolean askExactFormation(Scanner sc) {
+        while (true) {
+            System.out.print("Search for optimal teams (up to " + EXACT_FORMATION_MILLIS / 1000 + " s)? (Y/N): ");
+            String ans = sc.nextLine().trim();
+            if (ans.equalsIgnoreCase("Y")) return true;
+            if (ans.equalsIgnoreCase("N") || ans.isEmpty()) return false;
+            System.out.println("Please enter Y or N.");
+        }
+    }
+
+    //Asks what to do with rows for participants that are already loaded; Enter keeps the newest data
+    static MergePolicy askMergePolicy(Scanner sc) {
+        System.out.println("Participants already in the list (same ID or email):");
+        System.out.println("1. Keep the newest data (default)");
+        System.out.println("2. Replace with the file");
+        System.out.println("3. Skip file rows");
+        while (true) {
+            System.out.print("Enter choice: ");
+            String in = sc.nextLine().trim();
+            switch (in) {
+                case "":
+                case "1":
+                    return MergePolicy.NEWEST_WINS;
+                case "2":
+                    return MergePolicy.REPLACE;
+                case "3":
+                    return MergePolicy.SKIP;
+                default:
+                    System.out.println("Please enter 1, 2 or 3.");
+            }
+        }
+    }
+
+    //Reads the weights file named by -Dteammate.scoring.file; any problem falls back to the built-in rules
+    static PlacementScorer loadPlacementScorer(LoggerService logger) {
+        String file = System.getProperty(SCORING_FILE_PROPERTY);
+        if (file == null || file.isBlank()) {
+            return PlacementScorer.standard();
+        }
+        try {
+            PlacementScorer scorer = WeightedPlacementScorer.load(java.nio.file.Path.of(file));
+            logger.info("Placement weights loaded from " + file);
+            System.out.println("Using team placement weights from " + file);
+            return scorer;
+        } catch (Exception e) {
+            logger.error("Could not load placement weights from " + file, e);
+            System.out.println("Placement weights could not be loaded; using the default rules.");
+            return PlacementScorer.standard();
+        }
+    }
+
+    // ---------- TEAM SNAPSHOT ----------
+    //Loads the teams saved by the last formation; members are only decoded when shown or exported
+    private static void restoreTeams(LoggerService logger) {
+        java.nio.file.Path file = java.nio.file.Path.of(TEAMS_SNAPSHOT_FILE);
+        if (!java.nio.file.Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            TeamSnapshot snapshot = TeamSnapshot.open(file);
+            teams = snapshot.teams();
+            restoredTeamSize = snapshot.formedTeamSize();
+            formation = null;
+            logger.info("Restored {} teams ({} participants) from snapshot {} in {} ms",
+                    snapshot.teamCount(), snapshot.participantCount(), file,
+                    (System.nanoTime() - start) / 1_000_000);
+            System.out.println("Restored " + snapshot.teamCount() + " teams from the last session.");
+        } catch (Exception e) {
+            logger.error("Could not restore teams from snapshot " + file, e);
+            System.out.println("Saved teams could not be restored. See logs for details.");
+        }
+    }
+
+    //Incremental view of the current teams, created on the first change or team lookup after a restore; null without teams
+    private static IncrementalFormation formation() {
+        if (formation == null && !teams.isEmpty()) {
+            formation = new IncrementalFormation(teams, currentTeamSize(),
+                    new TeamBuilder(EventSink.none(), placementScorer));
+            teams = formation.teams();
+        }
+        return formation;
+    }
+
+    //Team size the current teams were formed with (guessed from the largest team for old snapshots)
+    private static int currentTeamSize() {
+        if (formation != null) return formation.teamSize();
+        return (restoredTeamSize > 0) ? restoredTeamSize : IncrementalFormation.inferTeamSize(teams);
+    }
+
+    //The attributes team placement depends on, to tell whether an edit needs a new placement
+    private static String placementProfile(Participant p) {
+        return p.getPreferredGame() + "|" + p.getRole() + "|" + p.getSkillLevel() + "|" + p.getPersonalityType();
+    }
+
+    //Puts a participant taken out for an edit back into the teams; `previous` is kept if nothing changed
+    private static void placeAfterChange(Participant p, Team previous, boolean changed, LoggerService logger) {
+        long start = System.nanoTime();
+        Team team = formation.add(p, changed ? null : previous);
+        long micros = (System.nanoTime() - start) / 1_000;
+        if (team == null) {
+            logger.info("Participant {} is waiting for a team ({} waiting)", p.getName(), formation.waiting().size());
+            System.out.println(p.getName() + " is on the waiting list for the next team.");
+        } else if (team != previous) {
+            logger.info("Participant {} placed in {} ({} us)", p.getName(), team.getTeamName(), micros);
+            System.out.println(p.getName() + " is now in " + team.getTeamName() + ".");
+        }
+        teamsChanged = true;
+    }
+
+    //Saves the teams once if single changes were made since the last save (on logout and exit), so an
+    //edit costs its re-balance only and not a rewrite of every team
+    private static void saveChangedTeams(LoggerService logger) {
+        if (teamsChanged) {
+            saveTeamsSnapshot(logger);
+        }
+    }
+
+    //Saves the formed teams so the next start can restore them without re-forming
+    private static void saveTeamsSnapshot(LoggerService logger) {
+        try {
+            TeamSnapshot.write(teams, currentTeamSize(), java.nio.file.Path.of(TEAMS_SNAPSHOT_FILE));
+            teamsChanged = false;
+            logger.info("Teams snapshot saved: {} (teams={})", TEAMS_SNAPSHOT_FILE, teams.size());
+        } catch (Exception e) {
+            logger.error("Could not save teams snapshot " + TEAMS_SNAPSHOT_FILE, e);
+        }
+    }
+
     //Displays all formed teams with each member's details
     private static void showTeams() {
         // [VIEW 1.1]
@@ -345,6 +536,12 @@ public class Main {
         Participant target = participants.get(updIndex - 1);    // [UPD 1.3.1] get participant by index
         System.out.println("Updating: " + target.getName());    // [UPD 1.3.2] show "Updating target name"
 
+        // out of its team while it changes (team totals are taken when a member joins)
+        IncrementalFormation f = formation();
+        boolean placed = f != null && f.contains(target);
+        Team previousTeam = placed ? f.detach(target) : null;
+        String profileBefore = placementProfile(target);
+
         // ---- backup old values (for cancel) ----
         // [UPD 1.3.3] backup oldGame, oldRole, oldSkill
         String oldGame  = target.getPreferredGame();
@@ -433,6 +630,11 @@ public class Main {
         System.out.println("Game : " + target.getPreferredGame());
         System.out.println("Role : " + target.getRole());
         System.out.println("Skill: " + target.getSkillLevel());
+        participants.touch(target);
+        authService.markAccountChanged(target);
+        if (placed) {
+            placeAfterChange(target, previousTeam, !profileBefore.equals(placementProfile(target)), logger);
+        }
 
         // ---- confirm permanent save ----
         while (true) {
@@ -504,6 +706,54 @@ public class Main {
         Participant removed = participants.remove(delIndex - 1);    // [DEL 1.3.2]
         System.out.println("Successfully Deleted: " + removed.getName());   // [DEL 1.3.3]
         logger.info("Participant deleted: " + removed.getName());   // [DEL 1.3.4]
+        removeFromTeams(removed, logger);
+    }
+
+    //Permanently removes a participant's login; separate from "Delete participant" and only after the
+    //organizer types the username a second time
+    static void deleteParticipantLogin(Scanner sc, LoggerService logger, AuthService authService) {
+        System.out.println();
+        System.out.println("--- Delete Participant Login ---");
+        System.out.print("Enter the username to delete (Enter to cancel): ");
+        String username = sc.nextLine().trim();
+        if (username.isEmpty()) {
+            return;
+        }
+        System.out.print("This cannot be undone. Type the username again to confirm: ");
+        String confirm = sc.nextLine().trim();
+        if (!confirm.equalsIgnoreCase(username)) {
+            System.out.println("Usernames do not match. Nothing was deleted.");
+            return;
+        }
+        if (authService.deleteParticipantAccount(username, ACCOUNTS_FILE)) {
+            logger.info("Organizer deleted participant login: " + username);
+            System.out.println("Login deleted: " + username);
+        } else {
+            System.out.println("No participant login found for: " + username);
+        }
+    }
+
+    //Takes a deleted participant out of its formed team, backfilling and re-balancing only the teams involved
+    private static void removeFromTeams(Participant removed, LoggerService logger) {
+        IncrementalFormation f = formation();
+        if (f == null) {
+            return;
+        }
+        Team team = f.teamOf(removed);
+        long start = System.nanoTime();
+        if (f.remove(removed) == null) {
+            return;
+        }
+        long micros = (System.nanoTime() - start) / 1_000;
+        if (team == null) {
+            logger.info("Participant removed from the waiting list: " + removed.getName());
+            System.out.println("Also removed from the waiting list.");
+        } else {
+            logger.info("Participant removed from {}: {} (teams re-balanced in {} us)",
+                    team.getTeamName(), removed.getName(), micros);
+            System.out.println("Also removed from " + team.getTeamName() + ".");
+        }
+        teamsChanged = true;
     }
 
     // ================= PARTICIPANT MENU ===================
@@ -533,6 +783,11 @@ public class Main {
                         participants.add(account);
                     }
 
+                    // out of its team while the survey changes it (team totals are taken when a member joins)
+                    IncrementalFormation f = formation();
+                    Team previousTeam = (f == null) ? null : f.detach(account);
+                    String profileBefore = placementProfile(account);
+
                     // run survey in its own thread
                     // [SURV 1.2]
                     SurveyProcessingTask task =
@@ -548,32 +803,25 @@ public class Main {
                         surveyThread.join(); // wait until survey completes
                         // [SURV 3.3] log "SurveyProcessingThread finished for user"
                         logger.info("SurveyProcessingThread finished for " + account.getName());
+                        participants.touch(account);    // newer than any file imported before now
                     } catch (InterruptedException e) {
                         // [SURV 3.2] Exception in task / thread interrupted
                         logger.error("Survey thread interrupted for user " + account.getName(), e);
                         Thread.currentThread().interrupt();
                         System.out.println("Survey processing was interrupted.");
                     }
+                    // newly surveyed or changed: best team with room; unchanged: back to its team
+                    if (f != null) {
+                        placeAfterChange(account, previousTeam,
+                                !profileBefore.equals(placementProfile(account)), logger);
+                    }
                     break;
                 }
 
                 case "2": {
-                    Team myTeam = null;
-
-                    for (Team t : teams) {
-                        for (Participant p : t.getMembers()) {
-
-                            boolean sameEmail = (p.getEmail() != null && account.getEmail() != null &&
-                                    p.getEmail().equalsIgnoreCase(account.getEmail()));
-                            boolean sameName = p.getName().equalsIgnoreCase(account.getName());
-
-                            if (sameEmail || sameName) {
-                                myTeam = t;
-                                break;
-                            }
-                        }
-                        if (myTeam != null) break;
-                    }
+                    // matched by identity, id or email through the formation's participant -> team maps
+                    IncrementalFormation f = formation();
+                    Team myTeam = (f == null) ? null : f.teamOf(account);
 
                     if (myTeam == null) {
                         System.out.println();
@@ -596,6 +844,7 @@ public class Main {
                     break;
 
                 case "4":
+                    saveChangedTeams(logger);
                     back = true;
                     break;
 
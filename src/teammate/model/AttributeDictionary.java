@@ -0,0 +1,133 @@
+package teammate.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps free-text participant attributes (game, role) to small ordinal codes.
+// Seeded with the survey options; unknown CSV values get new codes on first sight.
+// Limit: codes fit in an unsigned byte, so at most 254 distinct values per attribute get their own
+// code. Every value after that shares OVERFLOW, which means "some other value" and never equals
+// anything: Team does not count it towards the per-game cap or the distinct-role rule.
+public final class AttributeDictionary {
+
+    // code reserved for null / blank values
+    public static final int EMPTY = 0;
+    // codes must fit in an unsigned byte; values past the limit share OVERFLOW
+    public static final int MAX_CODES = 256;
+    public static final int OVERFLOW = MAX_CODES - 1;
+    // distinct raw spellings remembered for the fast path; further spellings are normalised per call
+    private static final int MAX_RAW_SPELLINGS = 4 * MAX_CODES;
+
+    // the fixed options offered by the participant survey (unmodifiable: they seed GAMES and ROLES)
+    public static final List<String> SURVEY_ROLES = List.of(
+            "Strategist", "Attacker", "Defender", "Supporter", "Coordinator");
+    public static final List<String> SURVEY_GAMES = List.of(
+            "Valorant", "DOTA 2", "FIFA", "Basketball", "Badminton", "Chess", "CS:GO");
+
+    // personality is a fixed three-way classification (anything else counts as Balanced)
+    public static final int PERSONALITY_BALANCED = 0;
+    public static final int PERSONALITY_LEADER   = 1;
+    public static final int PERSONALITY_THINKER  = 2;
+
+    public static final AttributeDictionary GAMES = new AttributeDictionary(SURVEY_GAMES.toArray(new String[0]));
+    public static final AttributeDictionary ROLES = new AttributeDictionary(SURVEY_ROLES.toArray(new String[0]));
+
+    private static final class Entry {
+        final String value;
+        final int code;
+
+        Entry(String value, int code) {
+            this.value = value;
+            this.code = code;
+        }
+    }
+
+    // normalised value -> code
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    // exact raw value -> shared instance + code (fast path, no lowercasing for repeats)
+    private final Map<String, Entry> byRaw = new ConcurrentHashMap<>();
+    private final List<String> labels = new ArrayList<>();
+
+    public AttributeDictionary(String[] seed) {
+        labels.add("");             // EMPTY
+        codes.put("", EMPTY);
+        for (String s : seed) {
+            codeOf(s);
+        }
+    }
+
+    // code for a raw value; unknown values are added to the dictionary
+    public int codeOf(String raw) {
+        if (raw == null) return EMPTY;
+        Entry e = byRaw.get(raw);
+        if (e == null) {
+            e = register(raw);
+        }
+        return e.code;
+    }
+
+    // shared String instance equal to raw, so repeated values are stored once
+    public String intern(String raw) {
+        if (raw == null) return null;
+        Entry e = byRaw.get(raw);
+        if (e == null) {
+            e = register(raw);
+        }
+        return e.value;
+    }
+
+    // canonical label (first spelling seen) for a code
+    public synchronized String labelOf(int code) {
+        return (code >= 0 && code < labels.size()) ? labels.get(code) : "";
+    }
+
+    public synchronized int size() {
+        return labels.size();
+    }
+
+    // trimmed lowercase form used to decide whether two spellings are the same value
+    public static String normalise(String s) {
+        return (s == null) ? "" : s.trim().toLowerCase();
+    }
+
+    // true for a code that stands for exactly one value (not EMPTY, not OVERFLOW), i.e. one that
+    // may be counted and compared: two members with such a code share the same game / role
+    public static boolean isCounted(int code) {
+        return code != EMPTY && code != OVERFLOW;
+    }
+
+    public static int personalityCode(String type) {
+        if (type == null) return PERSONALITY_BALANCED;
+        if (type.equalsIgnoreCase("Leader")) return PERSONALITY_LEADER;
+        if (type.equalsIgnoreCase("Thinker")) return PERSONALITY_THINKER;
+        return PERSONALITY_BALANCED;
+    }
+
+    private synchronized Entry register(String raw) {
+        Entry e = byRaw.get(raw);
+        if (e != null) return e;
+
+        String key = normalise(raw);
+        Integer code = codes.get(key);
+        if (code == null) {
+            if (labels.size() < OVERFLOW) {
+                code = labels.size();
+                labels.add(raw.trim());
+                codes.put(key, code);
+            } else {
+                // not remembered: the maps stay bounded however many values a file brings
+                if (labels.size() == OVERFLOW) {
+                    labels.add("Other");
+                }
+                code = OVERFLOW;
+            }
+        }
+        e = new Entry(raw, code);
+        if (byRaw.size() < MAX_RAW_SPELLINGS) {
+            byRaw.put(raw, e);
+        }
+        return e;
+    }
+}
@@ -0,0 +1,19 @@
+package teammate.model;
+
+// Told about each loaded participant a CSV import is about to overwrite in place. Anything that
+// keeps totals over a participant's attributes (e.g. Team aggregates, taken when a member is added)
+// takes it out in beforeUpdate, while it still has the old values, and puts it back in afterUpdate.
+public interface MergeListener {
+
+    default void beforeUpdate(Participant existing) {
+    }
+
+    // `changed` is false when the row matched what was already loaded
+    default void afterUpdate(Participant existing, boolean changed) {
+    }
+
+    // ignores every update
+    static MergeListener none() {
+        return new MergeListener() { };
+    }
+}
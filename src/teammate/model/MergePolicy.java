@@ -0,0 +1,11 @@
+package teammate.model;
+
+// What a CSV import does with a row for a participant that is already loaded (same ID or email).
+public enum MergePolicy {
+    // keep the loaded participant, ignore the row
+    SKIP,
+    // overwrite the loaded participant with the row
+    REPLACE,
+    // overwrite only when the file is at least as new as the loaded participant's last change
+    NEWEST_WINS
+}
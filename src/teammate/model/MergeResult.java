@@ -0,0 +1,26 @@
+package teammate.model;
+
+// Outcome of merging imported rows into the participant registry.
+public class MergeResult {
+
+    private final int inserted;
+    private final int updated;
+    private final int skipped;
+
+    public MergeResult(int inserted, int updated, int skipped) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.skipped = skipped;
+    }
+
+    public int getInserted() { return inserted; }
+    public int getUpdated() { return updated; }
+    // rows that matched a loaded participant and changed nothing (policy, older file or identical row)
+    public int getSkipped() { return skipped; }
+    public int getTotal() { return inserted + updated + skipped; }
+
+    @Override
+    public String toString() {
+        return "inserted=" + inserted + ", updated=" + updated + ", skipped=" + skipped;
+    }
+}
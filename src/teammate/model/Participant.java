@@ -9,6 +9,11 @@ public class Participant extends Human {
     private String personalityType;
     private int personalityScore;
 
+    // ordinal codes (see AttributeDictionary), refreshed whenever the matching string changes
+    private byte gameCode;
+    private byte roleCode;
+    private byte personalityCode;
+
     // Represents a participant with game preferences, skill level, role, and personality attributes.
 
     public Participant(String name, String email,
@@ -16,9 +21,9 @@ public class Participant extends Human {
         // username/password are handled by AuthService; not needed here
         super(name, null, null);
         this.email = email;
-        this.preferredGame = preferredGame;
+        setPreferredGame(preferredGame);
         this.skillLevel = skillLevel;
-        this.role = role;
+        setRole(role);
     }
     // getters/setters
     public String getId() {return id;}
@@ -32,6 +37,7 @@ public class Participant extends Human {
     public String getPersonalityType() { return personalityType; }
     public void setPersonalityType(String personalityType) {
         this.personalityType = personalityType;
+        this.personalityCode = (byte) AttributeDictionary.personalityCode(personalityType);
     }
 
     public int getPersonalityScore() { return personalityScore; }
@@ -40,8 +46,18 @@ public class Participant extends Human {
     }
 
     public void setEmail(String email) { this.email = email; }
-    public void setPreferredGame(String preferredGame) { this.preferredGame = preferredGame; }
+    public void setPreferredGame(String preferredGame) {
+        this.preferredGame = AttributeDictionary.GAMES.intern(preferredGame);
+        this.gameCode = (byte) AttributeDictionary.GAMES.codeOf(preferredGame);
+    }
     public void setSkillLevel(int skillLevel) { this.skillLevel = skillLevel; }
-    public void setRole(String role) { this.role = role; }
+    public void setRole(String role) {
+        this.role = AttributeDictionary.ROLES.intern(role);
+        this.roleCode = (byte) AttributeDictionary.ROLES.codeOf(role);
+    }
+
+    public int getGameCode() { return gameCode & 0xFF; }
+    public int getRoleCode() { return roleCode & 0xFF; }
+    public int getPersonalityCode() { return personalityCode; }
 
 }
@@ -0,0 +1,494 @@
+package teammate.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// The organiser's participant list, indexed for large events.
+// Participants sit in slots in the order they were added. Deleting one leaves a tombstone (null slot)
+// instead of shifting the rest, and the slots are compacted once the tombstones outnumber the live
+// participants. Alongside the slots it keeps:
+//  - participant (by identity) -> slot, so contains / remove(Object) are O(1);
+//  - id, email and username (case-insensitive) -> slot, for findById / findByEmail / findByUsername;
+//  - a Fenwick tree of live slots, so "participant number k" in the menus (k-th live participant)
+//    is found in O(log n) and numbers still close up after a delete, as with the old ArrayList.
+// A participant is registered at most once: adding the same object again returns false.
+// Keys are read when a participant is added; call reindex(p) after changing its id, email or username.
+// When two participants share a key, the first one added is the one found.
+// Each participant also carries the time of its last change (add, merge or touch), which the
+// NEWEST_WINS import policy compares against the imported file's modification time.
+// Not thread-safe, like the list it replaces.
+public class ParticipantRegistry extends AbstractList<Participant> implements RandomAccess {
+
+    private static final int MIN_COMPACT_TOMBSTONES = 64;
+
+    private Participant[] slots;
+    private int end;          // slots in use (live + tombstones)
+    private int live;
+    private int[] tree;       // Fenwick tree over slots: 1 = live, 0 = tombstone/unused (1-based)
+
+    // where a participant sits, the keys it was indexed under (so a reindex can drop the old ones)
+    // and when it last changed
+    private static final class Entry {
+        int slot;
+        String id;
+        String email;
+        String username;
+        long changedAt;
+
+        Entry(int slot, long changedAt) {
+            this.slot = slot;
+            this.changedAt = changedAt;
+        }
+    }
+
+    private final IdentityHashMap<Participant, Entry> entries = new IdentityHashMap<>();
+    private final Map<String, Integer> byId = new HashMap<>();
+    private final Map<String, Integer> byEmail = new HashMap<>();
+    private final Map<String, Integer> byUsername = new HashMap<>();
+
+    public ParticipantRegistry() {
+        this(16);
+    }
+
+    public ParticipantRegistry(int initialCapacity) {
+        int cap = Math.max(1, initialCapacity);
+        slots = new Participant[cap];
+        tree = new int[cap + 1];
+    }
+
+    // ---------- list view (live participants, in insertion order) ----------
+    @Override
+    public int size() { return live; }
+
+    @Override
+    public Participant get(int index) {
+        return slots[slotAt(index)];
+    }
+
+    @Override
+    public boolean add(Participant p) {
+        return add(p, System.currentTimeMillis());
+    }
+
+    private boolean add(Participant p, long changedAt) {
+        if (p == null) throw new NullPointerException("participant");
+        if (entries.containsKey(p)) return false;
+        if (end == slots.length) {
+            if (end - live >= MIN_COMPACT_TOMBSTONES) {
+                compact();
+            } else {
+                grow();
+            }
+        }
+        int slot = end++;
+        slots[slot] = p;
+        live++;
+        fenwickAdd(slot, 1);
+        index(p, slot, changedAt);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, Participant p) {
+        if (index != live) {
+            throw new UnsupportedOperationException("participants can only be appended");
+        }
+        add(p);
+    }
+
+    @Override
+    public Participant set(int index, Participant p) {
+        if (p == null) throw new NullPointerException("participant");
+        int slot = slotAt(index);
+        Participant old = slots[slot];
+        if (old == p) return old;
+        if (entries.containsKey(p)) {
+            throw new IllegalArgumentException("participant is already registered");
+        }
+        unindex(old);
+        slots[slot] = p;
+        index(p, slot, System.currentTimeMillis());
+        return old;
+    }
+
+    @Override
+    public Participant remove(int index) {
+        int slot = slotAt(index);
+        Participant removed = slots[slot];
+        bury(slot);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Entry e = entries.get(o);
+        if (e == null) return false;
+        bury(e.slot);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return entries.containsKey(o);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Entry e = entries.get(o);
+        return (e == null) ? -1 : fenwickPrefix(e.slot) - 1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(slots, 0, end, null);
+        Arrays.fill(tree, 0);
+        end = 0;
+        live = 0;
+        entries.clear();
+        byId.clear();
+        byEmail.clear();
+        byUsername.clear();
+        modCount++;
+    }
+
+    // walks the slots directly (skipping tombstones) instead of a rank lookup per element
+    @Override
+    public Iterator<Participant> iterator() {
+        return new Iterator<>() {
+            private int next = skipTombstones(0);
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            public Participant next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (next >= end) throw new NoSuchElementException();
+                last = next;
+                next = skipTombstones(next + 1);
+                return slots[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                // no compaction while iterating: slot numbers must stay put
+                buryWithoutCompaction(last);
+                last = -1;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    // plain copy for code that wants an ArrayList (e.g. team formation on another thread)
+    public ArrayList<Participant> toList() {
+        ArrayList<Participant> list = new ArrayList<>(live);
+        for (int i = 0; i < end; i++) {
+            if (slots[i] != null) {
+                list.add(slots[i]);
+            }
+        }
+        return list;
+    }
+
+    // ---------- keyed lookups ----------
+    public Participant findById(String id) {
+        return find(byId, id);
+    }
+
+    public Participant findByEmail(String email) {
+        return find(byEmail, email);
+    }
+
+    public Participant findByUsername(String username) {
+        return find(byUsername, username);
+    }
+
+    // re-reads p's id, email and username into the indexes; false when p is not registered
+    public boolean reindex(Participant p) {
+        Entry e = entries.get(p);
+        if (e == null) return false;
+        removeKey(byId, e.id, e.slot);
+        removeKey(byEmail, e.email, e.slot);
+        removeKey(byUsername, e.username, e.slot);
+        e.id = putKey(byId, p.getId(), e.slot);
+        e.email = putKey(byEmail, p.getEmail(), e.slot);
+        e.username = putKey(byUsername, p.getUsername(), e.slot);
+        return true;
+    }
+
+    // records that p was changed now (e.g. after a survey or an organiser update)
+    public void touch(Participant p) {
+        Entry e = entries.get(p);
+        if (e != null) {
+            e.changedAt = System.currentTimeMillis();
+        }
+    }
+
+    // ---------- import ----------
+    // Upserts imported participants, matching loaded ones by ID, then email (case-insensitive).
+    // A match is updated in place, so sign-ups and sessions holding that object see the new values;
+    // rows that match an earlier row of the same import are merged into it the same way. Teams keep
+    // totals taken when a member was added, so `listener` is called around every overwrite to take
+    // the member out and put it back.
+    // `sourceChangedAt` is when the rows were written (the file's modification time).
+    // One hash lookup per row: O(rows).
+    public MergeResult merge(List<Participant> rows, MergePolicy policy, long sourceChangedAt) {
+        return merge(rows, policy, sourceChangedAt, MergeListener.none());
+    }
+
+    public MergeResult merge(List<Participant> rows, MergePolicy policy, long sourceChangedAt,
+                             MergeListener listener) {
+        int inserted = 0;
+        int updated = 0;
+        int skipped = 0;
+        for (Participant row : rows) {
+            Participant existing = findById(row.getId());
+            if (existing == null) {
+                existing = findByEmail(row.getEmail());
+            }
+            if (existing == null) {
+                if (add(row, sourceChangedAt)) {
+                    inserted++;
+                } else {
+                    skipped++;    // the very same object again
+                }
+                continue;
+            }
+
+            Entry e = entries.get(existing);
+            boolean overwrite = (policy == MergePolicy.REPLACE)
+                    || (policy == MergePolicy.NEWEST_WINS && sourceChangedAt >= e.changedAt);
+            if (!overwrite) {
+                skipped++;
+                continue;
+            }
+            listener.beforeUpdate(existing);
+            boolean changed = copyProfile(row, existing);
+            if (changed) {
+                reindex(existing);
+                e.changedAt = Math.max(e.changedAt, sourceChangedAt);
+                updated++;
+            } else {
+                skipped++;
+            }
+            listener.afterUpdate(existing, changed);
+        }
+        return new MergeResult(inserted, updated, skipped);
+    }
+
+    // copies the CSV columns of `from` onto `to`; false when they already matched
+    private static boolean copyProfile(Participant from, Participant to) {
+        boolean changed = false;
+        if (from.getId() != null && !from.getId().equals(to.getId())) {
+            to.setId(from.getId());
+            changed = true;
+        }
+        if (!Objects.equals(from.getName(), to.getName())) {
+            to.setName(from.getName());
+            changed = true;
+        }
+        if (from.getEmail() != null && !from.getEmail().equals(to.getEmail())) {
+            to.setEmail(from.getEmail());
+            changed = true;
+        }
+        if (!Objects.equals(from.getPreferredGame(), to.getPreferredGame())) {
+            to.setPreferredGame(from.getPreferredGame());
+            changed = true;
+        }
+        if (from.getSkillLevel() != to.getSkillLevel()) {
+            to.setSkillLevel(from.getSkillLevel());
+            changed = true;
+        }
+        if (!Objects.equals(from.getRole(), to.getRole())) {
+            to.setRole(from.getRole());
+            changed = true;
+        }
+        if (from.getPersonalityScore() != to.getPersonalityScore()) {
+            to.setPersonalityScore(from.getPersonalityScore());
+            changed = true;
+        }
+        if (!Objects.equals(from.getPersonalityType(), to.getPersonalityType())) {
+            to.setPersonalityType(from.getPersonalityType());
+            changed = true;
+        }
+        return changed;
+    }
+
+    int tombstones() { return end - live; }
+
+    // ---------- slots ----------
+    private int slotAt(int index) {
+        if (index < 0 || index >= live) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + live);
+        }
+        return (end == live) ? index : fenwickSelect(index + 1);
+    }
+
+    private int skipTombstones(int slot) {
+        while (slot < end && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private void bury(int slot) {
+        buryWithoutCompaction(slot);
+        int dead = end - live;
+        if (dead >= MIN_COMPACT_TOMBSTONES && dead > live) {
+            compact();
+        }
+    }
+
+    private void buryWithoutCompaction(int slot) {
+        Participant p = slots[slot];
+        unindex(p);
+        slots[slot] = null;
+        live--;
+        fenwickAdd(slot, -1);
+        modCount++;
+    }
+
+    private void grow() {
+        rebuild(Math.max(16, slots.length * 2));
+    }
+
+    private void compact() {
+        rebuild(Math.max(16, Math.max(slots.length, live * 2)));
+    }
+
+    // moves the live participants to the front of a new array and rebuilds every index
+    private void rebuild(int capacity) {
+        Participant[] moved = new Participant[capacity];
+        int n = 0;
+        for (int i = 0; i < end; i++) {
+            if (slots[i] != null) {
+                moved[n++] = slots[i];
+            }
+        }
+        slots = moved;
+        end = n;
+        live = n;
+
+        // entries keep their change times; only slots and key maps are redone
+        byId.clear();
+        byEmail.clear();
+        byUsername.clear();
+        for (int i = 0; i < n; i++) {
+            Entry e = entries.get(slots[i]);
+            e.slot = i;
+            putKey(byId, e.id, i);
+            putKey(byEmail, e.email, i);
+            putKey(byUsername, e.username, i);
+        }
+
+        // O(capacity) Fenwick build: every slot below `end` is live; sums must reach every
+        // ancestor, including those above `end`, so the whole array is walked
+        tree = new int[capacity + 1];
+        for (int i = 1; i <= capacity; i++) {
+            if (i <= n) {
+                tree[i] += 1;
+            }
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // ---------- indexes ----------
+    private void index(Participant p, int slot, long changedAt) {
+        Entry e = new Entry(slot, changedAt);
+        e.id = putKey(byId, p.getId(), slot);
+        e.email = putKey(byEmail, p.getEmail(), slot);
+        e.username = putKey(byUsername, p.getUsername(), slot);
+        entries.put(p, e);
+    }
+
+    private void unindex(Participant p) {
+        Entry e = entries.remove(p);
+        if (e != null) {
+            removeKey(byId, e.id, e.slot);
+            removeKey(byEmail, e.email, e.slot);
+            removeKey(byUsername, e.username, e.slot);
+        }
+    }
+
+    private Participant find(Map<String, Integer> map, String raw) {
+        String key = key(raw);
+        Integer slot = (key == null) ? null : map.get(key);
+        return (slot == null) ? null : slots[slot];
+    }
+
+    // the first participant registered under a key keeps it; returns the normalised key
+    private static String putKey(Map<String, Integer> map, String raw, int slot) {
+        String key = key(raw);
+        if (key != null) {
+            map.putIfAbsent(key, slot);
+        }
+        return key;
+    }
+
+    private static void removeKey(Map<String, Integer> map, String key, int slot) {
+        if (key != null) {
+            map.remove(key, slot);
+        }
+    }
+
+    private static String key(String raw) {
+        if (raw == null) return null;
+        String k = raw.trim();
+        return k.isEmpty() ? null : k.toLowerCase(Locale.ROOT);
+    }
+
+    // ---------- Fenwick tree ----------
+    private void fenwickAdd(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // live participants in slots [0, slot]
+    private int fenwickPrefix(int slot) {
+        int sum = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // slot of the rank-th live participant (rank >= 1)
+    private int fenwickSelect(int rank) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < rank) {
+                pos = next;
+                rank -= tree[next];
+            }
+        }
+        return pos;    // 1-based position pos + 1 => slot pos
+    }
+}
@@ -0,0 +1,92 @@
+package teammate.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Columnar (struct-of-arrays) copy of the attributes team formation needs.
+// Row i describes participant(i); the Participant objects are kept only to map results back.
+public class ParticipantStore {
+
+    private int size;
+    private int[] skill;
+    private byte[] gameCode;
+    private byte[] roleCode;
+    private byte[] personality;
+    private int[] personalityScore;
+    private Participant[] participants;
+
+    public ParticipantStore() {
+        this(16);
+    }
+
+    public ParticipantStore(int initialCapacity) {
+        int cap = Math.max(1, initialCapacity);
+        skill = new int[cap];
+        gameCode = new byte[cap];
+        roleCode = new byte[cap];
+        personality = new byte[cap];
+        personalityScore = new int[cap];
+        participants = new Participant[cap];
+    }
+
+    public static ParticipantStore of(List<Participant> list) {
+        ParticipantStore store = new ParticipantStore(list.size());
+        for (Participant p : list) {
+            store.add(p);
+        }
+        return store;
+    }
+
+    // append a row; returns its index
+    public int add(Participant p) {
+        if (size == skill.length) {
+            grow();
+        }
+        int i = size++;
+        skill[i] = p.getSkillLevel();
+        gameCode[i] = (byte) p.getGameCode();
+        roleCode[i] = (byte) p.getRoleCode();
+        personality[i] = (byte) p.getPersonalityCode();
+        personalityScore[i] = p.getPersonalityScore();
+        participants[i] = p;
+        return i;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public int skill(int i) { return skill[i]; }
+    public int gameCode(int i) { return gameCode[i] & 0xFF; }
+    public int roleCode(int i) { return roleCode[i] & 0xFF; }
+    public int personality(int i) { return personality[i]; }
+    public int personalityScore(int i) { return personalityScore[i]; }
+    public Participant participant(int i) { return participants[i]; }
+
+    public long totalSkill() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += skill[i];
+        }
+        return total;
+    }
+
+    // Participant objects in row order
+    public ArrayList<Participant> toList() {
+        ArrayList<Participant> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(participants[i]);
+        }
+        return list;
+    }
+
+    private void grow() {
+        int cap = skill.length * 2;
+        skill = Arrays.copyOf(skill, cap);
+        gameCode = Arrays.copyOf(gameCode, cap);
+        roleCode = Arrays.copyOf(roleCode, cap);
+        personality = Arrays.copyOf(personality, cap);
+        personalityScore = Arrays.copyOf(personalityScore, cap);
+        participants = Arrays.copyOf(participants, cap);
+    }
+}
@@ -1,10 +1,26 @@
 package teammate.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+// Represents a formed team and keeps running aggregates (skill sum, game/role/personality counts)
+// so the team builder can score placements without rescanning the member list.
 public class Team {
     private String teamName;
     private ArrayList<Participant> members = new ArrayList<>();
+    private final List<Participant> membersView = Collections.unmodifiableList(members);
+
+    // ---- running aggregates, updated in addMember / removeMember ----
+    // Aggregates reflect each member's attributes at the time they were added.
+    private int skillSum;
+    private int leaderCount;
+    private int thinkerCount;
+    private int[] gameCounts = new int[16];   // indexed by AttributeDictionary game code
+    private int[] roleCounts = new int[16];   // indexed by AttributeDictionary role code
+    private int distinctGames;                // non-empty game codes with count > 0
+    private int distinctRoles;                // non-empty role codes with count > 0
 
     public Team(String teamName) {
         this.teamName = teamName;
@@ -12,8 +28,113 @@ public class Team {
 
     public void addMember(Participant p) {
         members.add(p);
+        update(p, 1);
+    }
+
+    // remove a member and roll back its contribution to the aggregates
+    public boolean removeMember(Participant p) {
+        if (!members.remove(p)) {
+            return false;
+        }
+        update(p, -1);
+        return true;
+    }
+
+    // remove every member and reset the aggregates
+    public void clearMembers() {
+        members.clear();
+        skillSum = 0;
+        leaderCount = 0;
+        thinkerCount = 0;
+        Arrays.fill(gameCounts, 0);
+        Arrays.fill(roleCounts, 0);
+        distinctGames = 0;
+        distinctRoles = 0;
     }
 
     public String getTeamName() { return teamName; }
-    public ArrayList<Participant> getMembers() { return members; }
+
+    // read-only view – use addMember / removeMember / clearMembers to change membership
+    public List<Participant> getMembers() { return membersView; }
+
+    public int size() { return members.size(); }
+
+    // ---------- Aggregate getters (O(1)) ----------
+    public int getSkillSum() { return skillSum; }
+
+    public double getAverageSkill() {
+        return members.isEmpty() ? 0.0 : (double) skillSum / members.size();
+    }
+
+    public int getLeaderCount() { return leaderCount; }
+    public int getThinkerCount() { return thinkerCount; }
+
+    // number of members with the given game code
+    public int countGame(int gameCode) {
+        return gameCode < gameCounts.length ? gameCounts[gameCode] : 0;
+    }
+
+    public int getDistinctGameCount() { return distinctGames; }
+
+    // members beyond `cap` summed over every non-empty game (0 when no game exceeds the cap)
+    public int gameOverflow(int cap) {
+        int overflow = 0;
+        for (int code = 1; code < gameCounts.length; code++) {
+            if (gameCounts[code] > cap) {
+                overflow += gameCounts[code] - cap;
+            }
+        }
+        return overflow;
+    }
+
+    // empty and OVERFLOW roles never count as present
+    public boolean hasRole(int roleCode) {
+        return AttributeDictionary.isCounted(roleCode)
+                && roleCode < roleCounts.length && roleCounts[roleCode] > 0;
+    }
+
+    public int getDistinctRoleCount() { return distinctRoles; }
+
+    // number of members with the given role code
+    public int countRole(int roleCode) {
+        return roleCode < roleCounts.length ? roleCounts[roleCode] : 0;
+    }
+
+    // ---------- helpers ----------
+    private void update(Participant p, int delta) {
+        skillSum += delta * p.getSkillLevel();
+
+        // OVERFLOW stands for many different values, so it is never counted (count stays 0)
+        int game = p.getGameCode();
+        if (game != AttributeDictionary.OVERFLOW) {
+            gameCounts = ensureCapacity(gameCounts, game);
+            if (bump(gameCounts, game, delta) && game != AttributeDictionary.EMPTY) {
+                distinctGames += delta;
+            }
+        }
+
+        int role = p.getRoleCode();
+        if (role != AttributeDictionary.OVERFLOW) {
+            roleCounts = ensureCapacity(roleCounts, role);
+            if (bump(roleCounts, role, delta) && role != AttributeDictionary.EMPTY) {
+                distinctRoles += delta;
+            }
+        }
+
+        int type = p.getPersonalityCode();
+        if (type == AttributeDictionary.PERSONALITY_LEADER) leaderCount += delta;
+        else if (type == AttributeDictionary.PERSONALITY_THINKER) thinkerCount += delta;
+    }
+
+    // apply delta; true when the count moved between zero and non-zero
+    private static boolean bump(int[] counts, int code, int delta) {
+        int before = counts[code];
+        counts[code] = before + delta;
+        return before == 0 || counts[code] == 0;
+    }
+
+    private static int[] ensureCapacity(int[] counts, int code) {
+        if (code < counts.length) return counts;
+        return Arrays.copyOf(counts, Math.max(code + 1, counts.length * 2));
+    }
 }
@@ -0,0 +1,189 @@
+package teammate.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Append-only change log kept next to an accounts CSV ("<csv>.journal").
+//
+// line = "U," + AccountRow columns   (account added or changed – replaces the whole row)
+//      | "D," + username              (account removed)
+//
+// The CSV is the snapshot; the accounts on disk are the snapshot with the journal applied in order.
+// A save appends only the rows of the accounts changed since the last save (and only where they
+// differ from what is already on disk), in one write followed by one fsync, so a survey costs one
+// line instead of a rewrite of every account. Deletes are appended as they happen. Once the journal holds
+// about as many records as the snapshot has rows it is compacted: the full CSV is written to a temp
+// file, moved over the old one, and only then is the journal emptied – replaying an old journal over
+// the new snapshot gives the same accounts, so a crash between the two steps loses nothing.
+// One instance per CSV path; callers synchronise on it.
+final class AccountJournal {
+
+    static final String SUFFIX = ".journal";
+    static final String UPSERT = "U";
+    static final String DELETE = "D";
+    private static final int MIN_COMPACT_RECORDS = 256;
+
+    private static final Map<Path, AccountJournal> JOURNALS = new ConcurrentHashMap<>();
+
+    private final Path snapshot;
+    private final Path file;
+    // rows as they are on disk (snapshot + journal) by lower-case username;
+    // null until this process has loaded or written the snapshot
+    private Map<String, AccountRow> persisted;
+    private int records;
+
+    private AccountJournal(Path snapshot) {
+        this.snapshot = snapshot;
+        this.file = snapshot.resolveSibling(snapshot.getFileName() + SUFFIX);
+    }
+
+    static AccountJournal forSnapshot(String csvPath) {
+        Path snapshot = Path.of(csvPath).toAbsolutePath().normalize();
+        return JOURNALS.computeIfAbsent(snapshot, AccountJournal::new);
+    }
+
+    Path file() { return file; }
+    int records() { return records; }
+
+    // true when appending deltas is enough; otherwise the next save must write the full snapshot
+    boolean canAppend() {
+        return persisted != null && Files.isRegularFile(snapshot);
+    }
+
+    boolean shouldCompact() {
+        return records >= Math.max(MIN_COMPACT_RECORDS, persisted == null ? 0 : persisted.size());
+    }
+
+    // ---------- load ----------
+    // Applies the journal on top of `rows` (the snapshot just read, by lower-case username) and
+    // reports each record; `rows` becomes the on-disk state this journal compares saves against.
+    void replay(Map<String, AccountRow> rows, Consumer<AccountRow> upserted, Consumer<String> deleted)
+            throws IOException {
+        records = 0;
+        if (Files.isRegularFile(file)) {
+            // the journal is bounded by compaction, so it is read in one go; a last line without
+            // its '\n' was cut off by a crash in the middle of a write and is ignored
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            int start = 0;
+            int end;
+            while ((end = text.indexOf('\n', start)) >= 0) {
+                String[] parts = text.substring(start, end).split(",", -1);
+                start = end + 1;
+                if (parts.length == 11 && UPSERT.equals(parts[0])) {
+                    AccountRow row = AccountRow.parse(parts, 1);
+                    rows.put(row.key(), row);
+                    upserted.accept(row);
+                    records++;
+                } else if (parts.length == 2 && DELETE.equals(parts[0])) {
+                    String key = AccountRepository.key(parts[1].trim());
+                    rows.remove(key);
+                    deleted.accept(key);
+                    records++;
+                }
+            }
+        }
+        persisted = rows;
+    }
+
+    // ---------- save ----------
+    // Appends the changed rows that differ from disk; returns the number of records written.
+    int appendChanges(Collection<AccountRow> changed) throws IOException {
+        StringBuilder batch = new StringBuilder();
+        int written = 0;
+        for (AccountRow row : changed) {
+            if (!row.equals(persisted.get(row.key()))) {
+                batch.append(UPSERT).append(',').append(row.toCsv()).append('\n');
+                written++;
+            }
+        }
+        if (written > 0) {
+            append(batch);
+            for (AccountRow row : changed) {
+                persisted.put(row.key(), row);
+            }
+            records += written;
+        }
+        return written;
+    }
+
+    void appendUpsert(AccountRow row) throws IOException {
+        append(new StringBuilder(UPSERT).append(',').append(row.toCsv()).append('\n'));
+        if (persisted != null) {
+            persisted.put(row.key(), row);
+        }
+        records++;
+    }
+
+    void appendDelete(String username) throws IOException {
+        String key = AccountRepository.key(username);
+        append(new StringBuilder(DELETE).append(',').append(key).append('\n'));
+        if (persisted != null) {
+            persisted.remove(key);
+        }
+        records++;
+    }
+
+    // Writes every row as the new snapshot, then empties the journal.
+    void compact(List<AccountRow> rows) throws IOException {
+        StringBuilder csv = new StringBuilder((rows.size() + 1) * 96);
+        csv.append(AccountRow.HEADER).append('\n');
+        Map<String, AccountRow> written = new HashMap<>(rows.size() * 4 / 3 + 1);
+        for (AccountRow row : rows) {
+            csv.append(row.toCsv()).append('\n');
+            written.put(row.key(), row);
+        }
+
+        Path parent = snapshot.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        writeFully(temp, csv, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(file);
+
+        persisted = written;
+        records = 0;
+    }
+
+    // ---------- helpers ----------
+    private void append(CharSequence lines) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        writeFully(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                StandardOpenOption.WRITE);
+    }
+
+    // one write and one fsync for the whole batch
+    private static void writeFully(Path target, CharSequence text, StandardOpenOption... options)
+            throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+        try (FileChannel ch = FileChannel.open(target, options)) {
+            while (bytes.hasRemaining()) {
+                ch.write(bytes);
+            }
+            ch.force(false);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package teammate.service;
+
+import teammate.model.Participant;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-memory participant accounts, one record per username (case-insensitive).
+// Replaces the three parallel maps (password / profile / id) AuthService used to keep in step by hand:
+// a record is published in one step, so a reader never sees a password without its profile.
+// Safe for concurrent signups, logins and survey saves; the ID counter is atomic, so two signups
+// can never be handed the same P-number.
+final class AccountRepository {
+
+    static final int FIRST_NUMERIC_ID = 101;
+
+    // one participant account; the password is the only part that changes after creation
+    static final class Account {
+        final String username;
+        final String id;
+        final Participant profile;
+        private volatile String password;
+
+        Account(String username, String password, String id, Participant profile) {
+            this.username = username;
+            this.password = password;
+            this.id = id;
+            this.profile = profile;
+        }
+
+        String password() { return password; }
+
+        void setPassword(String password) { this.password = password; }
+    }
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    // keys of accounts changed since the last journal write (survey, password, organizer update)
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextNumericId = new AtomicInteger(FIRST_NUMERIC_ID);
+
+    static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    Account find(String username) {
+        return (username == null) ? null : accounts.get(key(username));
+    }
+
+    boolean contains(String username) {
+        return find(username) != null;
+    }
+
+    // adds a new account; false (and nothing changed) when the username is already taken
+    boolean register(Account account) {
+        return accounts.putIfAbsent(key(account.username), account) == null;
+    }
+
+    // adds or replaces (loading from file)
+    void put(Account account) {
+        accounts.put(key(account.username), account);
+    }
+
+    // removed account, or null when there was none
+    Account remove(String username) {
+        return (username == null) ? null : accounts.remove(key(username));
+    }
+
+    // current accounts; weakly consistent while other threads sign up
+    List<Account> all() {
+        return new ArrayList<>(accounts.values());
+    }
+
+    int size() {
+        return accounts.size();
+    }
+
+    // ---------- changes not yet saved ----------
+    void markDirty(String username) {
+        if (username != null) {
+            dirty.add(key(username));
+        }
+    }
+
+    // the changed accounts' keys, forgotten here; a key marked again meanwhile is kept for the next drain
+    List<String> drainDirty() {
+        List<String> keys = new ArrayList<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            keys.add(it.next());
+            it.remove();
+        }
+        return keys;
+    }
+
+    // ---------- ID counter ----------
+    // takes the next numeric ID (101 => P101)
+    int takeNumericId() {
+        return nextNumericId.getAndIncrement();
+    }
+
+    int peekNumericId() {
+        return nextNumericId.get();
+    }
+
+    // makes sure IDs handed out from now on are above `numeric`
+    void reserveUpTo(int numeric) {
+        nextNumericId.accumulateAndGet(numeric + 1, Math::max);
+    }
+
+    // empties the repository and restarts IDs at `nextId`
+    void reset(int nextId) {
+        accounts.clear();
+        dirty.clear();
+        nextNumericId.set(nextId);
+    }
+}
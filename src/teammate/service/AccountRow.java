@@ -0,0 +1,179 @@
+package teammate.service;
+
+import teammate.model.Participant;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+// One line of participant_accounts.csv, with the password in plain text:
+// username,password,ID,fullName,email,preferredGame,skillLevel,role,personalityScore,personalityType
+// Shared by the CSV snapshot and the account journal so both read and write rows the same way.
+final class AccountRow {
+
+    static final String HEADER =
+            "username,password,ID,fullName,email,preferredGame,skillLevel,role,personalityScore,personalityType";
+    static final String NOT_SELECTED = "Not selected";
+
+    final String username;
+    final String password;
+    final String id;
+    final String fullName;
+    final String email;
+    final String preferredGame;
+    final int skillLevel;
+    final String role;
+    final int personalityScore;
+    final String personalityType;
+
+    private AccountRow(String username, String password, String id, String fullName, String email,
+                       String preferredGame, int skillLevel, String role,
+                       int personalityScore, String personalityType) {
+        this.username = username;
+        this.password = password;
+        this.id = id;
+        this.fullName = fullName;
+        this.email = email;
+        this.preferredGame = preferredGame;
+        this.skillLevel = skillLevel;
+        this.role = role;
+        this.personalityScore = personalityScore;
+        this.personalityType = personalityType;
+    }
+
+    // current state of an account, with the same defaults the full save always used
+    static AccountRow of(AccountRepository.Account account) {
+        String key = AccountRepository.key(account.username);
+        Participant p = account.profile;
+
+        String fullName = (p != null && p.getName() != null && !p.getName().isEmpty())
+                ? p.getName() : key;
+        String email = (p != null && p.getEmail() != null && !p.getEmail().isEmpty())
+                ? p.getEmail() : (key + "@example.com");
+        String preferredGame = (p != null && p.getPreferredGame() != null)
+                ? p.getPreferredGame() : NOT_SELECTED;
+        int skillLevel = (p != null) ? p.getSkillLevel() : 0;
+        String role = (p != null && p.getRole() != null)
+                ? p.getRole() : NOT_SELECTED;
+        int personalityScore = (p != null) ? p.getPersonalityScore() : 0;
+        String personalityType = (p != null && p.getPersonalityType() != null)
+                ? p.getPersonalityType() : NOT_SELECTED;
+
+        return new AccountRow(key, account.password(), (account.id != null) ? account.id : "P000",
+                fullName, email, preferredGame, skillLevel, role, personalityScore, personalityType);
+    }
+
+    // parses the columns of one line (split with limit -1); null when there are fewer than 5
+    static AccountRow parse(String[] parts, int from) {
+        if (parts.length - from < 5) return null;
+
+        String username          = parts[from].trim();
+        String encryptedPassword = parts[from + 1].trim();
+        String id                = parts[from + 2].trim();
+        String fullName          = parts[from + 3].trim();
+        String email             = parts[from + 4].trim();
+
+        String preferredGame     = NOT_SELECTED;
+        int    skillLevel        = 0;
+        String role              = NOT_SELECTED;
+        int    personalityScore  = 0;
+        String personalityType   = NOT_SELECTED;
+
+        if (parts.length - from >= 10) {
+            if (!parts[from + 5].trim().isEmpty())
+                preferredGame = parts[from + 5].trim();
+
+            if (!parts[from + 6].trim().isEmpty()) {
+                try { skillLevel = Integer.parseInt(parts[from + 6].trim()); }
+                catch (NumberFormatException ignored) {}
+            }
+
+            if (!parts[from + 7].trim().isEmpty())
+                role = parts[from + 7].trim();
+
+            if (!parts[from + 8].trim().isEmpty()) {
+                try { personalityScore = Integer.parseInt(parts[from + 8].trim()); }
+                catch (NumberFormatException ignored) {}
+            }
+
+            if (!parts[from + 9].trim().isEmpty())
+                personalityType = parts[from + 9].trim();
+        }
+
+        String plainPassword = "";
+        if (!encryptedPassword.isEmpty()) {
+            plainPassword = decodePassword(encryptedPassword);
+        }
+        if (email.isEmpty()) {
+            email = username + "@example.com";
+        }
+        return new AccountRow(username, plainPassword, id, fullName, email,
+                preferredGame, skillLevel, role, personalityScore, personalityType);
+    }
+
+    // a new in-memory account for this row
+    AccountRepository.Account toAccount() {
+        Participant p = new Participant(fullName, email, preferredGame, skillLevel, role);
+        p.setPersonalityScore(personalityScore);
+        p.setPersonalityType(personalityType);
+        p.setId(id);
+
+        // 🔹 link credentials into the profile
+        p.setUsername(username);
+        p.setPassword(password);
+        return new AccountRepository.Account(username, password, id, p);
+    }
+
+    String key() {
+        return AccountRepository.key(username);
+    }
+
+    // numeric part of a P### id, or -1
+    int numericId() {
+        if (id == null || !id.startsWith("P")) return -1;
+        try {
+            return Integer.parseInt(id.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    String toCsv() {
+        return username + "," + encodePassword(password) + "," + id + "," +
+                fullName + "," + email + "," +
+                preferredGame + "," + skillLevel + "," +
+                role + "," + personalityScore + "," + personalityType;
+    }
+
+    // Simple Base64 "encryption" for coursework
+    static String encodePassword(String raw) {
+        return Base64.getEncoder()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodePassword(String encoded) {
+        try {
+            byte[] decoded = Base64.getDecoder().decode(encoded);
+            return new String(decoded, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AccountRow)) return false;
+        AccountRow r = (AccountRow) o;
+        return skillLevel == r.skillLevel && personalityScore == r.personalityScore
+                && username.equals(r.username) && Objects.equals(password, r.password)
+                && Objects.equals(id, r.id) && Objects.equals(fullName, r.fullName)
+                && Objects.equals(email, r.email) && Objects.equals(preferredGame, r.preferredGame)
+                && Objects.equals(role, r.role) && Objects.equals(personalityType, r.personalityType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(username, id, skillLevel, personalityScore);
+    }
+}
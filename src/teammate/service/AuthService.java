@@ -5,34 +5,46 @@ import teammate.model.Participant;
 import teammate.service.LoggerService;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 // Handles organizer/participant authentication, password changes, and account file loading/saving.
 
 public class AuthService {
 
     private static final LoggerService logger = LoggerService.getInstance();
+    // non-interactive status output (load/save results); prompts and menus stay on System.out
+    private static volatile EventSink events = EventSink.console();
     private static Organizer organizerAccount;
 
-    // username (lowercase) -> plain password
-    private static final Map<String, String> participantCredentials = new HashMap<>();
-    // username (lowercase) -> Participant profile
-    private static final Map<String, Participant> participantProfiles = new HashMap<>();
-    // username (lowercase) -> generated ID (P101, P102, ...)
-    private static final Map<String, String> participantIds = new HashMap<>();
-
-    // next numeric ID to generate (101 => P101)
-    private static int nextGeneratedNumericId = 101;
+    // username (case-insensitive) -> password, generated ID (P101, ...) and profile,
+    // plus the next numeric ID to generate (101 => P101)
+    private static final AccountRepository accounts = new AccountRepository();
 
     private static final String ACCOUNTS_FILE =
             "src/teammate/auth/participant_accounts.csv";
     private static final String ORGANIZER_FILE =
             "src/teammate/auth/organizer_account.csv";
 
+    // Saves requested at about the same time (many participants finishing the survey together)
+    // share one journal write + fsync. By default a save starts as soon as the previous one is done
+    // and takes everything that queued up behind it, so a lone save never waits;
+    // -Dteammate.accounts.commitWindowMillis=N also waits up to N ms for more saves to join.
+    static final String COMMIT_WINDOW_PROPERTY = "teammate.accounts.commitWindowMillis";
+    private static final int COMMIT_MAX_BATCH = 64;
+    private static final GroupCommitter saves = new GroupCommitter("account-saves",
+            Long.getLong(COMMIT_WINDOW_PROPERTY, 0L), COMMIT_MAX_BATCH, AuthService::writeAllAccounts);
+
+    public static void setEventSink(EventSink sink) {
+        events = (sink == null) ? EventSink.none() : sink;
+    }
+
     public AuthService() {
         loadOrganizerAccount(ORGANIZER_FILE);
         loadParticipantAccounts(ACCOUNTS_FILE);
@@ -116,11 +128,10 @@ public class AuthService {
         System.out.print("Enter current password: ");
         String current = sc.nextLine().trim();
 
-        // Stored password is inside participantCredentials map
-        String key = participant.getUsername().toLowerCase();
-        String realPassword = participantCredentials.get(key);
+        // Stored password is inside the account record
+        AccountRepository.Account account = accounts.find(participant.getUsername());
 
-        if (!current.equals(realPassword)) {
+        if (account == null || !current.equals(account.password())) {
             System.out.println("Incorrect current password.");
             return;
         }
@@ -145,8 +156,9 @@ public class AuthService {
         }
 
         // Update in memory
-        participantCredentials.put(key, newPass);
+        account.setPassword(newPass);
         participant.setPassword(newPass);
+        accounts.markDirty(account.username);
 
         // Save permanently
         saveAllAccountsToFile(ACCOUNTS_FILE);
@@ -169,8 +181,7 @@ public class AuthService {
                 System.out.println("Username cannot be empty.");
                 continue;
             }
-            String key = username.toLowerCase();
-            if (participantCredentials.containsKey(key)) {
+            if (accounts.contains(username)) {
                 System.out.println("This username is already taken. Try another one.");
                 continue;
             }
@@ -199,7 +210,7 @@ public class AuthService {
         }
 
         // 3) Auto-generate ID, Name, Email in signup order
-        int currentIdNumber = nextGeneratedNumericId;       // e.g. 101 for first signup
+        int currentIdNumber = accounts.takeNumericId();     // e.g. 101 for first signup
         String id        = "P" + currentIdNumber;           // P101
         String fullName  = "Participant_" + currentIdNumber; // Participant_101
         String email     = "user" + currentIdNumber + "@university.edu"; // user101@...
@@ -211,30 +222,28 @@ public class AuthService {
         System.out.println();
         System.out.println("(These will be used for team formation.)");
 
-        String key = username.toLowerCase();
-
-        // save password in memory
-        participantCredentials.put(key, password);
-
         // create participant profile with default survey data
         Participant p = new Participant(fullName, email,
                 "Not selected", 0, "Not selected");
         p.setPersonalityType("Not selected");
         p.setPersonalityScore(0);
+        p.setId(id);
         // make sure profile knows its login credentials
         p.setUsername(username);
         p.setPassword(password);
 
-        participantProfiles.put(key, p);
-        participantIds.put(key, id);
+        // publish password, ID and profile together; another session may have taken the
+        // username while this one was typing its password
+        AccountRepository.Account account = new AccountRepository.Account(username, password, id, p);
+        if (!accounts.register(account)) {
+            logger.info("Participant signup lost username race: username=" + username);
+            System.out.println("This username was just taken by someone else. Please sign up again.");
+            return null;
+        }
 
         // append this account to file (with all columns)
-        appendAccountToFile(username, password, id, fullName, email,
-                p.getPreferredGame(), p.getSkillLevel(), p.getRole(),
-                p.getPersonalityScore(), p.getPersonalityType(), ACCOUNTS_FILE);
+        appendAccountToFile(account, ACCOUNTS_FILE);
 
-        // increase ID counter for next signup
-        nextGeneratedNumericId++;
         logger.info("Participant signup success: username=" + username +
                 ", id=" + id + ", email=" + email);
         System.out.println("Signup successful. You can now log in. username=" + username +
@@ -250,8 +259,8 @@ public class AuthService {
         System.out.print("Password: ");
         String password = sc.nextLine().trim();
 
-        String key = username.toLowerCase();
-        String stored = participantCredentials.get(key); // loaded from file (decrypted)
+        AccountRepository.Account account = accounts.find(username);
+        String stored = (account == null) ? null : account.password(); // loaded from file (decrypted)
 
         if (stored == null || !stored.equals(password)) {
             logger.info("Participant login FAILED for username=" + username);
@@ -262,7 +271,7 @@ public class AuthService {
         logger.info("Participant login success: username=" + username);
         System.out.println("Login success. Welcome " + username + "!");
 
-        Participant profile = participantProfiles.get(key);
+        Participant profile = account.profile;
         if (profile == null) {
             // fallback – should not normally happen if file is consistent
             profile = new Participant(username,
@@ -270,7 +279,8 @@ public class AuthService {
                     "Not selected", 0, "Not selected");
             profile.setPersonalityType("Not selected");
             profile.setPersonalityScore(0);
-            participantProfiles.put(key, profile);
+            profile.setId(account.id);
+            accounts.put(new AccountRepository.Account(account.username, stored, account.id, profile));
         }
         profile.setUsername(username);
         profile.setPassword(stored);
@@ -280,7 +290,7 @@ public class AuthService {
     public static void loadOrganizerAccount(String ORGANIZER_FILE) {
         File file = new File(ORGANIZER_FILE);
         if (!file.exists()) {
-            System.out.println("Organizer account file missing: " + ORGANIZER_FILE);
+            events.emit("auth.error", "Organizer account file missing: " + ORGANIZER_FILE);
             return;
         }
 
@@ -289,14 +299,14 @@ public class AuthService {
             String line = br.readLine();   // we expect only one organizer row
 
             if (line == null || line.trim().isEmpty()) {
-                System.out.println("Organizer file is empty.");
+                events.emit("auth.error", "Organizer file is empty.");
                 return;
             }
 
             String[] parts = line.split(",", -1);
             // Format: username,password,name   (3 columns)
             if (parts.length < 3) {
-                System.out.println("Organizer file has invalid format.");
+                events.emit("auth.error", "Organizer file has invalid format.");
                 return;
             }
 
@@ -307,233 +317,228 @@ public class AuthService {
             String plainPass = decryptPassword(encryptedPass);
 
             organizerAccount = new Organizer(name, username, plainPass);
-            System.out.println("Organizer account loaded.");
+            events.emit("auth.load", "Organizer account loaded.");
         } catch (IOException e) {
-            System.out.println("Error loading organizer account: " + e.getMessage());
+            events.emit("auth.error", "Error loading organizer account: " + e.getMessage());
         }
     }
 
     // ================= FILE LOAD / SAVE =================
+    // Loads the snapshot CSV and then replays its journal (changes saved since the last compaction).
     public static void loadParticipantAccounts(String ACCOUNTS_FILE) {
         File file = new File(ACCOUNTS_FILE);
-        if (!file.exists()) {
+        AccountJournal journal = AccountJournal.forSnapshot(ACCOUNTS_FILE);
+        if (!file.exists() && !Files.isRegularFile(journal.file())) {
             logger.info("No existing participant accounts file found.");
-            System.out.println("No existing participant accounts file found.");
+            events.emit("auth.load", "No existing participant accounts file found.");
             return;
         }
 
         int loadedCount = 0;
         int maxNumericIdFound = 100; // so first new becomes 101
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = br.readLine(); // maybe header
-            if (line != null) {
-                // remove BOM if present
-                line = line.replace("\uFEFF", "");
-            }
-            if (line != null && line.toLowerCase().startsWith("username,")) {
-                // header line, read next
-                line = br.readLine();
-            }
-
-            while (line != null) {
-                // keep empty last columns
-                String[] parts = line.split(",", -1);
-
-                // expecting:
-                // 0=username,1=password,2=ID,3=fullName,4=email,
-                // 5=preferredGame,6=skillLevel,7=role,8=personalityScore,9=personalityType
-                if (parts.length >= 5) {
-                    String username          = parts[0].trim();
-                    String encryptedPassword = parts[1].trim();
-                    String id                = parts[2].trim();
-                    String fullName          = parts[3].trim();
-                    String email             = parts[4].trim();
-
-                    String preferredGame     = "Not selected";
-                    int    skillLevel        = 0;
-                    String role              = "Not selected";
-                    int    personalityScore  = 0;
-                    String personalityType   = "Not selected";
-
-                    if (parts.length >= 10) {
-                        if (!parts[5].trim().isEmpty())
-                            preferredGame = parts[5].trim();
-
-                        if (!parts[6].trim().isEmpty()) {
-                            try { skillLevel = Integer.parseInt(parts[6].trim()); }
-                            catch (NumberFormatException ignored) {}
+        Map<String, AccountRow> rows = new HashMap<>();
+
+        synchronized (journal) {
+            try {
+                if (file.exists()) {
+                    try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+                        String line = br.readLine(); // maybe header
+                        if (line != null) {
+                            // remove BOM if present
+                            line = line.replace("\uFEFF", "");
                         }
-
-                        if (!parts[7].trim().isEmpty())
-                            role = parts[7].trim();
-
-                        if (!parts[8].trim().isEmpty()) {
-                            try { personalityScore = Integer.parseInt(parts[8].trim()); }
-                            catch (NumberFormatException ignored) {}
+                        if (line != null && line.toLowerCase().startsWith("username,")) {
+                            // header line, read next
+                            line = br.readLine();
                         }
 
-                        if (!parts[9].trim().isEmpty())
-                            personalityType = parts[9].trim();
-                    }
-
-                    String key = username.toLowerCase();
-
-                    String plainPassword = "";
-                    if (!encryptedPassword.isEmpty()) {
-                        plainPassword = decryptPassword(encryptedPassword);
-                    }
-
-                    participantCredentials.put(key, plainPassword);
-
-                    Participant p = new Participant(
-                            fullName,
-                            email.isEmpty() ? (username + "@example.com") : email,
-                            preferredGame,
-                            skillLevel,
-                            role
-                    );
-                    p.setPersonalityScore(personalityScore);
-                    p.setPersonalityType(personalityType);
-
-                    // 🔹 link credentials into the profile
-                    p.setUsername(username);
-                    p.setPassword(plainPassword);
-
-                    participantProfiles.put(key, p);
-                    participantIds.put(key, id);
-
-                    // track max ID number, if in format P###
-                    if (id != null && id.startsWith("P")) {
-                        try {
-                            int numeric = Integer.parseInt(id.substring(1));
-                            if (numeric > maxNumericIdFound) {
-                                maxNumericIdFound = numeric;
+                        while (line != null) {
+                            // keep empty last columns
+                            // expecting:
+                            // 0=username,1=password,2=ID,3=fullName,4=email,
+                            // 5=preferredGame,6=skillLevel,7=role,8=personalityScore,9=personalityType
+                            AccountRow row = AccountRow.parse(line.split(",", -1), 0);
+                            if (row != null) {
+                                accounts.put(row.toAccount());
+                                rows.put(row.key(), row);
+                                // track max ID number, if in format P###
+                                maxNumericIdFound = Math.max(maxNumericIdFound, row.numericId());
+                                loadedCount++;
                             }
-                        } catch (NumberFormatException ignored) {}
+                            line = br.readLine();
+                        }
                     }
-
-                    loadedCount++;
                 }
 
-                line = br.readLine();
+                int[] replayed = new int[2];    // { changed, maxNumericId }
+                replayed[1] = maxNumericIdFound;
+                journal.replay(rows, row -> {
+                    accounts.put(row.toAccount());
+                    replayed[0]++;
+                    replayed[1] = Math.max(replayed[1], row.numericId());
+                }, key -> {
+                    accounts.remove(key);
+                    replayed[0]++;
+                });
+                maxNumericIdFound = replayed[1];
+
+                // next ID to assign
+                accounts.reserveUpTo(maxNumericIdFound);
+                logger.info("Loaded {} participant accounts from file, {} journal records replayed.",
+                        loadedCount, replayed[0]);
+                events.emit("auth.load", "Loaded " + rows.size() + " participant accounts from file.");
+                events.emit("auth.load", "Next generated ID will be: P" + accounts.peekNumericId());
+
+            } catch (IOException e) {
+                logger.error("Error loading participant accounts from file: " + ACCOUNTS_FILE, e);
+                events.emit("auth.error", "Error loading participant accounts: " + e.getMessage());
             }
-
-            // next ID to assign
-            nextGeneratedNumericId = maxNumericIdFound + 1;
-            logger.info("Loaded " + loadedCount + " participant accounts from file.");
-            System.out.println("Loaded " + loadedCount + " participant accounts from file.");
-            System.out.println("Next generated ID will be: P" + nextGeneratedNumericId);
-
-        } catch (IOException e) {
-            logger.error("Error loading participant accounts from file: " + ACCOUNTS_FILE, e);
-            System.out.println("Error loading participant accounts: " + e.getMessage());
         }
     }
 
-    // used when signing up a new user (append one row)
-    private void appendAccountToFile(String username,
-                                     String plainPassword,
-                                     String id,
-                                     String fullName,
-                                     String email,
-                                     String preferredGame,
-                                     int skillLevel,
-                                     String role,
-                                     int personalityScore,
-                                     String personalityType, String ACCOUNTS_FILE) {
+    // used when signing up a new user (one journal record)
+    private void appendAccountToFile(AccountRepository.Account account, String ACCOUNTS_FILE) {
+        AccountJournal journal = AccountJournal.forSnapshot(ACCOUNTS_FILE);
         try {
-            File file = new File(ACCOUNTS_FILE);
-            File parent = file.getParentFile();
-            if (parent != null && !parent.exists()) {
-                parent.mkdirs();   // create folder if missing
-            }
-
-            boolean newFile = !file.exists();
-
-            try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
-                if (newFile) {
-                    pw.println("username,password,ID,fullName,email,preferredGame,skillLevel,role,personalityScore,personalityType");
-                }
-
-                String encrypted = encryptPassword(plainPassword);
-
-                pw.println(username + "," + encrypted + "," + id + "," +
-                        fullName + "," + email + "," +
-                        preferredGame + "," + skillLevel + "," +
-                        role + "," + personalityScore + "," + personalityType);
+            synchronized (journal) {
+                journal.appendUpsert(AccountRow.of(account));
             }
         } catch (IOException e) {
             logger.error("Error saving single account to file: " + ACCOUNTS_FILE, e);
-            System.out.println("Error saving account to file: " + e.getMessage());
+            events.emit("auth.error", "Error saving account to file: " + e.getMessage());
         }
     }
 
-    // 🔹 called after survey updates so everything (including survey) is saved permanently
+    // 🔹 called after survey updates so everything (including survey) is saved permanently.
+    // Only accounts marked as changed since the last save (markAccountChanged, password change) are
+    // appended to the journal; the full CSV is rewritten when there is none yet or the journal has
+    // grown as large as it (compaction).
     public void saveAllAccountsToFile(String ACCOUNTS_FILE) {
         // [UPD 3.2.3.1.1] saveAllAccountsToFile()
         // [SURV 2.6] saveAllAccountsToFile()      (from Complete Survey)
         try {
-            File file = new File(ACCOUNTS_FILE);
-            File parent = file.getParentFile();
-            if (parent != null && !parent.exists()) {
-                parent.mkdirs();
-            }
-
-            try (PrintWriter pw = new PrintWriter(new FileWriter(file))) {
-                pw.println("username,password,ID,fullName,email,preferredGame,skillLevel,role,personalityScore,personalityType");
-
-                for (Map.Entry<String, String> entry : participantCredentials.entrySet()) {
-                    String keyUsernameLower = entry.getKey();      // stored in lower case
-                    String plainPassword    = entry.getValue();
-                    String encrypted        = encryptPassword(plainPassword);
-
-                    Participant p = participantProfiles.get(keyUsernameLower);
-                    String id = participantIds.getOrDefault(keyUsernameLower, "P000");
-
-                    String fullName = (p != null && p.getName() != null && !p.getName().isEmpty())
-                            ? p.getName() : keyUsernameLower;
-
-                    String email = (p != null && p.getEmail() != null && !p.getEmail().isEmpty())
-                            ? p.getEmail() : (keyUsernameLower + "@example.com");
-
-                    String preferredGame = (p != null && p.getPreferredGame() != null)
-                            ? p.getPreferredGame() : "Not selected";
-
-                    int skillLevel = (p != null) ? p.getSkillLevel() : 0;
-
-                    String role = (p != null && p.getRole() != null)
-                            ? p.getRole() : "Not selected";
-
-                    int personalityScore = (p != null) ? p.getPersonalityScore() : 0;
-
-                    String personalityType = (p != null && p.getPersonalityType() != null)
-                            ? p.getPersonalityType() : "Not selected";
-
-                    pw.println(keyUsernameLower + "," + encrypted + "," + id + "," +
-                            fullName + "," + email + "," +
-                            preferredGame + "," + skillLevel + "," +
-                            role + "," + personalityScore + "," + personalityType);
-                }
-            }
+            // blocks until the shared write that includes this caller's changes is durable
+            saveAllAccountsToFileAsync(ACCOUNTS_FILE).get();
 
             // [UPD 3.2.3.1.1.1]
             // [SURV 2.6.1] Save success
             logger.info("All participant accounts saved to file (with IDs and survey data).");
             // [SURV 2.6.1.2]
             // [SURV 2.6.1.3]
-            System.out.println("All participant accounts saved to file.");
+            events.emit("auth.save", "All participant accounts saved to file.");
 
-        } catch (IOException e) {
+        } catch (ExecutionException e) {
             // [UPD 3.2.3.2.1] save failed (exception)
             // [SURV 2.6.2]    save failed (exception)
-            logger.error("Error saving all accounts to file: " + ACCOUNTS_FILE, e);
+            Throwable cause = (e.getCause() != null) ? e.getCause() : e;
+            logger.error("Error saving all accounts to file: " + ACCOUNTS_FILE, cause);
             // [SURV 2.6.2.1]
             // [SURV 2.6.2.2]
-            System.out.println("Error saving all accounts: " + e.getMessage());
+            events.emit("auth.error", "Error saving all accounts: " + cause.getMessage());
+        } catch (InterruptedException e) {
+            // the write still happens; this caller just stops waiting for it
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while saving all accounts to file: " + ACCOUNTS_FILE, e);
+            events.emit("auth.error", "Error saving all accounts: interrupted");
+        }
+    }
+
+    // Queues a save of every account; saves queued together are written once.
+    // The future completes when that write is durable, or exceptionally with the IOException.
+    public CompletableFuture<Void> saveAllAccountsToFileAsync(String ACCOUNTS_FILE) {
+        return saves.submit(ACCOUNTS_FILE);
+    }
+
+    // Records that a participant's profile (survey answers, organizer update) changed, so the next
+    // save journals that account; accounts nobody marked are not looked at by the save.
+    public void markAccountChanged(Participant participant) {
+        if (participant != null) {
+            accounts.markDirty(participant.getUsername());
         }
     }
 
+    // the shared write behind a batch of saves (runs on the group-commit thread)
+    private static void writeAllAccounts(String ACCOUNTS_FILE) throws IOException {
+        AccountJournal journal = AccountJournal.forSnapshot(ACCOUNTS_FILE);
+        synchronized (journal) {
+            List<String> dirty = accounts.drainDirty();
+            try {
+                if (!journal.canAppend()) {
+                    journal.compact(currentRows());
+                    return;
+                }
+                int changed = journal.appendChanges(changedRows(dirty));
+                logger.debug("Account journal: {} records appended ({} since last compaction)",
+                        changed, journal.records());
+                if (journal.shouldCompact()) {
+                    List<AccountRow> rows = currentRows();
+                    journal.compact(rows);
+                    logger.info("Participant accounts compacted into {} (accounts={})",
+                            ACCOUNTS_FILE, rows.size());
+                }
+            } catch (IOException e) {
+                // not on disk: keep them for the next save
+                for (String key : dirty) {
+                    accounts.markDirty(key);
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Rewrites the full CSV from memory and empties its journal (e.g. on exit).
+    public void compactAccountsFile(String ACCOUNTS_FILE) {
+        AccountJournal journal = AccountJournal.forSnapshot(ACCOUNTS_FILE);
+        try {
+            synchronized (journal) {
+                journal.compact(currentRows());
+            }
+            logger.info("Participant accounts compacted into " + ACCOUNTS_FILE);
+        } catch (IOException e) {
+            logger.error("Error compacting participant accounts: " + ACCOUNTS_FILE, e);
+            events.emit("auth.error", "Error saving all accounts: " + e.getMessage());
+        }
+    }
+
+    // Removes a participant account (login and profile) and records the delete in the journal.
+    public boolean deleteParticipantAccount(String username, String ACCOUNTS_FILE) {
+        if (accounts.remove(username) == null) {
+            return false;
+        }
+        AccountJournal journal = AccountJournal.forSnapshot(ACCOUNTS_FILE);
+        try {
+            synchronized (journal) {
+                journal.appendDelete(username);
+            }
+            logger.info("Participant account deleted: username=" + username);
+        } catch (IOException e) {
+            logger.error("Error saving account delete to file: " + ACCOUNTS_FILE, e);
+            events.emit("auth.error", "Error saving account to file: " + e.getMessage());
+        }
+        return true;
+    }
+
+    // rows of the accounts behind `keys` that still exist (deletes are journalled when they happen)
+    private static List<AccountRow> changedRows(List<String> keys) {
+        List<AccountRow> rows = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            AccountRepository.Account account = accounts.find(key);
+            if (account != null) {
+                rows.add(AccountRow.of(account));
+            }
+        }
+        return rows;
+    }
+
+    private static List<AccountRow> currentRows() {
+        List<AccountRepository.Account> all = accounts.all();
+        List<AccountRow> rows = new ArrayList<>(all.size());
+        for (AccountRepository.Account account : all) {
+            rows.add(AccountRow.of(account));
+        }
+        return rows;
+    }
+
     private void saveOrganizerAccount(String ORGANIZER_FILE) {
         if (organizerAccount == null) return;
 
@@ -555,9 +560,9 @@ public class AuthService {
                                 organizerAccount.getName()
                 );
             }
-            System.out.println("Organizer account saved.");
+            events.emit("auth.save", "Organizer account saved.");
         } catch (IOException e) {
-            System.out.println("Error saving organizer account: " + e.getMessage());
+            events.emit("auth.error", "Error saving organizer account: " + e.getMessage());
         }
     }
 
@@ -571,16 +576,10 @@ public class AuthService {
 
     // Simple Base64 "encryption" for coursework
     private String encryptPassword(String raw) {
-        return Base64.getEncoder()
-                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        return AccountRow.encodePassword(raw);
     }
 
     private static String decryptPassword(String encoded) {
-        try {
-            byte[] decoded = Base64.getDecoder().decode(encoded);
-            return new String(decoded, StandardCharsets.UTF_8);
-        } catch (IllegalArgumentException e) {
-            return "";
-        }
+        return AccountRow.decodePassword(encoded);
     }
 }
\ No newline at end of file
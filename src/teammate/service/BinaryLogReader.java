@@ -0,0 +1,168 @@
+package teammate.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Turns a binary log file (see BinaryLogWriter for the layout) back into the text lines
+// LoggerService writes in TEXT mode: "[yyyy-MM-dd HH:mm:ss] message".
+public final class BinaryLogReader {
+
+    private BinaryLogReader() {
+    }
+
+    // Decodes every record of `file` in order and hands each text line to `out`.
+    public static void decode(Path file, Consumer<String> out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = mapAll(channel);
+            checkHeader(in, file);
+
+            Map<Integer, String> templates = new HashMap<>();
+            Map<Integer, String> strings = new HashMap<>();
+            long lastNanos = 0;
+            long secondShown = Long.MIN_VALUE;
+            String timeShown = "";
+
+            while (in.remaining() > 0) {
+                int len = readLength(in);
+                if (len <= 0 || len > in.remaining()) break;     // zero tail or torn last record
+                ByteBuffer body = in.slice();
+                body.limit(len);
+                in.position(in.position() + len);
+
+                int kind = body.get() & 0xFF;
+                if (kind == BinaryLogWriter.KIND_SESSION) {
+                    templates.clear();
+                    strings.clear();
+                    lastNanos = 0;
+                    continue;
+                }
+                if (kind == BinaryLogWriter.KIND_TEMPLATE) {
+                    int id = (int) readVarLong(body);
+                    templates.put(id, readString(body));
+                    continue;
+                }
+                if (kind == BinaryLogWriter.KIND_STRING) {
+                    int id = (int) readVarLong(body);
+                    strings.put(id, readString(body));
+                    continue;
+                }
+
+                LogLevel level = LogLevel.values()[kind - 1];
+                lastNanos += unZigZag(readVarLong(body));
+                int templateId = (int) readVarLong(body);
+                Object[] args = new Object[body.get() & 0xFF];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readArg(body, strings);
+                }
+
+                String message = (templateId == BinaryLogWriter.NO_TEMPLATE)
+                        ? String.valueOf(args[0])
+                        : LoggerService.format(templates.getOrDefault(templateId, "?" + Arrays.toString(args)), args);
+
+                long second = Math.floorDiv(lastNanos, 1_000_000_000L);
+                if (second != secondShown) {
+                    secondShown = second;
+                    timeShown = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault())
+                            .format(LoggerService.TIME_FORMAT);
+                }
+                out.accept("[" + timeShown + "] " + level.linePrefix() + message);
+            }
+        }
+    }
+
+    // offset just past the last complete record (where a writer continues the file)
+    static long endOfRecords(FileChannel channel) throws IOException {
+        ByteBuffer in = mapAll(channel);
+        checkHeader(in, null);
+        while (in.remaining() > 0) {
+            int start = in.position();
+            int len = readLength(in);
+            if (len <= 0 || len > in.remaining()) {
+                return start;
+            }
+            in.position(in.position() + len);
+        }
+        return in.position();
+    }
+
+    // ---------- helpers ----------
+    private static ByteBuffer mapAll(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Binary log larger than 2 GB");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private static void checkHeader(ByteBuffer in, Path file) throws IOException {
+        byte[] magic = new byte[BinaryLogWriter.MAGIC.length];
+        if (in.remaining() < magic.length + 1) {
+            throw new IOException("Not a binary log: " + file);
+        }
+        in.get(magic);
+        byte version = in.get();
+        if (!Arrays.equals(magic, BinaryLogWriter.MAGIC)) {
+            throw new IOException("Not a binary log: " + file);
+        }
+        if (version != BinaryLogWriter.VERSION) {
+            throw new IOException("Unsupported binary log version " + version + ": " + file);
+        }
+    }
+
+    // record length, or -1 when the file ends inside the length prefix
+    private static int readLength(ByteBuffer in) {
+        try {
+            return (int) readVarLong(in);
+        } catch (BufferUnderflowException e) {
+            return -1;
+        }
+    }
+
+    private static Object readArg(ByteBuffer in, Map<Integer, String> strings) {
+        byte tag = in.get();
+        switch (tag) {
+            case BinaryLogWriter.TAG_NULL:    return null;
+            case BinaryLogWriter.TAG_INT:     return (int) unZigZag(readVarLong(in));
+            case BinaryLogWriter.TAG_LONG:    return unZigZag(readVarLong(in));
+            case BinaryLogWriter.TAG_DOUBLE:  return in.getDouble();
+            case BinaryLogWriter.TAG_BOOLEAN: return in.get() != 0;
+            case BinaryLogWriter.TAG_STRING:  return readString(in);
+            case BinaryLogWriter.TAG_STRING_REF: return strings.get((int) readVarLong(in));
+            default: throw new IllegalStateException("Unknown argument tag " + tag);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int len = (int) readVarLong(in);
+        byte[] utf8 = new byte[len];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long v = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+            shift += 7;
+        }
+    }
+
+    private static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
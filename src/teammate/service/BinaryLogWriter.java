@@ -0,0 +1,245 @@
+package teammate.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+// Appends binary log records to one file through a memory-mapped window.
+//
+// file   = MAGIC, VERSION, record*
+// record = varint bodyLength, body
+// body   = KIND_SESSION                                  (new writer: time base and id tables reset)
+//        | KIND_TEMPLATE, varint id, varint len, UTF-8   (defines a template id for this session)
+//        | KIND_STRING, varint id, varint len, UTF-8     (defines a string argument id for this session)
+//        | level ordinal + 1, varlong timeDelta, varint templateId, byte argCount, arg*
+// arg    = tag, value   (int/long zig-zag varints, double 8 bytes, string varint len + UTF-8,
+//                        string reference varint id)
+//
+// timeDelta is epoch nanos minus the previous event of the session (zig-zag), so the first event
+// of a session carries the absolute time. templateId 0 means "no template": the message is the
+// single string argument. The window is mapped past the end of the data; unused space stays zero
+// and a zero length marks the end of the records.
+// Short string arguments (team names, games, roles) repeat constantly, so they are defined once
+// per session and then written as a reference.
+// Used only by the log writer thread.
+final class BinaryLogWriter implements AutoCloseable {
+
+    static final byte[] MAGIC = {'T', 'M', 'L', 'G'};
+    static final byte VERSION = 1;
+
+    static final int KIND_STRING = 0x7D;
+    static final int KIND_SESSION = 0x7E;
+    static final int KIND_TEMPLATE = 0x7F;
+    static final int NO_TEMPLATE = 0;
+
+    static final byte TAG_NULL = 'N';
+    static final byte TAG_INT = 'I';
+    static final byte TAG_LONG = 'J';
+    static final byte TAG_DOUBLE = 'D';
+    static final byte TAG_BOOLEAN = 'Z';
+    static final byte TAG_STRING = 'S';
+    static final byte TAG_STRING_REF = 'R';
+
+    // string arguments up to this length are interned, up to MAX_STRINGS per session
+    private static final int MAX_INTERNED_LENGTH = 64;
+    private static final int MAX_STRINGS = 1 << 16;
+
+    private static final int WINDOW_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private MappedByteBuffer window;
+    private long position;                    // end of the records in the file
+
+    private final Map<String, Integer> templateIds = new HashMap<>();
+    private int nextTemplateId = 1;
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long lastNanos;
+    private ByteBuffer body = ByteBuffer.allocate(512);
+    private final byte[] prefix = new byte[5];
+
+    BinaryLogWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            map(0, MAGIC.length + 1);
+            window.put(MAGIC).put(VERSION);
+            position = MAGIC.length + 1;
+        } else {
+            // same hour again: continue after the existing records
+            position = BinaryLogReader.endOfRecords(channel);
+            map(position, 0);
+        }
+        body.clear();
+        body.put((byte) KIND_SESSION);
+        appendBody();
+    }
+
+    // one event; args == null means `message` is final text, otherwise a "{}" template
+    void write(LogLevel level, long epochNanos, String message, Object[] args) {
+        int templateId = (args == null) ? NO_TEMPLATE : templateId(message);
+        if (args != null) {
+            // definitions are records of their own, so write them before the event body
+            for (Object arg : args) {
+                if (arg != null && !(arg instanceof Number) && !(arg instanceof Boolean)) {
+                    stringId(String.valueOf(arg));
+                }
+            }
+        }
+
+        body.clear();
+        body.put((byte) (level.ordinal() + 1));
+        putVarLong(zigZag(epochNanos - lastNanos));
+        lastNanos = epochNanos;
+        putVarLong(templateId);
+        if (args == null) {
+            body.put((byte) 1);
+            putArg(message);
+        } else {
+            int count = Math.min(args.length, 255);
+            body.put((byte) count);
+            for (int i = 0; i < count; i++) {
+                putArg(args[i]);
+            }
+        }
+        appendBody();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            window.force();
+            channel.truncate(position);   // refused on some platforms while mapped – the zero tail is harmless
+        } catch (IOException ignore) {
+        } finally {
+            channel.close();
+        }
+    }
+
+    // ---------- encoding ----------
+    private int templateId(String template) {
+        Integer id = templateIds.get(template);
+        if (id != null) return id;
+
+        int newId = nextTemplateId++;
+        templateIds.put(template, newId);
+        body.clear();
+        body.put((byte) KIND_TEMPLATE);
+        putVarLong(newId);
+        putString(template);
+        appendBody();
+        return newId;
+    }
+
+    // values whose String.valueOf is reproduced exactly by the decoder get a typed encoding
+    private void putArg(Object arg) {
+        ensureBody(11);
+        if (arg == null) {
+            body.put(TAG_NULL);
+        } else if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+            body.put(TAG_INT);
+            putVarLong(zigZag(((Number) arg).intValue()));
+        } else if (arg instanceof Long) {
+            body.put(TAG_LONG);
+            putVarLong(zigZag((Long) arg));
+        } else if (arg instanceof Double) {
+            body.put(TAG_DOUBLE);
+            body.putDouble((Double) arg);
+        } else if (arg instanceof Boolean) {
+            body.put(TAG_BOOLEAN);
+            body.put((byte) ((Boolean) arg ? 1 : 0));
+        } else {
+            String text = String.valueOf(arg);
+            Integer id = stringIds.get(text);
+            if (id != null) {
+                body.put(TAG_STRING_REF);
+                putVarLong(id);
+            } else {
+                body.put(TAG_STRING);
+                putString(text);
+            }
+        }
+    }
+
+    // id for a short repeated string argument, defining it first; -1 when it is written inline
+    private int stringId(String text) {
+        Integer id = stringIds.get(text);
+        if (id != null) return id;
+        if (text.length() > MAX_INTERNED_LENGTH || stringIds.size() >= MAX_STRINGS) return -1;
+
+        int newId = stringIds.size();
+        stringIds.put(text, newId);
+        body.clear();
+        body.put((byte) KIND_STRING);
+        putVarLong(newId);
+        putString(text);
+        appendBody();
+        return newId;
+    }
+
+    private void putString(String s) {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        putVarLong(utf8.length);
+        ensureBody(utf8.length);
+        body.put(utf8);
+    }
+
+    private void putVarLong(long v) {
+        ensureBody(10);
+        while ((v & ~0x7FL) != 0) {
+            body.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        body.put((byte) v);
+    }
+
+    private static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private void ensureBody(int extra) {
+        if (body.remaining() < extra) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(body.capacity() * 2, body.position() + extra));
+            body.flip();
+            bigger.put(body);
+            body = bigger;
+        }
+    }
+
+    // ---------- mapped output ----------
+    // length prefix + body into the mapped window, remapping further along the file when it is full
+    private void appendBody() {
+        body.flip();
+        int len = body.remaining();
+        int p = 0;
+        int v = len;
+        while ((v & ~0x7F) != 0) {
+            prefix[p++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        prefix[p++] = (byte) v;
+
+        if (window.remaining() < p + len) {
+            try {
+                map(position, p + len);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot extend binary log", e);
+            }
+        }
+        window.put(prefix, 0, p);
+        window.put(body);
+        position += p + len;
+    }
+
+    private void map(long start, int atLeast) throws IOException {
+        if (window != null) {
+            window.force();
+        }
+        window = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(WINDOW_BYTES, atLeast));
+    }
+}
@@ -0,0 +1,64 @@
+package teammate.service;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Collects messages in memory (lock-free) so worker threads never touch System.out;
+// the owner prints or inspects them later. Keeps at most `capacity` messages and counts the rest as dropped.
+public class BufferedEventSink implements EventSink {
+
+    private final ConcurrentLinkedQueue<String> lines = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final int capacity;
+
+    public BufferedEventSink() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public BufferedEventSink(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void emit(String event, String message) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        lines.add(message);
+    }
+
+    // removes the buffered messages and prints them with a single write
+    public void flushTo(PrintStream out) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : drain()) {
+            sb.append(line).append(System.lineSeparator());
+        }
+        out.print(sb);
+        out.flush();
+    }
+
+    // removes and returns the buffered messages in arrival order
+    public List<String> drain() {
+        List<String> out = new ArrayList<>();
+        String line;
+        while ((line = lines.poll()) != null) {
+            size.decrementAndGet();
+            out.add(line);
+        }
+        return out;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int getDropped() {
+        return dropped.get();
+    }
+}
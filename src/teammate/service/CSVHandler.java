@@ -1,35 +1,90 @@
 package teammate.service;
 
 import teammate.model.Participant;
+import teammate.model.ParticipantStore;
 import teammate.model.Team;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 // Handles loading participants from CSV files and exporting formed teams to CSV with logging.
 public class CSVHandler {
 
     private final LoggerService logger = LoggerService.getInstance();
+    // where status messages and row warnings go (console unless the caller wants something else)
+    private final EventSink events;
+
+    // below this size one streaming reader is faster than mapping and splitting the file
+    static final long PARALLEL_LOAD_MIN_BYTES = 64L * 1024 * 1024;
+    // a single MappedByteBuffer is limited to 2 GB
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    static final String EXPORT_DIR_PROPERTY = "teammate.export.dir";
+    private static final String DEFAULT_EXPORT_DIR = "src/teammate/TeamMembers";
+
+    public CSVHandler() {
+        this(EventSink.console());
+    }
+
+    public CSVHandler(EventSink events) {
+        this.events = events;
+    }
+
     /**
      * Loads participants from a CSV file with full validation.
      * CSV Format expected:
      * ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType
      */
     public ArrayList<Participant> loadParticipants(String filePath, LoggerService logger) {
+        return loadParticipantStore(filePath, logger).toList();
+    }
 
-        ArrayList<Participant> participants = new ArrayList<>();
+    /**
+     * Same validation as loadParticipants, but rows go straight into a columnar
+     * ParticipantStore that TeamBuilder can form teams from without another copy.
+     * Files of PARALLEL_LOAD_MIN_BYTES or more are memory-mapped and parsed on all cores.
+     */
+    public ParticipantStore loadParticipantStore(String filePath, LoggerService logger) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        File file = new File(filePath);
+        boolean large = file.isFile() && file.length() >= PARALLEL_LOAD_MIN_BYTES;
+        return loadParticipantStore(filePath, logger, large ? cores : 1);
+    }
+
+    /**
+     * parallelism 1 reads the file with one streaming reader; anything higher memory-maps it,
+     * parses line-aligned chunks on worker threads and merges them in row order.
+     */
+    public ParticipantStore loadParticipantStore(String filePath, LoggerService logger, int parallelism) {
+
+        ParticipantStore participants = new ParticipantStore();
         File file = new File(filePath);
 
         // ----------- 1. Validate File Existence -----------
         // [CSV 1.3.1] check file exists?
         if (!file.exists() || !file.isFile()) {
             // [CSV 1.3.1.1] File not found
-            System.out.println("Error: File not found: " + filePath); // [CSV 1.3.1.1.1] Display("Error: File not found")
+            events.emit("csv.error", "Error: File not found: " + filePath); // [CSV 1.3.1.1.1] Display("Error: File not found")
             logger.error("CSV load failed – file not found: " + filePath); // [CSV 1.3.1.1.2] log
             return participants; // [CSV 1.3.1.1.3] return empty list
         }
@@ -38,94 +93,25 @@ public class CSVHandler {
         // [CSV 1.3.2] check extension .csv
         if (!filePath.toLowerCase().endsWith(".csv")) {
             // [CSV 1.3.2.1] Not CSV
-            System.out.println("Error: File is not a .csv file."); // [CSV 1.3.3.1.1]
+            events.emit("csv.error", "Error: File is not a .csv file."); // [CSV 1.3.3.1.1]
             logger.error("CSV load failed – not a CSV: " + filePath); // [CSV 1.3.3.1.2] log
             return participants; // [CSV 1.3.3.1.3] return empty list
         }
 
         // ----------- 3. OPEN AND READ CSV -----------
         // [CSV 1.3.3] Open reader and read header
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-
-            String line = br.readLine(); // Header
-            // [CSV 1.3.3.1] Header null empty full
-            if (line == null) {
-                System.out.println("Error: CSV file is empty."); // [CSV 1.3.3.1.1]
+        try {
+            boolean read = (parallelism > 1)
+                    ? readMapped(file, parallelism, participants, logger)
+                    : readStreaming(file, participants, logger);
+            if (!read) {
+                // [CSV 1.3.3.1] Header null empty full
+                events.emit("csv.error", "Error: CSV file is empty."); // [CSV 1.3.3.1.1]
                 logger.error("CSV load failed – empty file: " + filePath); // [CSV 1.3.3.1.2] log
                 return participants; // [CSV 1.3.3.1.3] return empty list
             }
-
-            int lineNo = 1;
-
-            // [CSV 2] loop [For each data line in CSV]
-            // [CSV 2.1] read and trim line
-            while ((line = br.readLine()) != null) {
-                lineNo++;
-
-                // [CSV 2.1.1] Empty Line
-                if (line.trim().isEmpty()) continue; // [CSV 2.1.1.1] skip line
-
-                // ----------- CSV Columns -----------
-                // Expecting 8 columns:
-                // 0: ID // 1: Name // 2: Email // 3: PreferredGame // 4: SkillLevel
-                // 5: PreferredRole // 6: PersonalityScore // 7: PersonalityType
-
-                // [CSV 2.2]
-                // [CSV 2.2.1] split into data 0..7
-                String[] data = line.split(",");
-
-                // [CSV 2.2.2] Missing columns (data.length < 8)
-                if (data.length < 8) {
-                    System.out.println("Warning: Line " + lineNo + " missing columns. Skipping."); // [CSV 2.2.2.1]
-                    logger.info("CSV load warning: line " + lineNo + " missing columns in " + filePath); // [CSV 2.2.2.2] log
-                    continue;
-                }
-
-                // Extract fields
-                String name = data[1].trim();
-                String email = data[2].trim();
-                String game = data[3].trim();
-                String skillStr = data[4].trim();
-                String role = data[5].trim();
-                String scoreStr = data[6].trim();
-                String personalityType = data[7].trim();
-
-                // ----------- Validate Skill (must be number) -----------
-                // [CSV 2.3]
-                // [CSV 2.3.1] parse skill value
-                int skill;
-                try {
-                    skill = Integer.parseInt(skillStr);
-                } catch (NumberFormatException ex) {
-                    // [CSV 2.3.2] alt: skill not a number
-                    System.out.println("Warning: Invalid skill value on line " +
-                            lineNo + " (" + skillStr + "). Skipping."); // [CSV 2.3.2.1]
-                    logger.info("CSV load warning: invalid skill '" + skillStr +
-                            "' on line " + lineNo + " in file " + filePath); // [CSV 2.3.2.2] log
-                    continue;
-                }
-
-                // ----------- Validate Personality Score (optional) -----------
-                int personalityScore = 0;
-                try {
-                    personalityScore = Integer.parseInt(scoreStr);
-                } catch (Exception ignore) {
-                    // score optional – no skip
-                }
-
-                // ----------- CREATE Participant Object -----------
-                // [CSV 2.4] Create Participant
-                // [CSV 2.4.1] Add new participant
-                Participant p = new Participant(name, email, game, skill, role);
-                // [CSV 2.4.2] Set personality score and type
-                p.setPersonalityScore(personalityScore);
-                p.setPersonalityType(personalityType);
-
-                participants.add(p);
-            }
-
         } catch (IOException e) {
-            System.out.println("Error reading CSV: " + e.getMessage());
+            events.emit("csv.error", "Error reading CSV: " + e.getMessage());
             logger.error("Error reading CSV file: " + filePath, e);
         }
 
@@ -133,11 +119,11 @@ public class CSVHandler {
         // ----------- SUMMARY -----------
         if (participants.isEmpty()) {
             // [CSV 3.1] list empty
-            System.out.println("No valid participants found."); // [CSV 3.1.1]
+            events.emit("csv.empty", "No valid participants found."); // [CSV 3.1.1]
             logger.info("CSV load finished with 0 valid participants from " + filePath); // [CSV 3.1.2] log
         } else {
             // [CSV 3.2] One or more participants loaded
-            System.out.println("Loaded participants successfully.");
+            events.emit("csv.loaded", "Loaded participants successfully.");
             logger.info("CSV load finished with " + participants.size() +
                     " participants from " + filePath);
         }
@@ -145,66 +131,325 @@ public class CSVHandler {
         return participants;
     }
 
+    // Single reader over the whole file; false when there is not even a header line.
+    // Rows are tokenized in place (no split/trim copies); quoted fields may contain commas.
+    private boolean readStreaming(File file, ParticipantStore participants,
+                                  LoggerService logger) throws IOException {
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            CsvTokenizer csv = new CsvTokenizer(br);
+            if (!csv.nextRecord()) {
+                return false; // Header
+            }
+            ArrayList<RowWarning> warnings = new ArrayList<>();
+
+            // [CSV 2] loop [For each data line in CSV]
+            while (csv.nextRecord()) {
+                Participant p = parseRow(csv, csv.lineNumber(), warnings);
+                if (p != null) {
+                    participants.add(p);
+                } else if (!warnings.isEmpty()) {
+                    reportWarnings(warnings, 0, file.getPath(), logger);
+                    warnings.clear();
+                }
+            }
+            return true;
+        }
+    }
+
+    // ================== PARALLEL MEMORY-MAPPED LOAD ==================
+    // The file is cut into line-aligned byte ranges. Each range is mapped and parsed on a worker;
+    // rows and warnings come back with chunk-relative line numbers and are merged in file order,
+    // shifting line numbers by the lines of all earlier chunks.
+    // A cut can only land inside a quoted field that spans lines; that chunk then ends inside
+    // quotes and the whole file is re-read with the streaming reader.
+    private boolean readMapped(File file, int parallelism, ParticipantStore participants,
+                               LoggerService logger) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return false;
+            }
+            long[] bounds = chunkBounds(channel, size, parallelism * 4);
+
+            List<Callable<ChunkResult>> jobs = new ArrayList<>();
+            for (int c = 0; c + 1 < bounds.length; c++) {
+                long start = bounds[c];
+                long end = bounds[c + 1];
+                boolean first = (c == 0);
+                jobs.add(() -> parseChunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), first));
+            }
+
+            List<ChunkResult> results = new ArrayList<>();
+            try {
+                for (Future<ChunkResult> f : ForkJoinPool.commonPool().invokeAll(jobs)) {
+                    results.add(f.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("CSV load interrupted", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) throw (IOException) cause;
+                throw new IOException(cause);
+            }
+
+            for (ChunkResult r : results) {
+                if (r.endedInsideQuotes && r != results.get(results.size() - 1)) {
+                    logger.info("CSV load: quoted field spans a chunk boundary, re-reading " + file.getPath() + " sequentially");
+                    events.emit("csv.fallback", "CSV load: quoted field spans a chunk boundary, re-reading " + file.getPath() + " sequentially");
+                    return readStreaming(file, participants, logger);
+                }
+            }
+            if (!results.get(0).hasHeader) {
+                return false;
+            }
+
+            // merge in file order
+            int lineOffset = 0;
+            for (ChunkResult r : results) {
+                reportWarnings(r.warnings, lineOffset, file.getPath(), logger);
+                for (Participant p : r.rows) {
+                    participants.add(p);
+                }
+                lineOffset += r.lines;
+            }
+            return true;
+        }
+    }
+
+    // chunk start offsets plus the file size; every chunk except the first starts right after a '\n'
+    private static long[] chunkBounds(FileChannel channel, long size, int target) throws IOException {
+        // one mapping must stay below 2 GB
+        int chunks = (int) Math.max(target, (size + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long step = Math.max(1, size / chunks);
+
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long next = step;
+        while (next < size) {
+            long cut = nextLineStart(channel, next, size, probe);
+            if (cut >= size) break;
+            if (cut > bounds.get(bounds.size() - 1)) {
+                bounds.add(cut);
+            }
+            next = Math.max(cut, bounds.get(bounds.size() - 1)) + step;
+        }
+        bounds.add(size);
+
+        long[] out = new long[bounds.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = bounds.get(i);
+        }
+        return out;
+    }
+
+    // offset just after the first '\n' at or after `from` (size when there is none)
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+        long pos = from;
+        while (pos < size) {
+            probe.clear();
+            int n = channel.read(probe, pos);
+            if (n <= 0) break;
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += n;
+        }
+        return size;
+    }
+
+    private ChunkResult parseChunk(MappedByteBuffer bytes, boolean first) throws IOException {
+        ChunkResult result = new ChunkResult();
+        CsvTokenizer csv = new CsvTokenizer(new MappedChunkReader(bytes, Charset.defaultCharset()));
+        if (first) {
+            result.hasHeader = csv.nextRecord(); // Header
+        }
+        while (csv.nextRecord()) {
+            Participant p = parseRow(csv, csv.lineNumber(), result.warnings);
+            if (p != null) {
+                result.rows.add(p);
+            }
+        }
+        result.lines = csv.linesRead();
+        result.endedInsideQuotes = csv.endedInsideQuotes();
+        return result;
+    }
+
+    // ================== ROW VALIDATION (shared by both readers) ==================
+    // Returns the participant for the current record, or null when the row is skipped;
+    // the reason for a skipped row is added to `warnings`.
+    private Participant parseRow(CsvTokenizer csv, int lineNo, List<RowWarning> warnings) {
+
+        // [CSV 2.1] read and trim line
+        // [CSV 2.1.1] Empty Line
+        if (csv.isBlankRecord()) return null; // [CSV 2.1.1.1] skip line
+
+        // ----------- CSV Columns -----------
+        // Expecting 8 columns:
+        // 0: ID // 1: Name // 2: Email // 3: PreferredGame // 4: SkillLevel
+        // 5: PreferredRole // 6: PersonalityScore // 7: PersonalityType
+
+        // [CSV 2.2]
+        // [CSV 2.2.1] split into data 0..7 (trailing empty columns do not count, as with split)
+        // [CSV 2.2.2] Missing columns (data.length < 8)
+        if (csv.presentFieldCount() < 8) {
+            warnings.add(new RowWarning(lineNo, null));
+            return null;
+        }
+
+        // ----------- Validate Skill (must be number) -----------
+        // [CSV 2.3]
+        // [CSV 2.3.1] parse skill value
+        int skill;
+        try {
+            skill = csv.intField(4);
+        } catch (NumberFormatException ex) {
+            // [CSV 2.3.2] alt: skill not a number
+            warnings.add(new RowWarning(lineNo, csv.field(4)));
+            return null;
+        }
+
+        // ----------- Validate Personality Score (optional) -----------
+        int personalityScore = 0;
+        try {
+            personalityScore = csv.intField(6);
+        } catch (NumberFormatException ignore) {
+            // score optional – no skip
+        }
+
+        // Extract fields (game / role / type repeat on almost every row, so share instances)
+        String name = csv.field(1);
+        String email = csv.field(2);
+        String game = csv.internedField(3);
+        String role = csv.internedField(5);
+        String personalityType = csv.internedField(7);
+
+        // ----------- CREATE Participant Object -----------
+        // [CSV 2.4] Create Participant
+        // [CSV 2.4.1] Add new participant
+        Participant p = new Participant(name, email, game, skill, role);
+        p.setId(csv.field(0));
+        // [CSV 2.4.2] Set personality score and type
+        p.setPersonalityScore(personalityScore);
+        p.setPersonalityType(personalityType);
+        return p;
+    }
+
+    private void reportWarnings(List<RowWarning> warnings, int lineOffset,
+                                String filePath, LoggerService logger) {
+        for (RowWarning w : warnings) {
+            int lineNo = w.line + lineOffset;
+            if (w.skillValue == null) {
+                events.emit("csv.warning", () -> "Warning: Line " + lineNo + " missing columns. Skipping."); // [CSV 2.2.2.1]
+                logger.info("CSV load warning: line " + lineNo + " missing columns in " + filePath); // [CSV 2.2.2.2] log
+            } else {
+                events.emit("csv.warning", () -> "Warning: Invalid skill value on line " +
+                        lineNo + " (" + w.skillValue + "). Skipping."); // [CSV 2.3.2.1]
+                logger.info("CSV load warning: invalid skill '" + w.skillValue +
+                        "' on line " + lineNo + " in file " + filePath); // [CSV 2.3.2.2] log
+            }
+        }
+    }
+
+    // skipped row: skillValue == null means missing columns, otherwise the rejected skill text
+    private static final class RowWarning {
+        final int line;
+        final String skillValue;
+
+        RowWarning(int line, String skillValue) {
+            this.line = line;
+            this.skillValue = skillValue;
+        }
+    }
+
+    private static final class ChunkResult {
+        final ArrayList<Participant> rows = new ArrayList<>();
+        final ArrayList<RowWarning> warnings = new ArrayList<>();
+        boolean hasHeader;
+        int lines;
+        boolean endedInsideQuotes;
+    }
+
+    // Decodes a mapped byte range on demand, so a chunk never exists as one big char array.
+    private static final class MappedChunkReader extends Reader {
+        private final ByteBuffer bytes;
+        private final CharsetDecoder decoder;
+        private boolean flushed;
+
+        MappedChunkReader(ByteBuffer bytes, Charset charset) {
+            this.bytes = bytes;
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (flushed) return -1;
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            CoderResult cr = decoder.decode(bytes, out, true);
+            if (cr.isError()) cr.throwException();
+            if (!bytes.hasRemaining() && out.position() == off) {
+                decoder.flush(out);
+                flushed = true;
+            }
+            int n = out.position() - off;
+            return (n == 0 && flushed) ? -1 : n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
     /**
      * Automatically saves formed teams into:
      *   src/teammate/TeamMembers/teams_yyyyMMdd_HHmmss.csv
+     * (the folder can be changed with -Dteammate.export.dir=...)
      *
      * @param teams list of teams
      * @return full path of the created file
      */
     public String saveTeamsAuto(List<Team> teams, LoggerService logger) {
+        return saveTeamsAuto(teams, Path.of(System.getProperty(EXPORT_DIR_PROPERTY, DEFAULT_EXPORT_DIR)),
+                false, logger);
+    }
+
+    /**
+     * Saves formed teams into `folder`/teams_yyyyMMdd_HHmmss.csv, or .csv.gz when `gzip` is true.
+     *
+     * @return full path of the created file, or null when writing failed
+     */
+    public String saveTeamsAuto(List<Team> teams, Path folder, boolean gzip, LoggerService logger) {
         try {
             // [EXP 1.2.2] ensure TeamMembers folder exists (mk dirs)
-            File folder = new File("src/teammate/TeamMembers");
-            if (!folder.exists()) folder.mkdirs();
+            Files.createDirectories(folder);
 
             /* Proper timestamp: yyyyMMdd_HHmmss */
             // [EXP 1.2.3] generate timestamp & fileName
             String timestamp = java.time.LocalDateTime.now()
                     .format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
 
-            String fileName = "teams_" + timestamp + ".csv";
+            String fileName = "teams_" + timestamp + (gzip ? ".csv.gz" : ".csv");
             // [EXP 1.2.4] create file object for output
-            File output = new File(folder, fileName);
-
-            // [EXP 1.2.5] open print writer(output)
-            try (PrintWriter pw = new PrintWriter(output)) {
-                // [EXP 2] Write header and team data
-                // [EXP 2.1] write header
-                pw.println("TeamName,ID,Name,Email,Game,Skill,Role,Personality");
-
-                // [EXP 2.2] loop
-                for (Team t : teams) {
-                    // [EXP 2.2.1] loop
-                    for (Participant p : t.getMembers()) {
-                        // [EXP 2.2.1.1]
-                        pw.println(
-                                t.getTeamName() + "," +
-                                        p.getName() + "," +
-                                        p.getEmail() + "," +
-                                        p.getPreferredGame() + "," +
-                                        p.getSkillLevel() + "," +
-                                        p.getRole() + "," +
-                                        p.getPersonalityType()
-                        );
-                    }
-                    // [EXP 2.2.2] write blank line between teams
-                    pw.println(); // blank line between teams
-                }
-
-            }
+            Path output = folder.resolve(fileName);
 
+            // [EXP 1.2.5] stream header and team rows through the exporter's buffer
+            // [EXP 2] Write header and team data (blank line between teams)
+            long rows = new TeamCsvExporter().export(teams, output, gzip);
 
-            logger.info("Teams saved to CSV: " + output.getPath() +
-                    " (teams=" + teams.size() + ")");       // [EXP 3.1]
+            logger.info("Teams saved to CSV: {} (teams={}, rows={})", output, teams.size(), rows);       // [EXP 3.1]
             // [EXP 3.2] return output path
-            return output.getPath();
+            return output.toString();
 
 
         } catch (Exception e) {
             // [EXP 1.2.5.1]
             logger.error("Error saving teams to CSV", e);    // [EXP 1.2.5.1.1]
-            System.out.println("Error saving teams: " + e.getMessage());    // [EXP 1.2.5.1.2] & [EXP 1.2.5.1.4]
+            events.emit("export.error", "Error saving teams: " + e.getMessage());    // [EXP 1.2.5.1.2] & [EXP 1.2.5.1.4]
             return null;     // [EXP 1.2.5.1.3]
         }
 
@@ -0,0 +1,15 @@
+package teammate.service;
+
+// Prints every message on its own line to the current System.out.
+public final class ConsoleEventSink implements EventSink {
+
+    static final ConsoleEventSink INSTANCE = new ConsoleEventSink();
+
+    private ConsoleEventSink() {
+    }
+
+    @Override
+    public void emit(String event, String message) {
+        System.out.println(message);
+    }
+}
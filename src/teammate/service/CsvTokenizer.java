@@ -0,0 +1,258 @@
+package teammate.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+// Streaming CSV record reader over a reusable char buffer.
+// One record is decoded at a time into a shared char array; fields are [start, end) ranges in it,
+// so ints can be parsed and whitespace trimmed without creating Strings.
+// Quoted fields may contain commas, line breaks and doubled quotes ("").
+class CsvTokenizer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CACHE_SIZE = 1024;   // power of two
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    // current record, unescaped
+    private char[] rec = new char[256];
+    private int recLen;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private int fieldCount;
+
+    private int linesRead;      // line terminators consumed so far
+    private int recordLine;     // 1-based line the current record starts on
+    private boolean unterminatedQuote;
+
+    // small cache for values that repeat on every row (game, role, personality type)
+    private final String[] cache = new String[CACHE_SIZE];
+
+    CsvTokenizer(Reader in) {
+        this.in = in;
+    }
+
+    // Reads the next record; false at end of input.
+    boolean nextRecord() throws IOException {
+        recLen = 0;
+        fieldCount = 0;
+        recordLine = linesRead + 1;
+
+        boolean consumed = false;
+        boolean inQuotes = false;
+        int fieldStart = 0;
+        boolean fieldQuoted = false;
+
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                if (!consumed) return false;
+                unterminatedQuote = inQuotes;
+                endField(fieldStart, fieldQuoted);
+                return true;
+            }
+            consumed = true;
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        pos++;
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') linesRead++;
+                    append((char) c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case ',':
+                    endField(fieldStart, fieldQuoted);
+                    fieldStart = recLen;
+                    fieldQuoted = false;
+                    break;
+                case '\r':
+                case '\n':
+                    if (c == '\r' && peek() == '\n') pos++;      // CRLF is one line end
+                    linesRead++;
+                    endField(fieldStart, fieldQuoted);
+                    return true;
+                case '"':
+                    if (!fieldQuoted && isBlank(fieldStart, recLen)) {
+                        recLen = fieldStart;        // drop whitespace before the opening quote
+                        fieldQuoted = true;
+                        inQuotes = true;
+                        break;
+                    }
+                    append('"');
+                    break;
+                default:
+                    // whitespace between a closing quote and the delimiter is not part of the value
+                    if (!fieldQuoted || c > ' ') {
+                        append((char) c);
+                    }
+            }
+        }
+    }
+
+    // 1-based line number the current record started on
+    int lineNumber() { return recordLine; }
+
+    // line terminators consumed so far (outside and inside quoted fields)
+    int linesRead() { return linesRead; }
+
+    // true when the input ended inside a quoted field
+    boolean endedInsideQuotes() { return unterminatedQuote; }
+
+    int fieldCount() { return fieldCount; }
+
+    // Field count with trailing empty unquoted fields dropped – matches String.split(",")
+    int presentFieldCount() {
+        int n = fieldCount;
+        while (n > 0 && !quoted[n - 1] && ends[n - 1] == starts[n - 1]) {
+            n--;
+        }
+        return n;
+    }
+
+    // true for a line that holds nothing but whitespace
+    boolean isBlankRecord() {
+        return fieldCount == 1 && !quoted[0] && isBlank(starts[0], ends[0]);
+    }
+
+    // Trimmed field value (quoted values are kept exactly as written)
+    String field(int i) {
+        int s = trimmedStart(i);
+        return new String(rec, s, trimmedEnd(i) - s);
+    }
+
+    // Like field(i) but returns a shared instance for values seen before
+    String internedField(int i) {
+        int s = trimmedStart(i);
+        int e = trimmedEnd(i);
+        int h = 0;
+        for (int k = s; k < e; k++) {
+            h = 31 * h + rec[k];
+        }
+        int slot = (h ^ (h >>> 16)) & (CACHE_SIZE - 1);
+        String cached = cache[slot];
+        if (cached != null && matches(cached, s, e)) {
+            return cached;
+        }
+        String value = new String(rec, s, e - s);
+        cache[slot] = value;
+        return value;
+    }
+
+    // Integer.parseInt on the trimmed field, without creating a String first
+    int intField(int i) {
+        int s = trimmedStart(i);
+        int e = trimmedEnd(i);
+        if (s == e) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        boolean negative = false;
+        int k = s;
+        char first = rec[k];
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++k == e) throw invalidInt(s, e);
+        }
+        // accumulate negatively so Integer.MIN_VALUE parses
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; k < e; k++) {
+            int d = rec[k] - '0';
+            if (d < 0 || d > 9 || result < limit / 10) throw invalidInt(s, e);
+            result *= 10;
+            if (result < limit + d) throw invalidInt(s, e);
+            result -= d;
+        }
+        return negative ? result : -result;
+    }
+
+    // ---------- helpers ----------
+    private void endField(int start, boolean wasQuoted) {
+        if (fieldCount == starts.length) {
+            int cap = fieldCount * 2;
+            starts = Arrays.copyOf(starts, cap);
+            ends = Arrays.copyOf(ends, cap);
+            quoted = Arrays.copyOf(quoted, cap);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = recLen;
+        quoted[fieldCount] = wasQuoted;
+        fieldCount++;
+    }
+
+    private int trimmedStart(int i) {
+        int s = starts[i];
+        if (quoted[i]) return s;
+        int e = ends[i];
+        while (s < e && rec[s] <= ' ') s++;
+        return s;
+    }
+
+    private int trimmedEnd(int i) {
+        int e = ends[i];
+        if (quoted[i]) return e;
+        int s = starts[i];
+        while (e > s && rec[e - 1] <= ' ') e--;
+        return e;
+    }
+
+    private boolean isBlank(int s, int e) {
+        for (int k = s; k < e; k++) {
+            if (rec[k] > ' ') return false;
+        }
+        return true;
+    }
+
+    private boolean matches(String value, int s, int e) {
+        if (value.length() != e - s) return false;
+        for (int k = 0; k < value.length(); k++) {
+            if (value.charAt(k) != rec[s + k]) return false;
+        }
+        return true;
+    }
+
+    private NumberFormatException invalidInt(int s, int e) {
+        return new NumberFormatException("For input string: \"" + new String(rec, s, e - s) + "\"");
+    }
+
+    private void append(char c) {
+        if (recLen == rec.length) {
+            rec = Arrays.copyOf(rec, rec.length * 2);
+        }
+        rec[recLen++] = c;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = in.read(buf, 0, buf.length);
+        } while (n == 0);
+        if (n < 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,107 @@
+package teammate.service;
+
+import teammate.model.AttributeDictionary;
+import teammate.model.Team;
+
+import static teammate.service.TeamBuilder.MAX_LEADERS_PER_TEAM;
+import static teammate.service.TeamBuilder.MAX_PER_GAME_PER_TEAM;
+import static teammate.service.TeamBuilder.MAX_THINKERS_PER_TEAM;
+import static teammate.service.TeamBuilder.MIN_DISTINCT_ROLES;
+
+// The original placement heuristic with its constants in code: game cap, role variety,
+// personality mix and skill balancing. WeightedPlacementScorer with no overrides scores the same.
+public final class DefaultPlacementScorer implements PlacementScorer {
+
+    static final DefaultPlacementScorer INSTANCE = new DefaultPlacementScorer();
+
+    private DefaultPlacementScorer() {
+    }
+
+    @Override
+    public int score(Team t, int skill, int game, int role, int type, double globalAvgSkill) {
+        int score = 0;
+
+        // ---------- 1. Game diversity ----------
+        int sameGameCount = t.countGame(game);
+
+        if (sameGameCount >= MAX_PER_GAME_PER_TEAM) {
+            score -= 1000; // hard penalty if limit exceeded
+        } else {
+            score += (MAX_PER_GAME_PER_TEAM - sameGameCount) * 5;    // reward more variety
+        }
+
+        // ---------- 2. Role variety ----------
+        boolean roleAlreadyExists = t.hasRole(role);
+        int distinctRoles = t.getDistinctRoleCount();
+
+        int effectiveMinRoles = Math.min(MIN_DISTINCT_ROLES, t.size() + 1);
+
+        if (!roleAlreadyExists && distinctRoles < effectiveMinRoles) {
+            score += 15;    // strong reward for new role up to target
+        } else if (!roleAlreadyExists) {
+            score += 5;
+        } else {
+            score += 1;
+        }
+
+        // ---------- 3. Personality mix ----------
+        int leaders = t.getLeaderCount();
+        int thinkers = t.getThinkerCount();
+
+        if (type == AttributeDictionary.PERSONALITY_LEADER) {
+            if (leaders >= MAX_LEADERS_PER_TEAM) {
+                score -= 400;   // penalty if too many leaders
+            } else {
+                score += (MAX_LEADERS_PER_TEAM - leaders) * 10;  // reward
+            }
+        } else if (type == AttributeDictionary.PERSONALITY_THINKER) {
+            if (thinkers >= MAX_THINKERS_PER_TEAM) {
+                score -= 250;    // penalty if too many thinkers
+            } else {
+                score += (MAX_THINKERS_PER_TEAM - thinkers) * 6;    // reward
+            }
+        } else {
+            score += 4; // Balanced
+            // small boost for "Balanced"
+        }
+
+        // ---------- 4. Skill balancing ----------
+        int futureSize = t.size() + 1;
+        double newAvg = (double) (t.getSkillSum() + skill) / futureSize;
+
+        double diff = Math.abs(globalAvgSkill - newAvg);
+        score -= (int) (diff * 2);
+
+        return score;
+    }
+
+    @Override
+    public int maxScore(int type) {
+        int personalityMax;
+        if (type == AttributeDictionary.PERSONALITY_LEADER) {
+            personalityMax = MAX_LEADERS_PER_TEAM * 10;
+        } else if (type == AttributeDictionary.PERSONALITY_THINKER) {
+            personalityMax = MAX_THINKERS_PER_TEAM * 6;
+        } else {
+            personalityMax = 4;
+        }
+        return MAX_PER_GAME_PER_TEAM * 5 + 15 + personalityMax;
+    }
+
+    @Override
+    public int maxScore(int type, int size, int distinctRoles, int leaders, int thinkers, double skillGap) {
+        int score = MAX_PER_GAME_PER_TEAM * 5;  // a game nobody in the team plays yet
+        score += (distinctRoles < Math.min(MIN_DISTINCT_ROLES, size + 1)) ? 15 : 5;  // a new role
+
+        if (type == AttributeDictionary.PERSONALITY_LEADER) {
+            score += (leaders >= MAX_LEADERS_PER_TEAM) ? -400 : (MAX_LEADERS_PER_TEAM - leaders) * 10;
+        } else if (type == AttributeDictionary.PERSONALITY_THINKER) {
+            score += (thinkers >= MAX_THINKERS_PER_TEAM) ? -250 : (MAX_THINKERS_PER_TEAM - thinkers) * 6;
+        } else {
+            score += 4;
+        }
+
+        score -= (int) (skillGap * 2);
+        return score;
+    }
+}
@@ -0,0 +1,26 @@
+package teammate.service;
+
+import java.util.function.Supplier;
+
+// Receives the progress/status messages services used to print with System.out.println.
+// `event` is a short stable key ("team.summary", "csv.warning", ...) for sinks that count or filter;
+// `message` is the human-readable line. Use the Supplier form when the text has to be built,
+// so sinks that never show text (no-op, metrics) do not pay for it.
+public interface EventSink {
+
+    void emit(String event, String message);
+
+    default void emit(String event, Supplier<String> message) {
+        emit(event, message.get());
+    }
+
+    // prints to System.out (the default for interactive use)
+    static EventSink console() {
+        return ConsoleEventSink.INSTANCE;
+    }
+
+    // drops everything
+    static EventSink none() {
+        return NoOpEventSink.INSTANCE;
+    }
+}
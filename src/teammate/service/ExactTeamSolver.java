@@ -0,0 +1,593 @@
+package teammate.service;
+
+import teammate.model.AttributeDictionary;
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Branch and bound over complete team assignments for small events (finals, small leagues).
+// Minimises the same FormationObjective as the multi-start and local-search passes, over
+// ceil(n / teamSize) teams whose sizes end up between 3 (fewer only when n is too small) and teamSize.
+//  - participants are assigned one per tree level (Leaders, then Thinkers, then furthest from the
+//    average skill first); teams are interchangeable, so each participant is tried in at most one
+//    still-empty team
+//  - every node carries a lower bound from the same aggregates the objective uses: penalties
+//    already incurred, game / Leader / Thinker overflow the remaining participants cannot avoid, the
+//    roles a team can still reach and the closest a team's average (a whole skill sum over its size)
+//    can still get to the global one. Children are tried lowest bound first and cut once their bound
+//    reaches the best assignment found
+//  - the first levels are split into ForkJoin tasks (work stealing); below that every task searches
+//    its subtree depth-first, sharing the incumbent
+//  - anytime: when the time limit runs out the search stops, and the lowest bound among the subtrees
+//    it did not finish is the proven lower bound (gap 0 = optimal)
+// The skill part of the bound treats each team on its own, so proofs are practical for a few dozen
+// participants; above that the result is the best assignment found plus the proven gap.
+public class ExactTeamSolver {
+
+    public static final int MAX_PARTICIPANTS = 200;
+    static final int MIN_TEAM_SIZE = 3;
+
+    private static final double EPSILON = 1e-9;
+    private static final int SPLIT_DEPTH = 6;       // tree levels expanded into ForkJoin tasks
+    private static final int CHECK_EVERY = 1024;    // nodes between deadline checks (power of two)
+
+    private final ForkJoinPool pool;
+
+    public ExactTeamSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ExactTeamSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Searches for the lowest-objective assignment of `participants` into teams of at most
+     * `teamSize` members. `start` (may be null) is used as the first incumbent when it has the
+     * same team count and size limits; otherwise a best-bound dive provides one.
+     *
+     * @param timeLimitMillis wall-clock limit; 0 = run until optimality is proven
+     */
+    public SolverResult solve(List<Participant> participants, int teamSize,
+                              List<Team> start, long timeLimitMillis) {
+        long began = System.nanoTime();
+        if (participants == null || participants.isEmpty()) {
+            return new SolverResult(new ArrayList<>(), 0.0, 0.0, true, 0, 0);
+        }
+        if (participants.size() > MAX_PARTICIPANTS) {
+            throw new IllegalArgumentException("Exact formation supports at most " + MAX_PARTICIPANTS
+                    + " participants (got " + participants.size() + ")");
+        }
+        if (teamSize < MIN_TEAM_SIZE) {
+            throw new IllegalArgumentException("Team size must be at least " + MIN_TEAM_SIZE + ": " + teamSize);
+        }
+
+        Problem problem = new Problem(participants, teamSize);
+        long deadline = (timeLimitMillis > 0) ? began + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+        Search search = new Search(problem, deadline);
+
+        search.offer(problem.dive());
+        int[] seed = problem.assignmentOf(start);
+        if (seed != null) {
+            search.offer(problem.replay(seed));
+        }
+
+        pool.invoke(new Branch(search, new Node(problem), 0));
+
+        ArrayList<Team> teams = problem.teamsOf(search.best());
+        double objective = FormationObjective.evaluate(teams, problem.globalAvg);
+        double open = search.openBound();
+        boolean optimal = open >= search.bestValue() - EPSILON;
+        double lowerBound = optimal ? objective : Math.min(open, objective);
+        long elapsed = (System.nanoTime() - began) / 1_000_000L;
+        return new SolverResult(teams, objective, lowerBound, optimal, search.nodes.sum(), elapsed);
+    }
+
+    // ---------- problem data (read-only, shared by all tasks) ----------
+    private static final class Problem {
+        final List<Participant> participants;
+        final int n;
+        final int teams;
+        final int teamSize;
+        final int minSize;
+        final int games;
+        final int roles;
+        final double globalAvg;
+        final double skillWeight;       // SKILL_VARIANCE_WEIGHT / number of teams
+        final int lowSkill;
+        final int highSkill;
+
+        // per tree level (participants in search order)
+        final int[] index;              // position in `participants`
+        final int[] skill;
+        final int[] game;               // dense game code, -1 = none / OVERFLOW
+        final int[] role;               // dense role code, -1 = none / OVERFLOW
+        final int[] type;
+        final double emptyTeamBound;    // skillBound of a team with no members yet
+
+        Problem(List<Participant> participants, int teamSize) {
+            this.participants = participants;
+            this.n = participants.size();
+            this.teamSize = teamSize;
+            this.teams = (n + teamSize - 1) / teamSize;
+            this.minSize = Math.min(MIN_TEAM_SIZE, n / teams);
+
+            long total = 0;
+            int lo = Integer.MAX_VALUE;
+            int hi = Integer.MIN_VALUE;
+            for (Participant p : participants) {
+                total += p.getSkillLevel();
+                lo = Math.min(lo, p.getSkillLevel());
+                hi = Math.max(hi, p.getSkillLevel());
+            }
+            this.globalAvg = (double) total / n;
+            this.skillWeight = FormationObjective.SKILL_VARIANCE_WEIGHT / teams;
+            this.lowSkill = lo;
+            this.highSkill = hi;
+
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> {
+                int byType = Integer.compare(typeRank(participants.get(a)), typeRank(participants.get(b)));
+                if (byType != 0) return byType;
+                return Double.compare(Math.abs(participants.get(b).getSkillLevel() - globalAvg),
+                        Math.abs(participants.get(a).getSkillLevel() - globalAvg));
+            });
+
+            index = new int[n];
+            skill = new int[n];
+            game = new int[n];
+            role = new int[n];
+            type = new int[n];
+            int[] gameIds = new int[256];
+            int[] roleIds = new int[256];
+            Arrays.fill(gameIds, -1);
+            Arrays.fill(roleIds, -1);
+            int g = 0;
+            int r = 0;
+            for (int d = 0; d < n; d++) {
+                Participant p = participants.get(order[d]);
+                index[d] = order[d];
+                skill[d] = p.getSkillLevel();
+                type[d] = p.getPersonalityCode();
+                int gc = p.getGameCode();
+                if (AttributeDictionary.isCounted(gc) && gameIds[gc] < 0) gameIds[gc] = g++;
+                game[d] = AttributeDictionary.isCounted(gc) ? gameIds[gc] : -1;
+                int rc = p.getRoleCode();
+                if (AttributeDictionary.isCounted(rc) && roleIds[rc] < 0) roleIds[rc] = r++;
+                role[d] = AttributeDictionary.isCounted(rc) ? roleIds[rc] : -1;
+            }
+            this.games = g;
+            this.roles = r;
+            this.emptyTeamBound = skillBound(0, 0);
+        }
+
+        private static int typeRank(Participant p) {
+            int type = p.getPersonalityCode();
+            if (type == AttributeDictionary.PERSONALITY_LEADER) return 0;
+            if (type == AttributeDictionary.PERSONALITY_THINKER) return 1;
+            return 2;
+        }
+
+        // Skill term lower bound for a team with `m` members summing to `sum`: over every final size
+        // f it may reach, the average is (sum + x) / f for a whole x between the lowest and highest
+        // skill sum of the members still to come, so the closest such value to the global average.
+        double skillBound(int sum, int m) {
+            double best = Double.MAX_VALUE;
+            for (int f = Math.max(Math.max(m, minSize), 1); f <= teamSize; f++) {
+                int extra = f - m;
+                long target = Math.round(globalAvg * f);
+                target = Math.max(sum + (long) extra * lowSkill, Math.min(sum + (long) extra * highSkill, target));
+                double dev = (double) target / f - globalAvg;
+                best = Math.min(best, dev * dev);
+            }
+            return skillWeight * best;
+        }
+
+        // greedy completion: lowest-bound child at every level (always reaches a leaf)
+        Node dive() {
+            Node node = new Node(this);
+            int[] team = new int[teams];
+            double[] bound = new double[teams];
+            for (int d = 0; d < n; d++) {
+                node.children(d, Double.POSITIVE_INFINITY, team, bound);
+                node.apply(d, team[0]);
+            }
+            return node;
+        }
+
+        // assignment per level for teams built elsewhere, or null when they do not fit this problem
+        int[] assignmentOf(List<Team> start) {
+            if (start == null || start.size() != teams) return null;
+            Map<Participant, Integer> level = new IdentityHashMap<>();
+            for (int d = 0; d < n; d++) {
+                level.put(participants.get(index[d]), d);
+            }
+            int[] assign = new int[n];
+            Arrays.fill(assign, -1);
+            for (int t = 0; t < teams; t++) {
+                Team team = start.get(t);
+                if (team.size() < minSize || team.size() > teamSize) return null;
+                for (Participant p : team.getMembers()) {
+                    Integer d = level.get(p);
+                    if (d == null || assign[d] >= 0) return null;
+                    assign[d] = t;
+                }
+            }
+            for (int t : assign) {
+                if (t < 0) return null;
+            }
+            return assign;
+        }
+
+        Node replay(int[] assign) {
+            Node node = new Node(this);
+            for (int d = 0; d < n; d++) {
+                node.apply(d, assign[d]);
+            }
+            return node;
+        }
+
+        // Team objects in input order within each team
+        ArrayList<Team> teamsOf(int[] assign) {
+            int[] levelOf = new int[n];
+            for (int d = 0; d < n; d++) {
+                levelOf[index[d]] = d;
+            }
+            ArrayList<Team> result = new ArrayList<>(teams);
+            for (int t = 1; t <= teams; t++) {
+                result.add(new Team("Team " + t));
+            }
+            for (int i = 0; i < n; i++) {
+                result.get(assign[levelOf[i]]).addMember(participants.get(i));
+            }
+            return result;
+        }
+    }
+
+    // ---------- search state: one partial assignment, changed in place by apply / undo ----------
+    private static final class Node {
+        final Problem pb;
+        final int[] assign;             // team per tree level, valid below `depth`
+        final int[] size;
+        final int[] sum;
+        final int[] distinct;
+        final int[] overflow;
+        final int[] leaders;
+        final int[] thinkers;
+        final int[] gameCount;          // teams x games
+        final int[] roleCount;          // teams x roles
+        final double[] teamBound;
+        double teamBounds;              // sum of teamBound
+
+        // what the participants not yet placed force on top of the per-team bounds
+        final int[] remGame;            // unplaced participants per game
+        final int[] freeGame;           // slots left under the game cap, over all teams
+        int forcedGame;                 // sum of max(0, remGame - freeGame)
+        int remLeaders;
+        int freeLeaders;
+        int remThinkers;
+        int freeThinkers;
+        int deficit;                    // members still missing to reach minSize, over all teams
+        int used;                       // teams 0..used-1 have members, the rest are empty
+
+        long visited;
+        int[][] scratchTeam;            // child order per level, allocated on the first dfs
+        double[][] scratchBound;
+
+        Node(Problem pb) {
+            this.pb = pb;
+            int k = pb.teams;
+            assign = new int[pb.n];
+            size = new int[k];
+            sum = new int[k];
+            distinct = new int[k];
+            overflow = new int[k];
+            leaders = new int[k];
+            thinkers = new int[k];
+            gameCount = new int[k * pb.games];
+            roleCount = new int[k * pb.roles];
+            teamBound = new double[k];
+            remGame = new int[pb.games];
+            freeGame = new int[pb.games];
+            Arrays.fill(freeGame, k * TeamBuilder.MAX_PER_GAME_PER_TEAM);
+            for (int d = 0; d < pb.n; d++) {
+                if (pb.game[d] >= 0) remGame[pb.game[d]]++;
+                if (pb.type[d] == AttributeDictionary.PERSONALITY_LEADER) remLeaders++;
+                else if (pb.type[d] == AttributeDictionary.PERSONALITY_THINKER) remThinkers++;
+            }
+            for (int g = 0; g < pb.games; g++) {
+                forcedGame += Math.max(0, remGame[g] - freeGame[g]);
+            }
+            freeLeaders = k * TeamBuilder.MAX_LEADERS_PER_TEAM;
+            freeThinkers = k * TeamBuilder.MAX_THINKERS_PER_TEAM;
+            deficit = k * pb.minSize;
+            Arrays.fill(teamBound, pb.emptyTeamBound);
+            teamBounds = k * pb.emptyTeamBound;
+        }
+
+        Node(Node o) {
+            pb = o.pb;
+            assign = o.assign.clone();
+            size = o.size.clone();
+            sum = o.sum.clone();
+            distinct = o.distinct.clone();
+            overflow = o.overflow.clone();
+            leaders = o.leaders.clone();
+            thinkers = o.thinkers.clone();
+            gameCount = o.gameCount.clone();
+            roleCount = o.roleCount.clone();
+            teamBound = o.teamBound.clone();
+            teamBounds = o.teamBounds;
+            remGame = o.remGame.clone();
+            freeGame = o.freeGame.clone();
+            forcedGame = o.forcedGame;
+            remLeaders = o.remLeaders;
+            freeLeaders = o.freeLeaders;
+            remThinkers = o.remThinkers;
+            freeThinkers = o.freeThinkers;
+            deficit = o.deficit;
+            used = o.used;
+        }
+
+        double bound() {
+            return teamBounds
+                    + FormationObjective.GAME_CAP_WEIGHT * forcedGame
+                    + FormationObjective.LEADER_OVERFLOW_WEIGHT * Math.max(0, remLeaders - freeLeaders)
+                    + FormationObjective.THINKER_OVERFLOW_WEIGHT * Math.max(0, remThinkers - freeThinkers);
+        }
+
+        // objective of a complete assignment, computed like FormationObjective.evaluate
+        double objective() {
+            double spread = 0.0;
+            double penalties = 0.0;
+            for (int t = 0; t < pb.teams; t++) {
+                double dev = (double) sum[t] / size[t] - pb.globalAvg;
+                spread += dev * dev;
+                penalties += FormationObjective.penalty(size[t], overflow[t], distinct[t], leaders[t], thinkers[t]);
+            }
+            return FormationObjective.SKILL_VARIANCE_WEIGHT * (spread / pb.teams) + penalties;
+        }
+
+        // Lowest contribution team t can still end with: its penalties so far (overflow only grows),
+        // role shortfall if every free slot brought a new role, and the skill term of the closest
+        // average to the global one it can still reach.
+        private double teamLowerBound(int t) {
+            int free = pb.teamSize - size[t];
+            return FormationObjective.penalty(pb.teamSize, overflow[t], distinct[t] + free,
+                    leaders[t], thinkers[t]) + pb.skillBound(sum[t], size[t]);
+        }
+
+        // places level d in team t; the caller saves teamBound[t] / teamBounds to restore after undo
+        void apply(int d, int t) {
+            assign[d] = t;
+            if (size[t] < pb.minSize) deficit--;
+            if (size[t] == 0) used++;
+            size[t]++;
+            sum[t] += pb.skill[d];
+
+            int g = pb.game[d];
+            if (g >= 0) {
+                int before = Math.max(0, remGame[g] - freeGame[g]);
+                int count = gameCount[t * pb.games + g]++;
+                remGame[g]--;
+                if (count >= TeamBuilder.MAX_PER_GAME_PER_TEAM) overflow[t]++;
+                else freeGame[g]--;
+                forcedGame += Math.max(0, remGame[g] - freeGame[g]) - before;
+            }
+            int r = pb.role[d];
+            if (r >= 0 && roleCount[t * pb.roles + r]++ == 0) distinct[t]++;
+
+            if (pb.type[d] == AttributeDictionary.PERSONALITY_LEADER) {
+                remLeaders--;
+                if (leaders[t]++ < TeamBuilder.MAX_LEADERS_PER_TEAM) freeLeaders--;
+            } else if (pb.type[d] == AttributeDictionary.PERSONALITY_THINKER) {
+                remThinkers--;
+                if (thinkers[t]++ < TeamBuilder.MAX_THINKERS_PER_TEAM) freeThinkers--;
+            }
+
+            double old = teamBound[t];
+            teamBound[t] = teamLowerBound(t);
+            teamBounds += teamBound[t] - old;
+        }
+
+        void undo(int d, int t, double savedTeamBound, double savedTeamBounds) {
+            if (pb.type[d] == AttributeDictionary.PERSONALITY_LEADER) {
+                remLeaders++;
+                if (--leaders[t] < TeamBuilder.MAX_LEADERS_PER_TEAM) freeLeaders++;
+            } else if (pb.type[d] == AttributeDictionary.PERSONALITY_THINKER) {
+                remThinkers++;
+                if (--thinkers[t] < TeamBuilder.MAX_THINKERS_PER_TEAM) freeThinkers++;
+            }
+            int r = pb.role[d];
+            if (r >= 0 && --roleCount[t * pb.roles + r] == 0) distinct[t]--;
+
+            int g = pb.game[d];
+            if (g >= 0) {
+                int before = Math.max(0, remGame[g] - freeGame[g]);
+                int count = --gameCount[t * pb.games + g];
+                remGame[g]++;
+                if (count >= TeamBuilder.MAX_PER_GAME_PER_TEAM) overflow[t]--;
+                else freeGame[g]++;
+                forcedGame += Math.max(0, remGame[g] - freeGame[g]) - before;
+            }
+
+            sum[t] -= pb.skill[d];
+            size[t]--;
+            if (size[t] == 0) used--;
+            if (size[t] < pb.minSize) deficit++;
+            teamBound[t] = savedTeamBound;
+            teamBounds = savedTeamBounds;
+        }
+
+        // Feasible children of level d with a bound below `cutoff`, lowest bound first.
+        // Candidates are the teams with members and room plus the first empty team.
+        int children(int d, double cutoff, int[] outTeam, double[] outBound) {
+            int remainingAfter = pb.n - d - 1;
+            int last = Math.min(used, pb.teams - 1);
+            int count = 0;
+            for (int t = 0; t <= last; t++) {
+                if (size[t] >= pb.teamSize) continue;
+                double savedTeam = teamBound[t];
+                double savedTotal = teamBounds;
+                apply(d, t);
+                if (deficit <= remainingAfter) {
+                    double b = bound();
+                    if (b < cutoff - EPSILON) {
+                        int i = count++;
+                        while (i > 0 && outBound[i - 1] > b) {
+                            outBound[i] = outBound[i - 1];
+                            outTeam[i] = outTeam[i - 1];
+                            i--;
+                        }
+                        outBound[i] = b;
+                        outTeam[i] = t;
+                    }
+                }
+                undo(d, t, savedTeam, savedTotal);
+            }
+            return count;
+        }
+    }
+
+    // ---------- shared search state ----------
+    private static final class Search {
+        final Problem pb;
+        final long deadline;
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final AtomicLong bestBits = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+        final AtomicLong openBits = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+        final LongAdder nodes = new LongAdder();
+        private int[] best;
+
+        Search(Problem pb, long deadline) {
+            this.pb = pb;
+            this.deadline = deadline;
+        }
+
+        double bestValue() {
+            return Double.longBitsToDouble(bestBits.get());
+        }
+
+        synchronized int[] best() {
+            return best;
+        }
+
+        // keeps a complete assignment if it beats the incumbent
+        void offer(Node leaf) {
+            double value = leaf.objective();
+            if (value >= bestValue() - EPSILON) return;
+            synchronized (this) {
+                if (value < bestValue() - EPSILON) {
+                    best = leaf.assign.clone();
+                    bestBits.set(Double.doubleToLongBits(value));
+                }
+            }
+        }
+
+        double openBound() {
+            return Double.longBitsToDouble(openBits.get());
+        }
+
+        // a subtree with this bound was left unexplored when time ran out
+        void leaveOpen(double bound) {
+            long current;
+            do {
+                current = openBits.get();
+                if (Double.longBitsToDouble(current) <= bound) return;
+            } while (!openBits.compareAndSet(current, Double.doubleToLongBits(bound)));
+        }
+
+        boolean outOfTime(Node node) {
+            if (stopped.get()) return true;
+            if ((++node.visited & (CHECK_EVERY - 1)) == 0 && System.nanoTime() > deadline) {
+                stopped.set(true);
+                return true;
+            }
+            return false;
+        }
+
+        void dfs(Node node, int d) {
+            if (d == pb.n) {
+                offer(node);
+                return;
+            }
+            if (outOfTime(node)) {
+                leaveOpen(node.bound());
+                return;
+            }
+            if (node.scratchTeam == null) {
+                node.scratchTeam = new int[pb.n][pb.teams];
+                node.scratchBound = new double[pb.n][pb.teams];
+            }
+            int[] team = node.scratchTeam[d];
+            double[] bound = node.scratchBound[d];
+            int count = node.children(d, bestValue(), team, bound);
+            for (int i = 0; i < count; i++) {
+                if (bound[i] >= bestValue() - EPSILON) return;     // sorted: the rest are no better
+                if (stopped.get()) {
+                    leaveOpen(bound[i]);
+                    return;
+                }
+                int t = team[i];
+                double savedTeam = node.teamBound[t];
+                double savedTotal = node.teamBounds;
+                node.apply(d, t);
+                dfs(node, d + 1);
+                node.undo(d, t, savedTeam, savedTotal);
+            }
+        }
+    }
+
+    // top levels of the tree: one ForkJoin task per child, deeper levels searched sequentially
+    private static final class Branch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final Node node;
+        private final int depth;
+
+        Branch(Search search, Node node, int depth) {
+            this.search = search;
+            this.node = node;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (node.bound() >= search.bestValue() - EPSILON) {
+                return;             // the incumbent improved while this task was queued
+            }
+            if (depth >= SPLIT_DEPTH || depth == search.pb.n) {
+                search.dfs(node, depth);
+                search.nodes.add(node.visited);
+                return;
+            }
+            if (search.stopped.get()) {
+                search.leaveOpen(node.bound());
+                return;
+            }
+            int[] team = new int[search.pb.teams];
+            double[] bound = new double[search.pb.teams];
+            int count = node.children(depth, search.bestValue(), team, bound);
+            search.nodes.increment();
+            List<Branch> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Node child = new Node(node);
+                child.apply(depth, team[i]);
+                tasks.add(new Branch(search, child, depth + 1));
+            }
+            invokeAll(tasks);
+        }
+    }
+}
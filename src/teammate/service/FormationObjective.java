@@ -0,0 +1,51 @@
+package teammate.service;
+
+import teammate.model.Team;
+
+import java.util.List;
+
+// Global quality score for a complete team assignment (lower is better).
+// Used to compare multi-start passes; built only from Team aggregates, so it is O(teams).
+public class FormationObjective {
+
+    // weights per unit of each violation
+    static final double SKILL_VARIANCE_WEIGHT   = 10.0;  // per unit of variance of team averages
+    static final double GAME_CAP_WEIGHT         = 50.0;  // per member over MAX_PER_GAME_PER_TEAM
+    static final double ROLE_SHORTFALL_WEIGHT   = 15.0;  // per missing distinct role
+    static final double LEADER_OVERFLOW_WEIGHT  = 40.0;  // per leader over MAX_LEADERS_PER_TEAM
+    static final double THINKER_OVERFLOW_WEIGHT = 25.0;  // per thinker over MAX_THINKERS_PER_TEAM
+
+    private FormationObjective() {
+    }
+
+    public static double evaluate(List<Team> teams, double globalAvgSkill) {
+        if (teams == null || teams.isEmpty()) return 0.0;
+
+        double skillSpread = 0.0;
+        double penalties = 0.0;
+        for (Team t : teams) {
+            double d = t.getAverageSkill() - globalAvgSkill;
+            skillSpread += d * d;
+            penalties += teamPenalty(t);
+        }
+        return SKILL_VARIANCE_WEIGHT * (skillSpread / teams.size()) + penalties;
+    }
+
+    // constraint part of the objective for one team
+    static double teamPenalty(Team t) {
+        return penalty(t.size(), t.gameOverflow(TeamBuilder.MAX_PER_GAME_PER_TEAM),
+                t.getDistinctRoleCount(), t.getLeaderCount(), t.getThinkerCount());
+    }
+
+    // same penalty from raw aggregate values, so callers can score a hypothetical team in O(1)
+    static double penalty(int size, int gameOverflow, int distinctRoles, int leaders, int thinkers) {
+        int roleShortfall = Math.max(0, Math.min(TeamBuilder.MIN_DISTINCT_ROLES, size) - distinctRoles);
+        int leaderOverflow = Math.max(0, leaders - TeamBuilder.MAX_LEADERS_PER_TEAM);
+        int thinkerOverflow = Math.max(0, thinkers - TeamBuilder.MAX_THINKERS_PER_TEAM);
+
+        return GAME_CAP_WEIGHT * gameOverflow
+                + ROLE_SHORTFALL_WEIGHT * roleShortfall
+                + LEADER_OVERFLOW_WEIGHT * leaderOverflow
+                + THINKER_OVERFLOW_WEIGHT * thinkerOverflow;
+    }
+}
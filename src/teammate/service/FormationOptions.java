@@ -0,0 +1,55 @@
+package teammate.service;
+
+// How a TeamFormationTask forms teams. Immutable: every setter returns a changed copy, e.g.
+//   FormationOptions.defaults().starts(4).optimiseMillis(500)
+//   FormationOptions.defaults().seed(7)                 (reproducible run)
+//   FormationOptions.defaults().exactMillis(10_000)     (branch and bound for small events)
+public final class FormationOptions {
+
+    private static final FormationOptions DEFAULTS = new FormationOptions(1, 0, false, 0L, 0);
+
+    private final int starts;            // 1 = single greedy pass, >1 = parallel best-of-K
+    private final long optimiseMillis;   // local-search budget after formation, 0 = off
+    private final boolean seeded;        // false = fresh random run
+    private final long seed;
+    private final long exactMillis;      // > 0 = branch and bound within this limit (small events only)
+
+    private FormationOptions(int starts, long optimiseMillis, boolean seeded, long seed, long exactMillis) {
+        this.starts = starts;
+        this.optimiseMillis = optimiseMillis;
+        this.seeded = seeded;
+        this.seed = seed;
+        this.exactMillis = exactMillis;
+    }
+
+    // one unseeded greedy pass, no local search, no exact search
+    public static FormationOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public FormationOptions starts(int starts) {
+        return new FormationOptions(Math.max(1, starts), optimiseMillis, seeded, seed, exactMillis);
+    }
+
+    public FormationOptions optimiseMillis(long optimiseMillis) {
+        return new FormationOptions(starts, Math.max(0, optimiseMillis), seeded, seed, exactMillis);
+    }
+
+    // identical input + seed give identical teams (and so identical exported CSV),
+    // as long as the time-bounded local search and exact search are off
+    public FormationOptions seed(long seed) {
+        return new FormationOptions(starts, optimiseMillis, true, seed, exactMillis);
+    }
+
+    // searches for optimal teams when there are at most ExactTeamSolver.MAX_PARTICIPANTS
+    // participants (otherwise the other options apply); starts and optimiseMillis are then unused
+    public FormationOptions exactMillis(long exactMillis) {
+        return new FormationOptions(starts, optimiseMillis, seeded, seed, Math.max(0, exactMillis));
+    }
+
+    public int getStarts() { return starts; }
+    public long getOptimiseMillis() { return optimiseMillis; }
+    public boolean isSeeded() { return seeded; }
+    public long getSeed() { return seed; }
+    public long getExactMillis() { return exactMillis; }
+}
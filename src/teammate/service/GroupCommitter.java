@@ -0,0 +1,116 @@
+package teammate.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Group commit for saves: callers submit "save <file>" and get a future; one background thread takes
+// the first request, waits up to `window` for more (or until `maxBatch` have arrived) and then runs
+// the write once per distinct file. Every request in the batch completes when that write returns,
+// i.e. once it is durable – or fails with the write's exception.
+// A request only ever joins a write that starts after it was submitted, so the caller's own changes
+// are always part of the write its future waits for.
+final class GroupCommitter {
+
+    // the shared write; must leave the data durable before returning
+    interface Write {
+        void run(String file) throws IOException;
+    }
+
+    private static final class Request {
+        final String file;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Request(String file) {
+            this.file = file;
+        }
+    }
+
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Write write;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private Thread worker;
+
+    GroupCommitter(String name, long windowMillis, int maxBatch, Write write) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be >= 1");
+        this.name = name;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.maxBatch = maxBatch;
+        this.write = write;
+    }
+
+    // completes once a write of `file` that started after this call has finished
+    CompletableFuture<Void> submit(String file) {
+        Request r = new Request(file);
+        requests.incrementAndGet();
+        startWorker();
+        queue.add(r);
+        return r.done;
+    }
+
+    long requests() { return requests.get(); }
+    long writes() { return writes.get(); }
+
+    // ---------- worker ----------
+    private synchronized void startWorker() {
+        if (worker == null) {
+            worker = new Thread(this::loop, name);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void loop() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long left = deadline - System.nanoTime();
+                    Request next = (left > 0) ? queue.poll(left, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // daemon thread: nothing to shut down, keep serving what was taken
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Request> batch) {
+        Map<String, List<Request>> byFile = new LinkedHashMap<>();
+        for (Request r : batch) {
+            byFile.computeIfAbsent(r.file, f -> new ArrayList<>()).add(r);
+        }
+        for (Map.Entry<String, List<Request>> group : byFile.entrySet()) {
+            Throwable failure = null;
+            try {
+                write.run(group.getKey());
+                writes.incrementAndGet();
+            } catch (Throwable t) {
+                failure = t;
+            }
+            for (Request r : group.getValue()) {
+                if (failure == null) {
+                    r.done.complete(null);
+                } else {
+                    r.done.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+}
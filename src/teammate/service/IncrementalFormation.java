@@ -0,0 +1,365 @@
+package teammate.service;
+
+import teammate.model.MergeListener;
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// Keeps a formed set of teams up to date one participant at a time instead of re-running buildTeams.
+//  - add: a new or re-surveyed participant goes to the best-scoring team with room (same
+//    evaluatePlacementScore as formation); when every team is full they wait in a pool, and once
+//    the pool holds enough people for a team it becomes a new team.
+//  - remove: the participant leaves its team; the gap is backfilled from the pool, and a team that
+//    drops below the minimum size with nobody waiting is dissolved into the other teams.
+//  - after each change TeamOptimizer runs over the touched teams plus a few others, so only the
+//    affected teams are re-balanced and everybody else keeps their team.
+// An update is remove (before the attributes change: Team aggregates are taken at add time) + add.
+// Members are found by identity, then id, then email (case-insensitive), so the copies restored from
+// a snapshot match the signed-up Participant objects. Names are not unique and are never matched.
+// Not thread-safe: driven from the menu thread.
+public class IncrementalFormation {
+
+    static final int MIN_TEAM_SIZE = 3;
+    private static final int REBALANCE_NEIGHBOURS = 6;          // untouched teams offered to the optimiser
+    private static final long REBALANCE_ITERATIONS = 2_000;
+
+    private final List<Team> teams;
+    private final int teamSize;
+    private final TeamBuilder scorer;
+    private final RandomGenerator random;
+    private final List<Participant> waiting = new ArrayList<>();
+
+    private final Map<Participant, Team> teamOf = new IdentityHashMap<>();
+    private final Map<String, Participant> byId = new HashMap<>();
+    private final Map<String, Participant> byEmail = new HashMap<>();
+    // lookup keys and skill each member was tracked with, so untrack undoes exactly that even when
+    // the member's id, email or skill was changed while placed
+    private final Map<Participant, Tracked> trackedAs = new IdentityHashMap<>();
+
+    private long skillSum;       // over placed members, for the global average the scores aim at
+    private int placed;
+    private int nextTeamNumber;
+
+    public IncrementalFormation(List<Team> teams, int teamSize, TeamBuilder scorer) {
+        this(teams, teamSize, scorer, new SplittableRandom());
+    }
+
+    // `teams` is copied; the Team objects themselves are shared and changed in place
+    public IncrementalFormation(List<Team> teams, int teamSize, TeamBuilder scorer, RandomGenerator random) {
+        this.teams = new ArrayList<>(teams);
+        this.teamSize = Math.max(MIN_TEAM_SIZE, teamSize);
+        this.scorer = scorer;
+        this.random = random;
+        for (Team t : this.teams) {
+            for (Participant p : t.getMembers()) {
+                track(p, t);
+            }
+        }
+        nextTeamNumber = highestTeamNumber(this.teams) + 1;
+    }
+
+    // merges, dissolved teams and restores leave gaps, so count on from the largest "Team N" in use
+    // rather than from the number of teams (the CSV export keys on the name)
+    private static int highestTeamNumber(List<Team> teams) {
+        int highest = 0;
+        for (Team t : teams) {
+            String name = t.getTeamName();
+            if (name == null || !name.startsWith("Team ")) continue;
+            try {
+                highest = Math.max(highest, Integer.parseInt(name.substring(5).trim()));
+            } catch (NumberFormatException ignored) {
+                // a custom name never clashes with "Team N"
+            }
+        }
+        return highest;
+    }
+
+    // best guess at the team size the teams were formed with, for snapshots that do not record it
+    public static int inferTeamSize(List<Team> teams) {
+        int max = MIN_TEAM_SIZE;
+        for (Team t : teams) {
+            max = Math.max(max, t.size());
+        }
+        return max;
+    }
+
+    public List<Team> teams() { return Collections.unmodifiableList(teams); }
+
+    public List<Participant> waiting() { return Collections.unmodifiableList(waiting); }
+
+    public int teamSize() { return teamSize; }
+
+    // team of p (or of the member standing for p), or null when p is not placed
+    public Team teamOf(Participant p) {
+        Participant member = memberFor(p);
+        return (member == null) ? null : teamOf.get(member);
+    }
+
+    // true when p (or the member standing for p) is in a team or waiting for one
+    public boolean contains(Participant p) {
+        if (memberFor(p) != null) return true;
+        for (Participant w : waiting) {
+            if (matches(w, p)) return true;
+        }
+        return false;
+    }
+
+    // ---------- changes ----------
+    // Places p (replacing whoever stands for p in a team or the pool); returns its team, or null
+    // when it is waiting for a team.
+    public Team add(Participant p) {
+        return add(p, null);
+    }
+
+    // As add(p), but goes back to `previous` without re-balancing when that team still exists and
+    // has room – for a participant who was detached for an edit that changed nothing.
+    public Team add(Participant p, Team previous) {
+        detach(p);
+        if (previous != null && previous.size() < teamSize && teams.contains(previous)) {
+            previous.addMember(p);
+            track(p, previous);
+            return previous;
+        }
+        Team team = bestOpenTeam(p);
+        if (team == null) {
+            waiting.add(p);
+            openTeamFromPool();
+            team = teamOf.get(p);
+            if (team == null) {
+                return null;
+            }
+        } else {
+            team.addMember(p);
+            track(p, team);
+        }
+        rebalance(Collections.singleton(team));
+        return teamOf.get(p);
+    }
+
+    // Takes p out (of its team or the pool), backfills or dissolves its team and re-balances the
+    // teams involved; returns the member object that was removed, or null when p was not there.
+    public Participant remove(Participant p) {
+        Participant member = memberFor(p);
+        if (member == null) {
+            return waiting.removeIf(w -> matches(w, p)) ? p : null;
+        }
+        Team team = teamOf.get(member);
+        if (team == null) {
+            return null;
+        }
+        team.removeMember(member);
+        untrack(member);
+
+        Set<Team> affected = new LinkedHashSet<>();
+        affected.add(team);
+        backfill(team);
+        if (team.size() < MIN_TEAM_SIZE) {
+            affected.addAll(dissolve(team));
+        }
+        rebalance(affected);
+        return member;
+    }
+
+    // Removes p without backfilling, e.g. right before its attributes are edited; add(p) puts it back.
+    // Returns the team it was taken from, or null.
+    public Team detach(Participant p) {
+        Participant member = memberFor(p);
+        if (member == null) {
+            waiting.removeIf(w -> matches(w, p));
+            return null;
+        }
+        Team team = teamOf.get(member);
+        if (team != null) {
+            team.removeMember(member);
+            untrack(member);
+        }
+        return team;
+    }
+
+    // For ParticipantRegistry.merge: placed or waiting participants an import overwrites are detached
+    // before their attributes change and added back afterwards (to the same team when nothing changed).
+    public MergeListener mergeListener() {
+        return new MergeListener() {
+            private final Map<Participant, Team> detached = new IdentityHashMap<>();
+
+            @Override
+            public void beforeUpdate(Participant existing) {
+                if (contains(existing)) {
+                    detached.put(existing, detach(existing));
+                }
+            }
+
+            @Override
+            public void afterUpdate(Participant existing, boolean changed) {
+                if (detached.containsKey(existing)) {
+                    Team previous = detached.remove(existing);
+                    add(existing, changed ? null : previous);
+                }
+            }
+        };
+    }
+
+    // ---------- placement ----------
+    private Team bestOpenTeam(Participant p) {
+        double avg = globalAverageSkill(p);
+        Team best = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (Team t : teams) {
+            if (t.size() >= teamSize) continue;
+            int score = scorer.evaluatePlacementScore(t, p.getSkillLevel(), p.getGameCode(),
+                    p.getRoleCode(), p.getPersonalityCode(), avg);
+            if (score > bestScore) {
+                bestScore = score;
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    // fills `team` up to teamSize from the pool, best-scoring waiting participant first
+    private void backfill(Team team) {
+        while (team.size() < teamSize && !waiting.isEmpty()) {
+            double avg = globalAverageSkill(null);
+            int best = 0;
+            int bestScore = Integer.MIN_VALUE;
+            for (int i = 0; i < waiting.size(); i++) {
+                Participant w = waiting.get(i);
+                int score = scorer.evaluatePlacementScore(team, w.getSkillLevel(), w.getGameCode(),
+                        w.getRoleCode(), w.getPersonalityCode(), avg);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            Participant w = waiting.remove(best);
+            team.addMember(w);
+            track(w, team);
+        }
+    }
+
+    // once enough participants are waiting for a team of the minimum size, they become a new team
+    private void openTeamFromPool() {
+        if (waiting.size() < MIN_TEAM_SIZE) return;
+        Team team = new Team("Team " + nextTeamNumber++);
+        teams.add(team);
+        backfill(team);
+    }
+
+    // moves the members of a too-small team into other teams (or the pool) and drops the team
+    private List<Team> dissolve(Team small) {
+        teams.remove(small);
+        List<Participant> members = new ArrayList<>(small.getMembers());
+        List<Team> touched = new ArrayList<>();
+        for (Participant m : members) {
+            small.removeMember(m);
+            untrack(m);
+            Team target = bestOpenTeam(m);
+            if (target == null) {
+                waiting.add(m);
+            } else {
+                target.addMember(m);
+                track(m, target);
+                touched.add(target);
+            }
+        }
+        openTeamFromPool();
+        return touched;
+    }
+
+    // local search over the touched teams plus a few random others; sizes stay in [3, teamSize]
+    private void rebalance(Set<Team> affected) {
+        List<Team> scope = new ArrayList<>(affected);
+        scope.removeIf(t -> t.size() == 0);    // a dissolved team
+        int others = Math.min(REBALANCE_NEIGHBOURS, teams.size() - scope.size());
+        for (int tries = 0; others > 0 && tries < others * 4; tries++) {
+            Team t = teams.get(random.nextInt(teams.size()));
+            if (!scope.contains(t)) {
+                scope.add(t);
+                others--;
+            }
+        }
+        if (scope.size() < 2) return;
+
+        new TeamOptimizer(random).improve(scope, teamSize, MIN_TEAM_SIZE, 0, REBALANCE_ITERATIONS);
+        for (Team t : scope) {
+            for (Participant m : t.getMembers()) {
+                teamOf.put(m, t);
+            }
+        }
+    }
+
+    private double globalAverageSkill(Participant joining) {
+        long sum = skillSum + ((joining == null) ? 0 : joining.getSkillLevel());
+        int n = placed + ((joining == null) ? 0 : 1);
+        return (n == 0) ? 0.0 : (double) sum / n;
+    }
+
+    // ---------- lookup ----------
+    private Participant memberFor(Participant p) {
+        if (p == null) return null;
+        if (teamOf.containsKey(p)) return p;
+        Participant m = lookup(byId, p.getId());
+        if (m == null) m = lookup(byEmail, p.getEmail());
+        return (m != null && teamOf.containsKey(m)) ? m : null;
+    }
+
+    private boolean matches(Participant a, Participant b) {
+        return a == b
+                || (key(a.getId()) != null && key(a.getId()).equals(key(b.getId())))
+                || (key(a.getEmail()) != null && key(a.getEmail()).equals(key(b.getEmail())));
+    }
+
+    private static final class Tracked {
+        final String idKey;
+        final String emailKey;
+        final int skill;
+
+        Tracked(Participant p) {
+            idKey = key(p.getId());
+            emailKey = key(p.getEmail());
+            skill = p.getSkillLevel();
+        }
+    }
+
+    private void track(Participant p, Team t) {
+        Tracked tracked = new Tracked(p);
+        teamOf.put(p, t);
+        trackedAs.put(p, tracked);
+        if (tracked.idKey != null) byId.putIfAbsent(tracked.idKey, p);
+        if (tracked.emailKey != null) byEmail.putIfAbsent(tracked.emailKey, p);
+        skillSum += tracked.skill;
+        placed++;
+    }
+
+    private void untrack(Participant p) {
+        teamOf.remove(p);
+        Tracked tracked = trackedAs.remove(p);
+        if (tracked == null) return;
+        if (tracked.idKey != null) byId.remove(tracked.idKey, p);
+        if (tracked.emailKey != null) byEmail.remove(tracked.emailKey, p);
+        skillSum -= tracked.skill;
+        placed--;
+    }
+
+    private static Participant lookup(Map<String, Participant> map, String raw) {
+        String key = key(raw);
+        return (key == null) ? null : map.get(key);
+    }
+
+    private static String key(String raw) {
+        if (raw == null) return null;
+        String k = raw.trim();
+        return k.isEmpty() ? null : k.toLowerCase(Locale.ROOT);
+    }
+}
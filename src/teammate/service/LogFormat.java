@@ -0,0 +1,9 @@
+package teammate.service;
+
+// On-disk layout of the hourly log files written in async mode.
+public enum LogFormat {
+    // "[yyyy-MM-dd HH:mm:ss] message" lines in log_yyyy-MM-dd_HH.log
+    TEXT,
+    // length-prefixed binary records in log_yyyy-MM-dd_HH.bin (see BinaryLogWriter, LogDecoder)
+    BINARY
+}
@@ -0,0 +1,30 @@
+package teammate.service;
+
+// Severity of a log message, lowest first. LoggerService drops anything below its threshold.
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR;
+
+    // text in front of the message in a log line; INFO keeps the original "[time] message" layout
+    public String linePrefix() {
+        switch (this) {
+            case DEBUG: return "DEBUG: ";
+            case WARN:  return "WARN: ";
+            case ERROR: return "ERROR: ";
+            default:    return "";
+        }
+    }
+
+    // level named by `value` (case-insensitive), or `fallback` when it is missing or unknown
+    public static LogLevel parse(String value, LogLevel fallback) {
+        if (value == null) return fallback;
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(value.trim())) {
+                return level;
+            }
+        }
+        return fallback;
+    }
+}
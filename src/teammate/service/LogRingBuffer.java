@@ -0,0 +1,66 @@
+package teammate.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free queue for many producers and one consumer (the log writer thread).
+// Each slot carries a sequence number: producers claim a position with one CAS on `tail`,
+// publish the element and then bump the slot's sequence; the consumer only reads slots
+// whose sequence says they are published. No thread ever blocks another.
+class LogRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;                       // consumer only
+
+    // capacity is rounded up to a power of two
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // false when the buffer is full
+    boolean offer(T item) {
+        while (true) {
+            long pos = tail.get();
+            int slot = (int) pos & mask;
+            long diff = sequences.get(slot) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(slot, item);
+                    sequences.set(slot, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // another producer took this position – retry with the new tail
+        }
+    }
+
+    // next element or null when nothing is published yet; consumer thread only
+    T poll() {
+        int slot = (int) head & mask;
+        if (sequences.get(slot) != head + 1) {
+            return null;
+        }
+        T item = slots.get(slot);
+        slots.lazySet(slot, null);
+        sequences.set(slot, head + mask + 1);
+        head++;
+        return item;
+    }
+
+    // number of positions claimed by producers so far
+    long claimed() {
+        return tail.get();
+    }
+}
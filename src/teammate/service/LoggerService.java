@@ -4,30 +4,73 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 // Provides a simple logging system that writes info and error messages to timestamped log files.
+// By default every call appends to the file directly. After startAsync() calls only enqueue a record
+// on a lock-free ring buffer and one writer thread appends them in batches through open channels.
+// Messages below the level threshold are dropped before any string is built; "{}" templates
+// are filled in on the writer thread in async mode. With LogFormat.BINARY the writer stores
+// templates and typed arguments instead of text (decode with teammate.app.LogDecoder).
 public class LoggerService {
 
-    private static final String LOG_DIR = "src/teammate/Log/";
+    private static final String DEFAULT_LOG_DIR = "src/teammate/Log/";
 
     // info log file: one per hour
     private static final DateTimeFormatter FILE_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd_HH");
 
     // timestamp inside log
-    private static final DateTimeFormatter TIME_FORMAT =
+    static final DateTimeFormatter TIME_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     // single error log file
     private static final String ERROR_FILE = "error.log";
 
+    // async mode: queued records and how many the writer takes per batch
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+    private static final int MAX_BATCH = 4096;
+    // how long the writer sleeps when the queue is empty
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // default threshold, e.g. -Dteammate.log.level=DEBUG
+    private static final LogLevel DEFAULT_LEVEL =
+            LogLevel.parse(System.getProperty("teammate.log.level"), LogLevel.INFO);
+
     // -------- Singleton --------
     private static final LoggerService INSTANCE = new LoggerService();
 
+    private final String logDir;            // ends with a separator
+    private volatile LogLevel threshold = DEFAULT_LEVEL;
+
+    // -------- Async state --------
+    private volatile LogRingBuffer<LogRecord> queue;
+    private volatile Thread writerThread;
+    private volatile boolean stopping;
+    private volatile long written;          // records fully handed to the OS by the writer
+    private boolean shutdownHookInstalled;
+
     public LoggerService() {
-        File dir = new File(LOG_DIR);
+        this(DEFAULT_LOG_DIR);
+    }
+
+    // writes to another directory, e.g. a test's temporary folder
+    LoggerService(String logDir) {
+        this.logDir = logDir.endsWith(File.separator) || logDir.endsWith("/") ? logDir : logDir + File.separator;
+        File dir = new File(this.logDir);
         if (!dir.exists()) {
             dir.mkdirs();
         }
@@ -39,26 +82,201 @@ public class LoggerService {
 
     // -------- Public APIs --------
     public void info(String message) {
-        writeInfo(message);
+        log(LogLevel.INFO, message, null);
     }
     // [UPD 1.2.4.5] log invalid index for update
     // [UPD 3.2.3.1.1.2] info "Participant permanently updated"
     // [UPD 3.2.3.2.2] error "Failed to save updated participant"
     // [UPD 3.2.4.1] info "Update kept in memory only"
 
+    // Supplier overloads run the supplier on the calling thread, and only when the level is enabled
+    public void info(Supplier<String> message) {
+        if (isEnabled(LogLevel.INFO)) log(LogLevel.INFO, message.get(), null);
+    }
+
+    public void info(String template, Object arg) {
+        if (isEnabled(LogLevel.INFO)) logTemplate(LogLevel.INFO, template, new Object[]{arg});
+    }
+
+    public void info(String template, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.INFO)) logTemplate(LogLevel.INFO, template, new Object[]{arg1, arg2});
+    }
+
+    public void info(String template, Object... args) {
+        if (isEnabled(LogLevel.INFO)) logTemplate(LogLevel.INFO, template, args);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(LogLevel.DEBUG)) log(LogLevel.DEBUG, message.get(), null);
+    }
+
+    public void debug(String template, Object arg) {
+        if (isEnabled(LogLevel.DEBUG)) logTemplate(LogLevel.DEBUG, template, new Object[]{arg});
+    }
+
+    public void debug(String template, Object arg1, Object arg2) {
+        if (isEnabled(LogLevel.DEBUG)) logTemplate(LogLevel.DEBUG, template, new Object[]{arg1, arg2});
+    }
+
+    public void debug(String template, Object... args) {
+        if (isEnabled(LogLevel.DEBUG)) logTemplate(LogLevel.DEBUG, template, args);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message, null);
+    }
+
+    public void warn(Supplier<String> message) {
+        if (isEnabled(LogLevel.WARN)) log(LogLevel.WARN, message.get(), null);
+    }
+
+    public void warn(String template, Object... args) {
+        if (isEnabled(LogLevel.WARN)) logTemplate(LogLevel.WARN, template, args);
+    }
+
     public void error(String message) {
-        writeError(message, null);
+        error(message, null);
     }
 
     public void error(String message, Throwable t) {
-        writeError(message, t);
+        log(LogLevel.ERROR, message, t);
+    }
+
+    // -------- Level threshold --------
+    public LogLevel getLevel() {
+        return threshold;
+    }
+
+    public void setLevel(LogLevel level) {
+        threshold = (level == null) ? DEFAULT_LEVEL : level;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    // Replaces each "{}" in order with String.valueOf(arg); missing args leave "{}" in place.
+    static String format(String template, Object[] args) {
+        if (template == null) return null;
+        if (args == null || args.length == 0) return template;
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int from = 0;
+        int argIndex = 0;
+        int at;
+        while (argIndex < args.length && (at = template.indexOf("{}", from)) >= 0) {
+            sb.append(template, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        return sb.append(template, from, template.length()).toString();
+    }
+
+    private void log(LogLevel level, String message, Throwable t) {
+        if (!isEnabled(level)) return;
+        if (!enqueue(new LogRecord(nowNanos(), level, message, null, t))) {
+            writeDirect(level, message, t);
+        }
+    }
+
+    // async: the template and args are queued as they are and formatted by the writer thread,
+    // so pass values that do not change afterwards (numbers, strings), not live objects
+    private void logTemplate(LogLevel level, String template, Object[] args) {
+        if (!enqueue(new LogRecord(nowNanos(), level, template, args, null))) {
+            writeDirect(level, format(template, args), null);
+        }
+    }
+
+    private void writeDirect(LogLevel level, String message, Throwable t) {
+        if (level == LogLevel.ERROR) {
+            writeError(message, t);
+        } else {
+            writeInfo(level.linePrefix() + message);
+        }
+    }
+
+    private static long nowNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    // -------- Async mode --------
+    // Starts the writer thread (no-op when already running). A shutdown hook drains the queue on exit.
+    public void startAsync() {
+        startAsync(LogFormat.TEXT);
+    }
+
+    // BINARY writes log_yyyy-MM-dd_HH.bin instead of .log; error.log stays text (stack traces)
+    public synchronized void startAsync(LogFormat format) {
+        if (writerThread != null) return;
+        stopping = false;
+        written = 0;
+        queue = new LogRingBuffer<>(QUEUE_CAPACITY);
+        Thread t = new Thread(new AsyncWriter(format == LogFormat.BINARY), "log-writer");
+        t.setDaemon(true);
+        writerThread = t;
+        t.start();
+        if (!shutdownHookInstalled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stopAsync, "log-flush"));
+            shutdownHookInstalled = true;
+        }
+    }
+
+    public boolean isAsync() {
+        return writerThread != null;
+    }
+
+    // Blocks until every record logged before this call has been written.
+    public void flush() {
+        LogRingBuffer<LogRecord> q = queue;
+        Thread t = writerThread;
+        if (q == null || t == null) return;
+        long target = q.claimed();
+        while (written < target && t.isAlive()) {
+            LockSupport.unpark(t);
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    // Drains the queue, closes the files and goes back to direct writes.
+    public synchronized void stopAsync() {
+        Thread t = writerThread;
+        if (t == null) return;
+        stopping = true;
+        LockSupport.unpark(t);
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        queue = null;
+    }
+
+    // false when async mode is off, so the caller writes directly
+    private boolean enqueue(LogRecord record) {
+        LogRingBuffer<LogRecord> q = queue;
+        if (q == null || stopping) return false;
+        // full queue: wait for the writer instead of dropping records
+        while (!q.offer(record)) {
+            if (stopping || writerThread == null) return false;
+            LockSupport.unpark(writerThread);
+            Thread.onSpinWait();
+        }
+        return true;
     }
 
     // -------- Internal writers --------
     private synchronized void writeInfo(String message) {
         LocalDateTime now = LocalDateTime.now();
         String fileName = "log_" + now.format(FILE_FORMAT) + ".log";
-        File file = new File(LOG_DIR + fileName);
+        File file = new File(logDir + fileName);
 
         try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
             pw.println("[" + now.format(TIME_FORMAT) + "] " + message);
@@ -70,7 +288,7 @@ public class LoggerService {
 
     private synchronized void writeError(String message, Throwable t) {
         LocalDateTime now = LocalDateTime.now();
-        File file = new File(LOG_DIR + ERROR_FILE);
+        File file = new File(logDir + ERROR_FILE);
 
         try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
             pw.println("[" + now.format(TIME_FORMAT) + "] ERROR: " + message);
@@ -81,4 +299,195 @@ public class LoggerService {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    // one queued log call; the caller's clock decides the timestamp and the hourly file.
+    // args == null: message is final text; otherwise message is a "{}" template
+    private static final class LogRecord {
+        final long epochNanos;
+        final LogLevel level;
+        final String message;
+        final Object[] args;
+        final Throwable thrown;
+
+        LogRecord(long epochNanos, LogLevel level, String message, Object[] args, Throwable thrown) {
+            this.epochNanos = epochNanos;
+            this.level = level;
+            this.message = message;
+            this.args = args;
+            this.thrown = thrown;
+        }
+
+        String text() {
+            return (args == null) ? message : format(message, args);
+        }
+    }
+
+    // Single consumer: formats a batch of records into text and appends it with one write per file.
+    // The hourly info file and error.log stay open between batches; the info file is swapped
+    // when a record belongs to a new hour. In binary mode non-error records go to the hourly .bin
+    // file unformatted.
+    private final class AsyncWriter implements Runnable {
+        private final boolean binary;
+        private final Charset charset = Charset.defaultCharset();
+        private final String newline = System.lineSeparator();
+        private final StringBuilder infoText = new StringBuilder(64 * 1024);
+        private final StringBuilder errorText = new StringBuilder(4 * 1024);
+
+        private FileChannel infoChannel;
+        private String infoHour;
+        private FileChannel errorChannel;
+        private BinaryLogWriter binaryLog;
+
+        AsyncWriter(boolean binary) {
+            this.binary = binary;
+        }
+
+        // timestamp cache: records within the same second share the formatted text
+        private long cachedSecond = Long.MIN_VALUE;
+        private String cachedTime;
+        private String cachedHour;
+
+        @Override
+        public void run() {
+            LogRingBuffer<LogRecord> q = queue;
+            try {
+                while (true) {
+                    int n = drain(q);
+                    if (n == 0) {
+                        if (stopping) {
+                            // producers may still be finishing an offer that started before `stopping`
+                            if (drain(q) == 0 && written == q.claimed()) break;
+                            continue;
+                        }
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    }
+                }
+            } finally {
+                close(infoChannel);
+                close(errorChannel);
+                closeBinary();
+            }
+        }
+
+        private int drain(LogRingBuffer<LogRecord> q) {
+            int n = 0;
+            LogRecord r;
+            while (n < MAX_BATCH && (r = q.poll()) != null) {
+                append(r);
+                n++;
+            }
+            if (n > 0) {
+                writeOut();
+                written += n;
+            }
+            return n;
+        }
+
+        private void append(LogRecord r) {
+            long second = Math.floorDiv(r.epochNanos, 1_000_000_000L);
+            if (second != cachedSecond) {
+                LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault());
+                cachedSecond = second;
+                cachedTime = time.format(TIME_FORMAT);
+                cachedHour = time.format(FILE_FORMAT);
+            }
+
+            if (r.level == LogLevel.ERROR) {
+                errorText.append('[').append(cachedTime).append("] ERROR: ").append(r.text()).append(newline);
+                if (r.thrown != null) {
+                    StringWriter trace = new StringWriter();
+                    r.thrown.printStackTrace(new PrintWriter(trace));
+                    errorText.append(trace);
+                }
+                return;
+            }
+
+            if (binary) {
+                appendBinary(r);
+                return;
+            }
+
+            if (!cachedHour.equals(infoHour)) {
+                writeOut();                     // earlier records belong to the previous hour's file
+                close(infoChannel);
+                infoChannel = open("log_" + cachedHour + ".log");
+                infoHour = cachedHour;
+            }
+            infoText.append('[').append(cachedTime).append("] ").append(r.level.linePrefix()).append(r.text()).append(newline);
+        }
+
+        private void appendBinary(LogRecord r) {
+            try {
+                if (!cachedHour.equals(infoHour)) {
+                    closeBinary();
+                    new File(logDir).mkdirs();
+                    binaryLog = new BinaryLogWriter(Paths.get(logDir, "log_" + cachedHour + ".bin"));
+                    infoHour = cachedHour;
+                }
+                binaryLog.write(r.level, r.epochNanos, r.message, r.args);
+            } catch (IOException | RuntimeException e) {
+                // last fallback – don't crash app
+                e.printStackTrace();
+            }
+        }
+
+        private void closeBinary() {
+            if (binaryLog == null) return;
+            try {
+                binaryLog.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            binaryLog = null;
+            infoHour = null;
+        }
+
+        private void writeOut() {
+            if (infoText.length() > 0) {
+                write(infoChannel, infoText);
+            }
+            if (errorText.length() > 0) {
+                if (errorChannel == null) {
+                    errorChannel = open(ERROR_FILE);
+                }
+                write(errorChannel, errorText);
+            }
+        }
+
+        private void write(FileChannel channel, StringBuilder text) {
+            try {
+                if (channel != null) {
+                    ByteBuffer bytes = charset.encode(CharBuffer.wrap(text));
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                }
+            } catch (IOException e) {
+                // last fallback – don't crash app
+                e.printStackTrace();
+            } finally {
+                text.setLength(0);
+            }
+        }
+
+        private FileChannel open(String fileName) {
+            try {
+                new File(logDir).mkdirs();
+                return FileChannel.open(Paths.get(logDir, fileName),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+
+        private void close(FileChannel channel) {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
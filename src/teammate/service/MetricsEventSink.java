@@ -0,0 +1,39 @@
+package teammate.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Counts events per key without building their text, e.g. how many CSV warnings a load produced.
+public class MetricsEventSink implements EventSink {
+
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void emit(String event, String message) {
+        counts.computeIfAbsent(event, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void emit(String event, Supplier<String> message) {
+        counts.computeIfAbsent(event, k -> new LongAdder()).increment();
+    }
+
+    public long count(String event) {
+        LongAdder adder = counts.get(event);
+        return (adder == null) ? 0 : adder.sum();
+    }
+
+    // event -> count, sorted by event key
+    public Map<String, Long> snapshot() {
+        Map<String, Long> out = new TreeMap<>();
+        counts.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+}
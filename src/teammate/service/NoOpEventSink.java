@@ -0,0 +1,20 @@
+package teammate.service;
+
+import java.util.function.Supplier;
+
+// Ignores all events without building their text – for headless runs.
+public final class NoOpEventSink implements EventSink {
+
+    static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    private NoOpEventSink() {
+    }
+
+    @Override
+    public void emit(String event, String message) {
+    }
+
+    @Override
+    public void emit(String event, Supplier<String> message) {
+    }
+}
@@ -1,18 +1,15 @@
 package teammate.service;
 
+import teammate.model.AttributeDictionary;
 import teammate.model.Participant;
 
 import java.util.*;
 
 public class ParticipantSurveyService {
 
-    public static final String[] ROLE_OPTIONS = {
-            "Strategist", "Attacker", "Defender", "Supporter", "Coordinator"
-    };
+    public static final String[] ROLE_OPTIONS = AttributeDictionary.SURVEY_ROLES.toArray(new String[0]);
 
-    public static final String[] GAME_OPTIONS = {
-            "Valorant", "DOTA 2", "FIFA", "Basketball", "Badminton", "Chess", "CS:GO"
-    };
+    public static final String[] GAME_OPTIONS = AttributeDictionary.SURVEY_GAMES.toArray(new String[0]);
 
     // 5 questions text
     private static final String[] QUESTIONS = {
@@ -148,6 +145,7 @@ public class ParticipantSurveyService {
         p.setRole(role);
         p.setPersonalityScore(personalityScore);
         p.setPersonalityType(personalityType);
+        authService.markAccountChanged(p);
         // [SURV 2.5] Display updated profile(game, role, skill, type)
         System.out.println("Updated profile: " + p.getName()
                 + " | " + game + " | Skill " + skillLevel
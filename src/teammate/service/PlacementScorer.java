@@ -0,0 +1,29 @@
+package teammate.service;
+
+import teammate.model.Team;
+
+// Scores adding one participant to a team during greedy formation (higher is better).
+// Called once per (participant, candidate team) probe, so implementations must be O(1) and
+// allocation-free: the team side comes from Team's running aggregates, the participant side from
+// its attribute codes (see AttributeDictionary).
+public interface PlacementScorer {
+
+    int score(Team t, int skill, int game, int role, int type, double globalAvgSkill);
+
+    // upper bound of score() for a participant of this personality type; a team reaching it cannot
+    // be beaten, which lets team selection stop early
+    int maxScore(int type);
+
+    // upper bound of score() over every team with these aggregates, whatever its games and roles,
+    // when the team's average after the add would be skillGap = |globalAvgSkill - newAvg| away.
+    // Must not grow with skillGap: team selection visits candidate buckets in order of this bound
+    // and stops once it cannot beat the best team found. The default (no pruning) is always safe.
+    default int maxScore(int type, int size, int distinctRoles, int leaders, int thinkers, double skillGap) {
+        return maxScore(type);
+    }
+
+    // today's hard-coded rules
+    static PlacementScorer standard() {
+        return DefaultPlacementScorer.INSTANCE;
+    }
+}
@@ -0,0 +1,54 @@
+package teammate.service;
+
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+// Outcome of an exact (branch and bound) formation run: the best teams found, their objective and
+// the lower bound the search proved for every assignment it did not finish exploring.
+public class SolverResult {
+
+    private final ArrayList<Team> teams;
+    private final double objective;
+    private final double lowerBound;
+    private final boolean optimal;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    public SolverResult(ArrayList<Team> teams, double objective, double lowerBound,
+                        boolean optimal, long nodes, long elapsedMillis) {
+        this.teams = teams;
+        this.objective = objective;
+        this.lowerBound = lowerBound;
+        this.optimal = optimal;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public ArrayList<Team> getTeams() { return teams; }
+    // FormationObjective of getTeams() (lower is better)
+    public double getObjective() { return objective; }
+    // no assignment with the same team count and size limits scores below this
+    public double getLowerBound() { return lowerBound; }
+    // true when the search finished (or every unexplored branch was bounded out): gap is 0
+    public boolean isOptimal() { return optimal; }
+    public long getNodes() { return nodes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public double getGap() {
+        return optimal ? 0.0 : Math.max(0.0, objective - lowerBound);
+    }
+
+    // gap as a fraction of the objective (0 when the objective is 0)
+    public double getRelativeGap() {
+        return (objective <= 0.0) ? 0.0 : getGap() / objective;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "objective=%.4f, lowerBound=%.4f, gap=%.2f%%, optimal=%s, nodes=%d, %d ms",
+                objective, lowerBound, getRelativeGap() * 100.0, optimal, nodes, elapsedMillis);
+    }
+}
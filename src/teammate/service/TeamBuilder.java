@@ -1,143 +1,116 @@
 package teammate.service;
 
 import teammate.model.Participant;
+import teammate.model.ParticipantStore;
 import teammate.model.Team;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
 
 // Builds balanced teams using game, role, personality, and skill constraints, and fixes uneven team sizes.
 
 public class TeamBuilder {
 
     // === CONFIGURABLE CONSTRAINTS for SMART MODE ===
-    private static final int MAX_PER_GAME_PER_TEAM   = 2;  // cap: same game per team
-    private static final int MIN_DISTINCT_ROLES      = 3;  // at least 3 different roles per team
-    private static final int MAX_LEADERS_PER_TEAM    = 2;  // soft max
-    private static final int MAX_THINKERS_PER_TEAM   = 3;  // soft max
+    static final int MAX_PER_GAME_PER_TEAM   = 2;  // cap: same game per team
+    static final int MIN_DISTINCT_ROLES      = 3;  // at least 3 different roles per team
+    static final int MAX_LEADERS_PER_TEAM    = 2;  // soft max
+    static final int MAX_THINKERS_PER_TEAM   = 3;  // soft max
+
+    // local-search moves on the greedy start of an exact run (cheap next to the search itself)
+    private static final long EXACT_START_ITERATIONS = 20_000;
+
+    // where progress/status messages go (console unless the caller wants something else)
+    private final EventSink events;
+    // placement rules (the built-in ones unless an event supplies its own weights)
+    private final PlacementScorer scorer;
+
+    public TeamBuilder() {
+        this(EventSink.console());
+    }
+
+    public TeamBuilder(EventSink events) {
+        this(events, PlacementScorer.standard());
+    }
+
+    public TeamBuilder(EventSink events, PlacementScorer scorer) {
+        this.events = events;
+        this.scorer = (scorer == null) ? PlacementScorer.standard() : scorer;
+    }
+
+    public PlacementScorer getScorer() { return scorer; }
 
     // ================== MODE: SMART / BALANCED TEAMS ==================
     // [FORM 2.2] buildTeams
     public ArrayList<Team> buildTeams(ArrayList<Participant> participants,
                                       int teamSize,
                                       LoggerService logger) {
+        return buildTeams(participants, teamSize, logger, new SplittableRandom());
+    }
+
+    // Seeded variant: the same participants, teamSize and generator state always give the same teams
+    // (same team order, same member order), e.g. buildTeams(list, 4, logger, new SplittableRandom(42)).
+    public ArrayList<Team> buildTeams(ArrayList<Participant> participants,
+                                      int teamSize,
+                                      LoggerService logger,
+                                      RandomGenerator random) {
+        ParticipantStore store = (participants == null) ? new ParticipantStore() : ParticipantStore.of(participants);
+        return buildTeams(store, teamSize, logger, random);
+    }
+
+    public ArrayList<Team> buildTeams(ParticipantStore participants,
+                                      int teamSize,
+                                      LoggerService logger) {
+        return buildTeams(participants, teamSize, logger, new SplittableRandom());
+    }
+
+    // Columnar variant: the placement loop reads only the store's primitive columns;
+    // Participant objects are touched only when a row is added to its chosen Team.
+    public ArrayList<Team> buildTeams(ParticipantStore participants,
+                                      int teamSize,
+                                      LoggerService logger,
+                                      RandomGenerator random) {
 
         ArrayList<Team> teams = new ArrayList<>();
         try {
             // [FORM 2.2.1] Teambuilder runs successfully
             if (participants == null || participants.isEmpty()) {
             logger.info("TeamBuilder: no participants available to build teams.");
-            System.out.println("TeamBuilder: no participants available to build teams.");
+            events.emit("formation.empty", "TeamBuilder: no participants available to build teams.");
             return teams;   // return empty team list
             }
 
             logger.info("TeamBuilder: building teams. participants=" + participants.size()
                     + ", teamSize=" + teamSize);    // Log start of team building with size and teamSize
-            System.out.println("TeamBuilder: building teams. participants=" + participants.size() + ", teamSize=" + teamSize);
-
-            // ----- how many teams? -----
-            // [FORM 2.2.1.1] calculate number of teams and create Team objects
-            int teamCount = (int) Math.ceil((double) participants.size() / teamSize);
-            for (int i = 1; i <= teamCount; i++) {
-                teams.add(new Team("Team " + i));
-            }
-
-            // ----- prepare participants list -----
-            // [FORM 2.2.1.2] shuffle and sort participants by skill (high → low)
-            Collections.shuffle(participants);
-            participants.sort((a, b) -> Integer.compare(b.getSkillLevel(), a.getSkillLevel()));
+            events.emit("formation.start", "TeamBuilder: building teams. participants=" + participants.size() + ", teamSize=" + teamSize);
 
             // global average skill
             // [FORM 2.2.1.3] compute global average skill
-            int totalSkill = 0;
-            for (Participant p : participants) {
-                totalSkill += p.getSkillLevel();
-            }
-            double globalAvgSkill = (participants.isEmpty()) ? 0.0 :
-                    (double) totalSkill / participants.size();
+            double globalAvgSkill = (double) participants.totalSkill() / participants.size();
 
             logger.info("TeamBuilder: global average skill=" + globalAvgSkill);
-            System.out.println("TeamBuilder: global average skill=" + globalAvgSkill);
-
-            // ----- assign each participant to best team (heuristic scoring) -----
-            // [FORM 2.2.1.4] For each participant p, loop over participants and assign to best team using evaluatePlacementScore()
-            for (Participant p : participants) {
-
-                Team bestTeam = null;
-                int bestScore = Integer.MIN_VALUE;
-
-                List<Team> shuffledTeams = new ArrayList<>(teams);
-                Collections.shuffle(shuffledTeams);
-
-                for (Team t : shuffledTeams) {
-                    if (t.getMembers().size() >= teamSize) {
-                        continue; // team already full
-                    }
-                    // [FORM 2.2.1.4.1] Evaluate Placement Score
-                    int score = evaluatePlacementScore(t, p, globalAvgSkill);
-
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestTeam = t;
-                    }
-                }
-
-                // if no best team found (all full), fallback to smallest team
-                if (bestTeam == null) {
-                    bestTeam = findSmallestTeam(teams, teamSize);
-                }
+            events.emit("formation.average", "TeamBuilder: global average skill=" + globalAvgSkill);
 
-                // [FORM 2.2.1.4.2] add participant to chosen team
-                bestTeam.addMember(p);
-            }
+            // [FORM 2.2.1.1 - 2.2.1.4] one greedy placement pass
+            teams = runPass(participants, teamSize, globalAvgSkill, random);
 
             // ensure all teams have at least 3 members
             // [FORM 2.2.1.5] ensureMinTeamSize() to fix very small teams
             ensureMinTeamSize(teams, 3, logger);
 
-            // ----- logging summary -----
             // [FORM 2.2.1.6] Log final team summaries
-            logger.info("TeamBuilder: created " + teams.size() + " teams.");
-            System.out.println("TeamBuilder: created " + teams.size() + " teams.");
-
-            for (Team t : teams) {
-                int size = t.getMembers().size();
-                int leaders = countTypeInTeam(t, "Leader");
-                int thinkers = countTypeInTeam(t, "Thinker");
-                int balanced = size - leaders - thinkers;
-
-                Set<String> games = distinctGamesInTeam(t);
-                Set<String> roles = distinctRolesInTeam(t);
-
-                double avgSkill = averageSkill(t);
-
-                // log per-team composition (size, avgSkill, roles, personalities)
-                logger.info("Team summary: " + t.getTeamName()
-                        + " | size=" + size
-                        + " | avgSkill=" + avgSkill
-                        + " | games=" + games.size()
-                        + " | roles=" + roles.size()
-                        + " | leaders=" + leaders
-                        + " | thinkers=" + thinkers
-                        + " | balanced=" + balanced);
-                // [FORM 2.2.1.7] Return final teams list
-                System.out.println("Team summary: " + t.getTeamName()
-                        + " | size=" + size
-                        + " | avgSkill=" + avgSkill
-                        + " | games=" + games.size()
-                        + " | roles=" + roles.size()
-                        + " | leaders=" + leaders
-                        + " | thinkers=" + thinkers
-                        + " | balanced=" + balanced);
-            }
+            logTeamSummaries(teams, logger);
         } catch (Exception e) {
             // [FORM 2.2.2] Exception inside team builder
                 // [FORM 2.2.2.1] catch any unexpected errors in team building
                 logger.error("TeamBuilder FAILED: " + e.getMessage(), e);
-                System.out.println("Error occurred during team formation: " + e.getMessage());
+                events.emit("formation.error", "Error occurred during team formation: " + e.getMessage());
 
                 // [FORM 2.2.2.2] fail-safe empty list
                 return new ArrayList<>();
@@ -146,76 +119,236 @@ public class TeamBuilder {
         return teams;
     }
 
-    // ==============================================================
-    //                SCORING HEURISTIC FOR PLACEMENT
-    // ==============================================================
-    private int evaluatePlacementScore(Team t, Participant p, double globalAvgSkill) {
+    // ================== MODE: MULTI-START (BEST OF K) ==================
+    // Runs `starts` independent seeded greedy passes in parallel on the common ForkJoinPool,
+    // scores each complete assignment with FormationObjective and returns the lowest-scoring one.
+    // Each pass gets its own generator split from SplittableRandom(seed), and ties go to the lower
+    // pass number, so the same seed always gives the same result regardless of thread scheduling.
+    public ArrayList<Team> buildTeamsBestOf(ParticipantStore participants,
+                                            int teamSize,
+                                            int starts,
+                                            long seed,
+                                            LoggerService logger) {
         try {
-            int score = 0;
-
-            // ---------- 1. Game diversity ----------
-            String game = safeLower(p.getPreferredGame());
-            int sameGameCount = countGameInTeam(t, game);
+            if (participants == null || participants.isEmpty()) {
+                logger.info("TeamBuilder: no participants available to build teams.");
+                events.emit("formation.empty", "TeamBuilder: no participants available to build teams.");
+                return new ArrayList<>();
+            }
+            int k = Math.max(1, starts);
+
+            logger.info("TeamBuilder: multi-start formation. participants=" + participants.size()
+                    + ", teamSize=" + teamSize + ", starts=" + k);
+            events.emit("formation.start", "TeamBuilder: multi-start formation. participants=" + participants.size()
+                    + ", teamSize=" + teamSize + ", starts=" + k);
+
+            double globalAvgSkill = (double) participants.totalSkill() / participants.size();
+
+            SplittableRandom root = new SplittableRandom(seed);
+            List<Callable<ArrayList<Team>>> passes = new ArrayList<>();
+            for (int i = 0; i < k; i++) {
+                SplittableRandom passRandom = root.split();
+                passes.add(() -> {
+                    ArrayList<Team> result = runPass(participants, teamSize, globalAvgSkill, passRandom);
+                    ensureMinTeamSize(result, 3, logger, false);
+                    return result;
+                });
+            }
 
-            if (sameGameCount >= MAX_PER_GAME_PER_TEAM) {
-                score -= 1000; // hard penalty if limit exceeded
-            } else {
-                score += (MAX_PER_GAME_PER_TEAM - sameGameCount) * 5;    // reward more variety
+            List<Future<ArrayList<Team>>> results = ForkJoinPool.commonPool().invokeAll(passes);
+
+            ArrayList<Team> best = null;
+            double bestObjective = Double.MAX_VALUE;
+            int bestPass = -1;
+            for (int i = 0; i < results.size(); i++) {
+                ArrayList<Team> candidate = results.get(i).get();
+                double objective = FormationObjective.evaluate(candidate, globalAvgSkill);
+                if (objective < bestObjective) {
+                    bestObjective = objective;
+                    best = candidate;
+                    bestPass = i;
+                }
             }
 
-            // ---------- 2. Role variety ----------
-            String role = safeLower(p.getRole());
-            Set<String> currentRoles = distinctRolesInTeam(t);
-            boolean roleAlreadyExists = currentRoles.contains(role);
+            logger.info("TeamBuilder: best pass=" + bestPass + " of " + k + ", objective=" + bestObjective);
+            events.emit("formation.best", "TeamBuilder: best pass=" + bestPass + " of " + k + ", objective=" + bestObjective);
 
-            int effectiveMinRoles = Math.min(MIN_DISTINCT_ROLES, t.getMembers().size() + 1);
+            logTeamSummaries(best, logger);
+            return best;
+        } catch (Exception e) {
+            logger.error("TeamBuilder multi-start FAILED: " + e.getMessage(), e);
+            events.emit("formation.error", "Error occurred during team formation: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            if (!roleAlreadyExists && currentRoles.size() < effectiveMinRoles) {
-                score += 15;    // strong reward for new role up to target
-            } else if (!roleAlreadyExists) {
-                score += 5;
-            } else {
-                score += 1;
+    // ================== MODE: EXACT (SMALL EVENTS) ==================
+    // Branch and bound (ExactTeamSolver) for up to ExactTeamSolver.MAX_PARTICIPANTS participants.
+    // A greedy pass + local search is the starting incumbent, so the result is never worse than it;
+    // after timeLimitMillis the best teams found are returned with the proven gap to the optimum.
+    public SolverResult buildTeamsExact(ArrayList<Participant> participants,
+                                        int teamSize,
+                                        long timeLimitMillis,
+                                        LoggerService logger,
+                                        RandomGenerator random) {
+        try {
+            if (participants == null || participants.isEmpty()) {
+                logger.info("TeamBuilder: no participants available to build teams.");
+                events.emit("formation.empty", "TeamBuilder: no participants available to build teams.");
+                return new SolverResult(new ArrayList<>(), 0.0, 0.0, true, 0, 0);
             }
+            logger.info("TeamBuilder: exact formation. participants=" + participants.size()
+                    + ", teamSize=" + teamSize + ", timeLimitMillis=" + timeLimitMillis);
+            events.emit("formation.start", "TeamBuilder: exact formation. participants=" + participants.size()
+                    + ", teamSize=" + teamSize + ", time limit " + timeLimitMillis + " ms");
+
+            ParticipantStore store = ParticipantStore.of(participants);
+            ArrayList<Team> start = runPass(store, teamSize, (double) store.totalSkill() / store.size(), random);
+            ensureMinTeamSize(start, 3, logger, false);
+            new TeamOptimizer(random).improve(start, teamSize, 3, 0, EXACT_START_ITERATIONS);
+
+            SolverResult result = new ExactTeamSolver().solve(participants, teamSize, start, timeLimitMillis);
+
+            logger.info("TeamBuilder: exact search " + result);
+            events.emit("formation.best", "TeamBuilder: exact search " + result);
+            logTeamSummaries(result.getTeams(), logger);
+            return result;
+        } catch (Exception e) {
+            logger.error("TeamBuilder exact formation FAILED: " + e.getMessage(), e);
+            events.emit("formation.error", "Error occurred during team formation: " + e.getMessage());
+            return new SolverResult(new ArrayList<>(), 0.0, 0.0, false, 0, 0);
+        }
+    }
 
-            // ---------- 3. Personality mix ----------
-            String type = p.getPersonalityType() == null ? "" : p.getPersonalityType();
-            int leaders = countTypeInTeam(t, "Leader");
-            int thinkers = countTypeInTeam(t, "Thinker");
+    // ================== OPTIONAL LOCAL-SEARCH POST-PASS ==================
+    // Runs TeamOptimizer swaps/moves on already formed teams (sizes stay between 3 and teamSize).
+    // Bounded by whichever budget runs out first; 0 disables that budget.
+    public void improveTeams(List<Team> teams, int teamSize,
+                             long timeBudgetMillis, long maxIterations,
+                             LoggerService logger) {
+        improveTeams(teams, teamSize, timeBudgetMillis, maxIterations, logger, new SplittableRandom());
+    }
 
-            if (type.equalsIgnoreCase("Leader")) {
-                if (leaders >= MAX_LEADERS_PER_TEAM) {
-                    score -= 400;   // penalty if too many leaders
-                } else {
-                    score += (MAX_LEADERS_PER_TEAM - leaders) * 10;  // reward
-                }
-            } else if (type.equalsIgnoreCase("Thinker")) {
-                if (thinkers >= MAX_THINKERS_PER_TEAM) {
-                    score -= 250;    // penalty if too many thinkers
-                } else {
-                    score += (MAX_THINKERS_PER_TEAM - thinkers) * 6;    // reward
-                }
-            } else {
-                score += 4; // Balanced
-                // small boost for "Balanced"
+    // Reproducible only with an iteration budget: a time budget makes the number of tried moves vary.
+    public void improveTeams(List<Team> teams, int teamSize,
+                             long timeBudgetMillis, long maxIterations,
+                             LoggerService logger, RandomGenerator random) {
+        try {
+            if (teams == null || teams.size() < 2) {
+                return;
             }
+            double globalAvgSkill = globalAverageSkill(teams);
+            double before = FormationObjective.evaluate(teams, globalAvgSkill);
+            long start = System.nanoTime();
+
+            int accepted = new TeamOptimizer(random)
+                    .improve(teams, teamSize, 3, timeBudgetMillis, maxIterations);
+
+            double after = FormationObjective.evaluate(teams, globalAvgSkill);
+            long tookMillis = (System.nanoTime() - start) / 1_000_000L;
+            logger.info("TeamBuilder: local search accepted=" + accepted
+                    + ", objective " + before + " -> " + after + " in " + tookMillis + " ms");
+            events.emit("formation.improve", "TeamBuilder: local search accepted=" + accepted
+                    + ", objective " + before + " -> " + after + " in " + tookMillis + " ms");
+        } catch (Exception e) {
+            logger.error("TeamBuilder local search FAILED: " + e.getMessage(), e);
+            events.emit("formation.error", "Error while improving teams: " + e.getMessage());
+        }
+    }
+
+    private double globalAverageSkill(List<Team> teams) {
+        long skillSum = 0;
+        int members = 0;
+        for (Team t : teams) {
+            skillSum += t.getSkillSum();
+            members += t.size();
+        }
+        return (members == 0) ? 0.0 : (double) skillSum / members;
+    }
 
-            // ---------- 4. Skill balancing ----------
-            double teamSkillSum = 0;
-            for (Participant member : t.getMembers()) {
-                teamSkillSum += member.getSkillLevel();
+    // One greedy placement pass. Silent and self-contained (own generator, own Team objects),
+    // so several passes can run on different threads over the same read-only store.
+    private ArrayList<Team> runPass(ParticipantStore participants, int teamSize,
+                                    double globalAvgSkill, RandomGenerator rnd) {
+        // ----- how many teams? -----
+        // [FORM 2.2.1.1] calculate number of teams and create Team objects
+        ArrayList<Team> teams = new ArrayList<>();
+        int teamCount = (int) Math.ceil((double) participants.size() / teamSize);
+        for (int i = 1; i <= teamCount; i++) {
+            teams.add(new Team("Team " + i));
+        }
+        TeamCandidateIndex index = new TeamCandidateIndex(teams, teamSize);
+
+        // ----- prepare participant order -----
+        // [FORM 2.2.1.2] shuffle and sort participants by skill (high → low)
+        int[] order = shuffledBySkillDesc(participants, rnd);
+
+        // ----- assign each participant to best team (heuristic scoring) -----
+        // [FORM 2.2.1.4] For each participant p, loop over participants and assign to best team using evaluatePlacementScore()
+        for (int i : order) {
+            int skill = participants.skill(i);
+            int game = participants.gameCode(i);
+            int role = participants.roleCode(i);
+            int type = participants.personality(i);
+
+            // [FORM 2.2.1.4.1] Evaluate Placement Score over candidate teams
+            int bestTeam = selectBestTeam(index, teams, skill, game, role, type, globalAvgSkill, rnd);
+
+            // if no best team found (all full), fallback to smallest team
+            if (bestTeam < 0) {
+                bestTeam = findSmallestTeam(index);
             }
-            int futureSize = t.getMembers().size() + 1;
-            double newAvg = (futureSize == 0) ? globalAvgSkill
-                    : (teamSkillSum + p.getSkillLevel()) / futureSize;
 
-            double diff = Math.abs(globalAvgSkill - newAvg);
-            score -= (int) (diff * 2);
+            // [FORM 2.2.1.4.2] add participant to chosen team
+            teams.get(bestTeam).addMember(participants.participant(i));
+            index.memberAdded(bestTeam);
+        }
+        return teams;
+    }
+
+    // ----- logging summary -----
+    private void logTeamSummaries(List<Team> teams, LoggerService logger) {
+        logger.info("TeamBuilder: created " + teams.size() + " teams.");
+        events.emit("formation.teams", "TeamBuilder: created " + teams.size() + " teams.");
+
+        for (Team t : teams) {
+            int size = t.size();
+            int leaders = t.getLeaderCount();
+            int thinkers = t.getThinkerCount();
+            int balanced = size - leaders - thinkers;
+
+            int games = t.getDistinctGameCount();
+            int roles = t.getDistinctRoleCount();
+
+            double avgSkill = t.getAverageSkill();
+
+            // log per-team composition (size, avgSkill, roles, personalities)
+            logger.info("Team summary: {} | size={} | avgSkill={} | games={} | roles={} | leaders={} | thinkers={} | balanced={}",
+                    t.getTeamName(), size, avgSkill, games, roles, leaders, thinkers, balanced);
+            // [FORM 2.2.1.7] Return final teams list
+            events.emit("team.summary", () -> "Team summary: " + t.getTeamName()
+                    + " | size=" + size
+                    + " | avgSkill=" + avgSkill
+                    + " | games=" + games
+                    + " | roles=" + roles
+                    + " | leaders=" + leaders
+                    + " | thinkers=" + thinkers
+                    + " | balanced=" + balanced);
+        }
+    }
 
-            return score;
+    // ==============================================================
+    //                SCORING HEURISTIC FOR PLACEMENT
+    // ==============================================================
+    // Delegates to the PlacementScorer. All team-side inputs come from Team's running aggregates and
+    // the participant's attribute codes, so a probe is O(1), allocation-free and does no string work.
+    int evaluatePlacementScore(Team t, int skill, int game, int role, int type,
+                               double globalAvgSkill) {
+        try {
+            return scorer.score(t, skill, game, role, type, globalAvgSkill);
         } catch (Exception e) {
-            LoggerService.getInstance().error("evaluatePlacementScore FAILED for participant=" + p.getName(), e);
-            System.out.println("TeamBuilder FAILED: " + e.getMessage());
+            LoggerService.getInstance().error("evaluatePlacementScore FAILED for team=" + t.getTeamName(), e);
+            events.emit("formation.error", "TeamBuilder FAILED: " + e.getMessage());
             return 0; // fallback
         }
     }
@@ -224,133 +357,225 @@ public class TeamBuilder {
     //                    HELPER METHODS
     // ==============================================================
 
-    private Team findSmallestTeam(List<Team> teams, int teamSize) {
-        Team best = null;
-        int minSize = Integer.MAX_VALUE;
-        for (Team t : teams) {
-            int size = t.getMembers().size();
-            if (size < teamSize && size < minSize) {
-                minSize = size;
-                best = t;
-            }
+    // Row indices of the store, shuffled then stable-sorted by skill (high -> low) so equal skills
+    // keep a random order. Packs (-skill, shuffled position) into longs and sorts primitives.
+    private int[] shuffledBySkillDesc(ParticipantStore store, RandomGenerator random) {
+        int n = store.size();
+        int[] shuffled = new int[n];
+        for (int i = 0; i < n; i++) {
+            shuffled[i] = i;
         }
-        if (best == null && !teams.isEmpty()) {
-            best = teams.get(0);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = tmp;
         }
-        return best;
-    }
 
-    private String safeLower(String s) {
-        return (s == null) ? "" : s.trim().toLowerCase();
-    }
+        long[] keys = new long[n];
+        for (int pos = 0; pos < n; pos++) {
+            keys[pos] = (-(long) store.skill(shuffled[pos]) << 32) | pos;
+        }
+        Arrays.sort(keys);
 
-    private int countGameInTeam(Team team, String gameLower) {
-        if (gameLower == null) return 0;
-        int count = 0;
-        for (Participant p : team.getMembers()) {
-            if (p.getPreferredGame() != null &&
-                    p.getPreferredGame().trim().equalsIgnoreCase(gameLower)) {
-                count++;
-            }
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = shuffled[(int) keys[k]];
         }
-        return count;
+        return order;
     }
 
-    private Set<String> distinctGamesInTeam(Team team) {
-        Set<String> games = new HashSet<>();
-        for (Participant p : team.getMembers()) {
-            if (p.getPreferredGame() != null && !p.getPreferredGame().trim().isEmpty()) {
-                games.add(safeLower(p.getPreferredGame()));
+    // Picks the best-scoring open team for one participant; returns its position in teams, or -1 if all are full.
+    // Instead of copying, shuffling and scoring every team:
+    //  - one representative for all empty teams (they score identically), weighted by how many there are;
+    //  - partially filled teams come from the index's buckets (same size, roles, leaders, thinkers),
+    //    visited in descending order of the scorer's bound for the bucket's best skill sum. Inside a
+    //    bucket, cells are walked outward from the skill sum that would hit the global average, so
+    //    bounds only fall; a bucket or cell whose bound cannot beat the best score so far is skipped
+    //    unprobed, which leaves the result the same as scoring every team;
+    //  - buckets with equal bounds are taken from a random start, cells are scanned from a random
+    //    position and ties use reservoir sampling, so tie-breaking stays random like the old shuffle.
+    int selectBestTeam(TeamCandidateIndex index, List<Team> teams,
+                       int skill, int game, int role, int type, double globalAvgSkill,
+                       RandomGenerator random) {
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        int tieWeight = 0;
+
+        int emptyCount = index.emptyCount();
+        if (emptyCount > 0) {
+            best = index.emptyTeam(random.nextInt(emptyCount));
+            bestScore = evaluatePlacementScore(teams.get(best), skill, game, role, type, globalAvgSkill);
+            tieWeight = emptyCount;
+            if (bestScore >= maxPlacementScore(type)) {
+                return best;
             }
         }
-        return games;
-    }
 
-    private Set<String> distinctRolesInTeam(Team team) {
-        Set<String> roles = new HashSet<>();
-        for (Participant p : team.getMembers()) {
-            if (p.getRole() != null && !p.getRole().trim().isEmpty()) {
-                roles.add(safeLower(p.getRole()));
-            }
+        // order buckets by bound (high -> low), equal bounds in rotation from a random start
+        int n = index.bucketCount();
+        long[] order = index.scratch(n);
+        int start = (n == 0) ? 0 : random.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int b = (start + k) % n;
+            TeamCandidateIndex.Bucket bucket = index.bucket(b);
+            int centre = centreSkillSum(bucket, skill, globalAvgSkill);
+            int bound = Math.max(
+                    cellBound(bucket, bucket.atOrBelow(centre), skill, type, globalAvgSkill),
+                    cellBound(bucket, bucket.above(centre), skill, type, globalAvgSkill));
+            order[k] = (-(long) bound << 32) | b;
         }
-        return roles;
-    }
+        Arrays.sort(order, 0, n);
+
+        for (int k = 0; k < n; k++) {
+            TeamCandidateIndex.Bucket bucket = index.bucket((int) order[k]);
+            if ((int) -(order[k] >> 32) <= bestScore) {
+                break; // later buckets are bounded lower still
+            }
+
+            int centre = centreSkillSum(bucket, skill, globalAvgSkill);
+            TeamCandidateIndex.Cell low = bucket.atOrBelow(centre);
+            TeamCandidateIndex.Cell high = bucket.above(centre);
+            int lowBound = cellBound(bucket, low, skill, type, globalAvgSkill);
+            int highBound = cellBound(bucket, high, skill, type, globalAvgSkill);
+
+            while (true) {
+                boolean takeLow = lowBound >= highBound;
+                TeamCandidateIndex.Cell cell = takeLow ? low : high;
+                int bound = takeLow ? lowBound : highBound;
+                if (cell == null || bound <= bestScore) {
+                    break;
+                }
+
+                int m = cell.count();
+                int from = random.nextInt(m);
+                for (int j = 0; j < m; j++) {
+                    int t = cell.team((from + j) % m);
+                    int score = evaluatePlacementScore(teams.get(t), skill, game, role, type, globalAvgSkill);
+
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = t;
+                        tieWeight = 1;
+                    } else if (score == bestScore) {
+                        tieWeight++;
+                        if (random.nextInt(tieWeight) == 0) {
+                            best = t;
+                        }
+                    }
+                    if (bestScore >= bound) {
+                        break; // nothing left in this cell can beat it
+                    }
+                }
 
-    private int countTypeInTeam(Team team, String type) {
-        int count = 0;
-        for (Participant p : team.getMembers()) {
-            if (p.getPersonalityType() != null &&
-                    p.getPersonalityType().equalsIgnoreCase(type)) {
-                count++;
+                if (takeLow) {
+                    low = bucket.below(low);
+                    lowBound = cellBound(bucket, low, skill, type, globalAvgSkill);
+                } else {
+                    high = bucket.above(high.skillSum);
+                    highBound = cellBound(bucket, high, skill, type, globalAvgSkill);
+                }
             }
         }
-        return count;
+        return best;
     }
 
-    private double averageSkill(Team t) {
-        if (t.getMembers().isEmpty()) return 0.0;
-        int sum = 0;
-        for (Participant p : t.getMembers()) {
-            sum += p.getSkillLevel();
+    // skill sum (rounded down) at which a team of this bucket would reach the global average after the add
+    private static int centreSkillSum(TeamCandidateIndex.Bucket bucket, int skill, double globalAvgSkill) {
+        return (int) Math.floor(globalAvgSkill * (bucket.size + 1) - skill);
+    }
+
+    // highest score any team in this cell can give; Integer.MIN_VALUE when there is no cell
+    private int cellBound(TeamCandidateIndex.Bucket bucket, TeamCandidateIndex.Cell cell,
+                          int skill, int type, double globalAvgSkill) {
+        if (cell == null) {
+            return Integer.MIN_VALUE;
         }
-        return (double) sum / t.getMembers().size();
+        // same expression as the scorers' skill term, so the bound is exact for that term
+        double newAvg = (double) (cell.skillSum + skill) / (bucket.size + 1);
+        double gap = Math.abs(globalAvgSkill - newAvg);
+        return scorer.maxScore(type, bucket.size, bucket.distinctRoles, bucket.leaders, bucket.thinkers, gap);
+    }
+
+    // highest score evaluatePlacementScore can return for a participant of this personality type
+    private int maxPlacementScore(int type) {
+        return scorer.maxScore(type);
+    }
+
+    // smallest team that still has room (O(teamSize) via the size buckets); first team if all are full
+    private int findSmallestTeam(TeamCandidateIndex index) {
+        int best = index.smallestOpenTeam();
+        return (best < 0) ? 0 : best;
     }
 
     // NEW: ensure all teams have at least minSize members
-    private void ensureMinTeamSize(ArrayList<Team> teams, int minSize, LoggerService logger) {
+    void ensureMinTeamSize(ArrayList<Team> teams, int minSize, LoggerService logger) {
+        ensureMinTeamSize(teams, minSize, logger, true);
+    }
+
+    // report=false is used by the parallel multi-start passes, which must not flood the log/console
+    private void ensureMinTeamSize(ArrayList<Team> teams, int minSize, LoggerService logger, boolean report) {
         try {
             List<Team> smallTeams = new ArrayList<>();
 
             // 1) identify small teams
             // [FORM 2.2.1] detect teams with size < minSize and > 0
             for (Team t : teams) {
-                if (t.getMembers().size() > 0 && t.getMembers().size() < minSize) {
+                if (t.size() > 0 && t.size() < minSize) {
                     smallTeams.add(t);
                 }
             }
 
             if (smallTeams.isEmpty()) {
-                logger.info("TeamBuilder: no small teams to fix (minSize=" + minSize + ").");
-                System.out.println("TeamBuilder: no small teams to fix (minSize=" + minSize + ").");
+                if (report) {
+                    logger.info("TeamBuilder: no small teams to fix (minSize=" + minSize + ").");
+                    events.emit("formation.rebalance", "TeamBuilder: no small teams to fix (minSize=" + minSize + ").");
+                }
                 return; // already ok
             }
 
-            // 🔍 log which teams are small
-            for (Team st : smallTeams) {
-                logger.info("Small team detected: " + st.getTeamName()
-                        + " | size=" + st.getMembers().size());
-                System.out.println("Small team detected: " + st.getTeamName()
-                        + " | size=" + st.getMembers().size());
-            }
+            if (report) {
+                // 🔍 log which teams are small
+                for (Team st : smallTeams) {
+                    logger.info("Small team detected: " + st.getTeamName()
+                            + " | size=" + st.size());
+                    events.emit("formation.rebalance", "Small team detected: " + st.getTeamName()
+                            + " | size=" + st.size());
+                }
 
-            logger.info("TeamBuilder: fixing small teams (<" + minSize + "). Small teams=" + smallTeams.size());
-            System.out.println("TeamBuilder: fixing small teams (<" + minSize + "). Small teams=" + smallTeams.size());
+                logger.info("TeamBuilder: fixing small teams (<" + minSize + "). Small teams=" + smallTeams.size());
+                events.emit("formation.rebalance", "TeamBuilder: fixing small teams (<" + minSize + "). Small teams=" + smallTeams.size());
+            }
 
             // 2) redistribute members from small teams into other teams
             // [FORM 2.2.2] redistribute participants from each small team
             for (Team small : smallTeams) {
-                logger.info("Redistributing members from small team: " + small.getTeamName());
-                System.out.println("Redistributing members from small team: " + small.getTeamName());
+                if (report) {
+                    logger.info("Redistributing members from small team: " + small.getTeamName());
+                    events.emit("formation.rebalance", "Redistributing members from small team: " + small.getTeamName());
+                }
 
                 List<Participant> toMove = new ArrayList<>(small.getMembers());
-                small.getMembers().clear(); // clear members in this small team
+                small.clearMembers(); // clear members (and aggregates) in this small team
 
                 for (Participant p : toMove) {
                     // here exclude = 'small'
-                    Team target = findTeamWithLowestSize(teams, small);
+                    Team target = findTeamWithLowestSize(teams, small, report && logger.isDebugEnabled());
 
                     if (target != null) {
-                        logger.info("Moving participant " + p.getName()
-                                + " from " + small.getTeamName()
-                                + " to " + target.getTeamName());
-                        System.out.println("Moving participant " + p.getName()
-                                + " from " + small.getTeamName()
-                                + " to " + target.getTeamName());
+                        // per-participant detail: DEBUG only
+                        if (report && logger.isDebugEnabled()) {
+                            logger.debug("Moving participant {} from {} to {}",
+                                    p.getName(), small.getTeamName(), target.getTeamName());
+                            events.emit("formation.move", () -> "Moving participant " + p.getName()
+                                    + " from " + small.getTeamName()
+                                    + " to " + target.getTeamName());
+                        }
                         target.addMember(p);
                     } else {
                         logger.error("No target team found for " + p.getName()
                                 + " from " + small.getTeamName());
-                        System.out.println("No target team found for " + p.getName()
+                        events.emit("formation.error", "No target team found for " + p.getName()
                                 + " from " + small.getTeamName());
                     }
                 }
@@ -358,26 +583,30 @@ public class TeamBuilder {
 
             // 3) remove teams that ended up empty
             // [FORM 2.2.3] remove empty teams and log final count
-            teams.removeIf(t -> t.getMembers().isEmpty());
-            logger.info("TeamBuilder: after fixing, totalTeams=" + teams.size());
-            System.out.println("TeamBuilder: after fixing, totalTeams=" + teams.size());
+            teams.removeIf(t -> t.size() == 0);
+            if (report) {
+                logger.info("TeamBuilder: after fixing, totalTeams=" + teams.size());
+                events.emit("formation.rebalance", "TeamBuilder: after fixing, totalTeams=" + teams.size());
+            }
 
         } catch (Exception e) {
             logger.error("ensureMinTeamSize FAILED", e);
-            System.out.println("Error while balancing team sizes: " + e.getMessage());
+            events.emit("formation.error", "Error while balancing team sizes: " + e.getMessage());
         }
     }
 
     // find team (excluding `exclude`) with the smallest size
-    private Team findTeamWithLowestSize(List<Team> teams, Team exclude) {
+    private Team findTeamWithLowestSize(List<Team> teams, Team exclude, boolean report) {
         Team best = null;
         int minSize = Integer.MAX_VALUE;
         for (Team t : teams) {
             if (t == exclude) {
-                System.out.println("TeamBuilder: found excluding team " + t.getTeamName());
-                LoggerService.getInstance().info("Excluding team from candidate list: " + t.getTeamName());
+                if (report) {
+                    events.emit("formation.exclude", "TeamBuilder: found excluding team " + t.getTeamName());
+                    LoggerService.getInstance().debug("Excluding team from candidate list: {}", t.getTeamName());
+                }
                 continue;}
-            int size = t.getMembers().size();
+            int size = t.size();
             if (size < minSize) {
                 minSize = size;
                 best = t;
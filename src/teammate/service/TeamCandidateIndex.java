@@ -0,0 +1,247 @@
+package teammate.service;
+
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Tracks which teams still have room during a buildTeams pass. Teams are referred to by their
+// position in the team list; call memberAdded(t) right after a member was added to team t.
+//  - open teams by current size, so the smallest open team is found in O(teamSize);
+//  - partially filled teams in buckets keyed by the aggregates placement scoring reads
+//    (size, distinct roles, leaders, thinkers), each bucket ordered by skill sum. Teams in one cell
+//    (same bucket, same skill sum) can only score differently through game and role, so team
+//    selection bounds a whole cell with one PlacementScorer.maxScore call instead of probing it.
+// No per-participant copy of the team list is needed.
+class TeamCandidateIndex {
+
+    private final List<Team> teams;
+    private final int teamSize;
+    private final int[] sizes;
+    private final IntBag empty;      // open teams with 0 members (all interchangeable for scoring)
+    private final IntBag partial;    // open teams with 1..teamSize-1 members
+    private final IntBag[] bySize;   // open teams per current size
+
+    private final Map<Long, Bucket> bucketByKey = new HashMap<>();
+    private final ArrayList<Bucket> openBuckets = new ArrayList<>();
+    private final Bucket[] bucketOf;  // bucket of each partially filled team, null otherwise
+    private final Cell[] cellOf;
+    private final int[] cellPos;
+    private long[] scratch = new long[16];
+
+    TeamCandidateIndex(List<Team> teams, int teamSize) {
+        int teamCount = teams.size();
+        this.teams = teams;
+        this.teamSize = teamSize;
+        this.sizes = new int[teamCount];
+        this.empty = new IntBag(teamCount);
+        this.partial = new IntBag(teamCount);
+        this.bySize = new IntBag[teamSize];
+        for (int s = 0; s < teamSize; s++) {
+            bySize[s] = new IntBag(teamCount);
+        }
+        for (int t = 0; t < teamCount; t++) {
+            empty.add(t);
+            bySize[0].add(t);
+        }
+        this.bucketOf = new Bucket[teamCount];
+        this.cellOf = new Cell[teamCount];
+        this.cellPos = new int[teamCount];
+    }
+
+    int emptyCount() { return empty.size(); }
+    int emptyTeam(int k) { return empty.get(k); }
+
+    int partialCount() { return partial.size(); }
+    int partialTeam(int k) { return partial.get(k); }
+
+    boolean hasOpenTeam() { return empty.size() + partial.size() > 0; }
+
+    // buckets that currently hold at least one partially filled team
+    int bucketCount() { return openBuckets.size(); }
+    Bucket bucket(int k) { return openBuckets.get(k); }
+
+    // reusable sort buffer for team selection (one pass runs on one thread)
+    long[] scratch(int n) {
+        if (scratch.length < n) {
+            scratch = new long[Math.max(n, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    // team with the fewest members that is not full yet, or -1 if every team is full
+    int smallestOpenTeam() {
+        for (int s = 0; s < teamSize; s++) {
+            if (bySize[s].size() > 0) {
+                return bySize[s].get(0);
+            }
+        }
+        return -1;
+    }
+
+    // call after a member was added to team t
+    void memberAdded(int t) {
+        int before = sizes[t]++;
+        int after = before + 1;
+
+        if (before < teamSize) {
+            bySize[before].remove(t);
+        }
+        if (before == 0) {
+            empty.remove(t);
+            if (after < teamSize) partial.add(t);
+        } else if (after == teamSize) {
+            partial.remove(t);
+        }
+        if (after < teamSize) {
+            bySize[after].add(t);
+        }
+
+        if (bucketOf[t] != null) {
+            detach(t);
+        }
+        if (after < teamSize) {
+            attach(t);
+        }
+    }
+
+    // ---------- buckets ----------
+    private void attach(int t) {
+        Team team = teams.get(t);
+        int size = team.size();
+        int roles = team.getDistinctRoleCount();
+        int leaders = team.getLeaderCount();
+        int thinkers = team.getThinkerCount();
+        long width = teamSize + 1L;
+        long key = ((size * width + roles) * width + leaders) * width + thinkers;
+
+        Bucket b = bucketByKey.get(key);
+        if (b == null) {
+            b = new Bucket(size, roles, leaders, thinkers);
+            bucketByKey.put(key, b);
+        }
+        if (b.teamCount++ == 0) {
+            b.openPos = openBuckets.size();
+            openBuckets.add(b);
+        }
+
+        int skillSum = team.getSkillSum();
+        Cell c = b.bySkillSum.get(skillSum);
+        if (c == null) {
+            c = new Cell(skillSum);
+            b.bySkillSum.put(skillSum, c);
+        }
+        if (c.count == c.teams.length) {
+            c.teams = Arrays.copyOf(c.teams, c.count * 2);
+        }
+        cellPos[t] = c.count;
+        c.teams[c.count++] = t;
+        bucketOf[t] = b;
+        cellOf[t] = c;
+    }
+
+    private void detach(int t) {
+        Bucket b = bucketOf[t];
+        Cell c = cellOf[t];
+        int last = c.teams[--c.count];
+        c.teams[cellPos[t]] = last;
+        cellPos[last] = cellPos[t];
+        if (c.count == 0) {
+            b.bySkillSum.remove(c.skillSum);
+        }
+        if (--b.teamCount == 0) {
+            Bucket moved = openBuckets.remove(openBuckets.size() - 1);
+            if (moved != b) {
+                openBuckets.set(b.openPos, moved);
+                moved.openPos = b.openPos;
+            }
+            b.openPos = -1;
+        }
+        bucketOf[t] = null;
+        cellOf[t] = null;
+    }
+
+    // Partially filled teams with the same size, distinct role count, leaders and thinkers.
+    static final class Bucket {
+        final int size;
+        final int distinctRoles;
+        final int leaders;
+        final int thinkers;
+        private final TreeMap<Integer, Cell> bySkillSum = new TreeMap<>();
+        private int teamCount;
+        private int openPos = -1;
+
+        private Bucket(int size, int distinctRoles, int leaders, int thinkers) {
+            this.size = size;
+            this.distinctRoles = distinctRoles;
+            this.leaders = leaders;
+            this.thinkers = thinkers;
+        }
+
+        // cell with the highest skill sum <= skillSum (null if none)
+        Cell atOrBelow(int skillSum) {
+            Map.Entry<Integer, Cell> e = bySkillSum.floorEntry(skillSum);
+            return (e == null) ? null : e.getValue();
+        }
+
+        // cell with the lowest skill sum > skillSum (null if none)
+        Cell above(int skillSum) {
+            Map.Entry<Integer, Cell> e = bySkillSum.higherEntry(skillSum);
+            return (e == null) ? null : e.getValue();
+        }
+
+        Cell below(Cell c) {
+            Map.Entry<Integer, Cell> e = bySkillSum.lowerEntry(c.skillSum);
+            return (e == null) ? null : e.getValue();
+        }
+    }
+
+    // Teams of one bucket that share a skill sum.
+    static final class Cell {
+        final int skillSum;
+        private int[] teams = new int[4];
+        private int count;
+
+        private Cell(int skillSum) {
+            this.skillSum = skillSum;
+        }
+
+        int count() { return count; }
+        int team(int k) { return teams[k]; }
+    }
+
+    // Unordered int set with O(1) add / remove / random access (swap-with-last removal).
+    private static final class IntBag {
+        private final int[] items;
+        private final int[] pos;
+        private int size;
+
+        IntBag(int capacity) {
+            items = new int[capacity];
+            pos = new int[capacity];
+            Arrays.fill(pos, -1);
+        }
+
+        int size() { return size; }
+        int get(int k) { return items[k]; }
+
+        void add(int v) {
+            if (pos[v] >= 0) return;
+            items[size] = v;
+            pos[v] = size++;
+        }
+
+        void remove(int v) {
+            int p = pos[v];
+            if (p < 0) return;
+            int last = items[--size];
+            items[p] = last;
+            pos[last] = p;
+            pos[v] = -1;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package teammate.service;
+
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Streams formed teams as CSV rows: TeamName,ID,Name,Email,Game,Skill,Role,Personality
+// Rows are encoded straight into one reusable byte buffer (UTF-8, ints written digit by digit),
+// so exporting does not build a String per row; the buffer goes to the stream only when full.
+// Values holding a comma, quote or line break are quoted the way CsvTokenizer reads them back.
+// A blank line separates teams, as in the original export. Not thread-safe – one export at a time.
+public class TeamCsvExporter {
+
+    public static final String HEADER = "TeamName,ID,Name,Email,Game,Skill,Role,Personality";
+
+    private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    // longest encoding of one char (a surrogate pair is written as 4 bytes for its two chars)
+    private static final int MAX_CHAR_BYTES = 4;
+
+    // results of classify()
+    private static final int PLAIN_ASCII = 0;
+    private static final int PLAIN = 1;
+    private static final int QUOTED = 2;
+
+    private final byte[] buf;
+    private int pos;
+    private OutputStream out;
+
+    public TeamCsvExporter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public TeamCsvExporter(int bufferSize) {
+        this.buf = new byte[Math.max(bufferSize, 64)];
+    }
+
+    /**
+     * Writes the teams to `file` (replacing it), gzip-compressed when `gzip` is true.
+     *
+     * @return number of participant rows written
+     */
+    public long export(List<Team> teams, Path file, boolean gzip) throws IOException {
+        try (OutputStream fileOut = Files.newOutputStream(file)) {
+            if (!gzip) {
+                return write(teams, fileOut);
+            }
+            try (GZIPOutputStream zip = new GZIPOutputStream(fileOut, buf.length)) {
+                long rows = write(teams, zip);
+                zip.finish();
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Writes header and rows to `target` and flushes it; the stream is left open.
+     *
+     * @return number of participant rows written
+     */
+    public long write(List<Team> teams, OutputStream target) throws IOException {
+        out = target;
+        pos = 0;
+        long rows = 0;
+        try {
+            text(HEADER);
+            newLine();
+            for (Team t : teams) {
+                String teamName = t.getTeamName();
+                for (Participant p : t.getMembers()) {
+                    value(teamName);
+                    comma();
+                    value(p.getId());
+                    comma();
+                    value(p.getName());
+                    comma();
+                    value(p.getEmail());
+                    comma();
+                    value(p.getPreferredGame());
+                    comma();
+                    number(p.getSkillLevel());
+                    comma();
+                    value(p.getRole());
+                    comma();
+                    value(p.getPersonalityType());
+                    newLine();
+                    rows++;
+                }
+                newLine();       // blank line between teams
+            }
+            drain();
+            target.flush();
+            return rows;
+        } finally {
+            out = null;
+        }
+    }
+
+    // ---------- encoding ----------
+    private void value(String s) throws IOException {
+        if (s == null) return;
+        int n = s.length();
+        int kind = classify(s);
+        if (kind == PLAIN_ASCII) {
+            if (buf.length - pos < n) {
+                drain();
+                if (n > buf.length) {
+                    text(s);
+                    return;
+                }
+            }
+            ascii(s, n);
+            return;
+        }
+        if (kind == PLAIN) {
+            text(s);
+            return;
+        }
+        put('"');
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '"') put('"');
+            encode(s, i, c);
+            if (Character.isHighSurrogate(c) && i + 1 < n) i++;
+        }
+        put('"');
+    }
+
+    // copy of an all-ASCII value that fits in the buffer (each char is its own byte)
+    private void ascii(String s, int n) {
+        byte[] b = buf;
+        int p = pos;
+        for (int i = 0; i < n; i++) {
+            b[p++] = (byte) s.charAt(i);
+        }
+        pos = p;
+    }
+
+    private void text(String s) throws IOException {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (pos == buf.length) drain();
+                buf[pos++] = (byte) c;
+            } else {
+                encode(s, i, c);
+                if (Character.isHighSurrogate(c) && i + 1 < n) i++;
+            }
+        }
+    }
+
+    // one char (or surrogate pair starting at i) as UTF-8; unpaired surrogates become '?'
+    private void encode(String s, int i, char c) throws IOException {
+        if (buf.length - pos < MAX_CHAR_BYTES) drain();
+        if (c < 0x80) {
+            buf[pos++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[pos++] = (byte) (0xC0 | (c >> 6));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        } else if (!Character.isSurrogate(c)) {
+            buf[pos++] = (byte) (0xE0 | (c >> 12));
+            buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            buf[pos++] = (byte) (0xF0 | (cp >> 18));
+            buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+            buf[pos++] = '?';
+        }
+    }
+
+    private void number(int v) throws IOException {
+        if (buf.length - pos < 11) drain();
+        if (v < 0) {
+            if (v == Integer.MIN_VALUE) {
+                value(Integer.toString(v));
+                return;
+            }
+            buf[pos++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (int t = v; t >= 10; t /= 10) digits++;
+        int end = pos + digits;
+        for (int k = end - 1; k >= pos; k--) {
+            buf[k] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        pos = end;
+    }
+
+    private void comma() throws IOException {
+        put(',');
+    }
+
+    private void newLine() throws IOException {
+        put('\n');
+    }
+
+    private void put(char c) throws IOException {
+        if (pos == buf.length) drain();
+        buf[pos++] = (byte) c;
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    // one pass over the value: does it need quoting, and is it pure ASCII?
+    private static int classify(String s) {
+        int n = s.length();
+        if (n == 0) return PLAIN_ASCII;
+        // leading/trailing whitespace would be trimmed by the reader unless quoted
+        if (s.charAt(0) <= ' ' || s.charAt(n - 1) <= ' ') return QUOTED;
+        int kind = PLAIN_ASCII;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return QUOTED;
+            if (c >= 0x80) kind = PLAIN;
+        }
+        return kind;
+    }
+}
@@ -1,25 +1,37 @@
 package teammate.service;
 
 import teammate.model.Participant;
+import teammate.model.ParticipantStore;
 import teammate.model.Team;
 
 import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 public class TeamFormationTask implements Runnable {
 
     private final ArrayList<Participant> participants;
     private final int teamSize;
     private final TeamBuilder teamBuilder;
+    private final FormationOptions options;
     private final LoggerService logger = LoggerService.getInstance();
 
     private ArrayList<Team> result = new ArrayList<>();
+    private SolverResult exactResult;
 
     public TeamFormationTask(ArrayList<Participant> participants,
                              int teamSize,
                              TeamBuilder teamBuilder) {
+        this(participants, teamSize, teamBuilder, FormationOptions.defaults());
+    }
+
+    public TeamFormationTask(ArrayList<Participant> participants,
+                             int teamSize,
+                             TeamBuilder teamBuilder,
+                             FormationOptions options) {
         this.participants = participants;
         this.teamSize = teamSize;
         this.teamBuilder = teamBuilder;
+        this.options = (options == null) ? FormationOptions.defaults() : options;
     }
 
     @Override
@@ -27,10 +39,25 @@ public class TeamFormationTask implements Runnable {
         try {
             System.out.println("[Thread] Team formation thread running: " + Thread.currentThread().getName());
             // [FORM 1.2.6] TeamFormationTask.run() starts in ExecutorService thread
+            long runSeed = options.isSeeded() ? options.getSeed() : new SplittableRandom().nextLong();
+            int starts = options.getStarts();
+            long exactMillis = options.getExactMillis();
+            SplittableRandom random = new SplittableRandom(runSeed);
             logger.info("TeamFormationTask START. participants=" +
-                    participants.size() + ", teamSize=" + teamSize);
+                    participants.size() + ", teamSize=" + teamSize + ", starts=" + starts + ", seed=" + runSeed);
             // [FORM 2.1] Call TeamBuilder.buildTeams(participants, teamSize, logger)
-            result = teamBuilder.buildTeams(participants, teamSize, logger);
+            if (exactMillis > 0 && participants.size() <= ExactTeamSolver.MAX_PARTICIPANTS) {
+                exactResult = teamBuilder.buildTeamsExact(participants, teamSize, exactMillis, logger, random);
+                result = exactResult.getTeams();
+            } else if (starts > 1) {
+                result = teamBuilder.buildTeamsBestOf(ParticipantStore.of(participants),
+                        teamSize, starts, runSeed, logger);
+            } else {
+                result = teamBuilder.buildTeams(participants, teamSize, logger, random);
+            }
+            if (options.getOptimiseMillis() > 0 && exactResult == null) {
+                teamBuilder.improveTeams(result, teamSize, options.getOptimiseMillis(), 0, logger, random);
+            }
             // [FORM 2.3] Log number of teams formed
             logger.info("TeamFormationTask END. teamsFormed=" + result.size());
         } catch (Exception e) {
@@ -43,4 +70,9 @@ public class TeamFormationTask implements Runnable {
     public ArrayList<Team> getResult() {
         return result;
     }
+
+    // objective, proven lower bound and gap of an exact run; null for the other modes
+    public SolverResult getExactResult() {
+        return exactResult;
+    }
 }
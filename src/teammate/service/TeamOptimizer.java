@@ -0,0 +1,155 @@
+package teammate.service;
+
+import teammate.model.AttributeDictionary;
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Local-search post-pass for a finished assignment: tries random member swaps and moves between
+// two teams and keeps every change that lowers FormationObjective (first-improvement hill climbing).
+// Each candidate is scored in O(1) from Team aggregates; nothing is changed unless it is accepted.
+public class TeamOptimizer {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MOVE_ONE_IN = 4;   // 1 in 4 neighbours is a move, the rest are swaps
+
+    private final RandomGenerator random;
+
+    // per-run state
+    private List<Team> teams;
+    private double globalAvgSkill;
+    private double skillWeight;       // SKILL_VARIANCE_WEIGHT / number of teams
+    private int[] gameOverflow;       // cached Team.gameOverflow(cap) per team
+    private double[] teamScore;       // cached objective contribution per team
+
+    public TeamOptimizer(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Improves teams in place until the time budget or the iteration budget runs out
+     * (a budget of 0 means "no limit", but at least one must be positive).
+     * Team sizes stay within [minSize, teamSize].
+     *
+     * @return number of accepted swaps/moves
+     */
+    public int improve(List<Team> teams, int teamSize, int minSize,
+                       long timeBudgetMillis, long maxIterations) {
+        if (teams == null || teams.size() < 2 || (timeBudgetMillis <= 0 && maxIterations <= 0)) {
+            return 0;
+        }
+        init(teams);
+
+        long deadline = (timeBudgetMillis > 0)
+                ? System.nanoTime() + timeBudgetMillis * 1_000_000L
+                : Long.MAX_VALUE;
+        long iterations = (maxIterations > 0) ? maxIterations : Long.MAX_VALUE;
+        int accepted = 0;
+
+        for (long iter = 0; iter < iterations; iter++) {
+            if ((iter & 1023) == 0 && System.nanoTime() > deadline) {
+                break;
+            }
+            int a = random.nextInt(teams.size());
+            int b = random.nextInt(teams.size() - 1);
+            if (b >= a) b++;
+            Team ta = teams.get(a);
+            Team tb = teams.get(b);
+            if (ta.size() == 0) continue;
+
+            Participant p = ta.getMembers().get(random.nextInt(ta.size()));
+
+            if (random.nextInt(MOVE_ONE_IN) == 0) {
+                // move p from a to b
+                if (ta.size() - 1 < minSize || tb.size() + 1 > teamSize) continue;
+                double newA = scoreAfter(a, p, null);
+                double newB = scoreAfter(b, null, p);
+                if (newA + newB < teamScore[a] + teamScore[b] - EPSILON) {
+                    commit(a, p, null, newA);
+                    commit(b, null, p, newB);
+                    accepted++;
+                }
+            } else {
+                // swap p (in a) with q (in b)
+                if (tb.size() == 0) continue;
+                Participant q = tb.getMembers().get(random.nextInt(tb.size()));
+                double newA = scoreAfter(a, p, q);
+                double newB = scoreAfter(b, q, p);
+                if (newA + newB < teamScore[a] + teamScore[b] - EPSILON) {
+                    commit(a, p, q, newA);
+                    commit(b, q, p, newB);
+                    accepted++;
+                }
+            }
+        }
+        return accepted;
+    }
+
+    private void init(List<Team> teams) {
+        this.teams = teams;
+        long skillSum = 0;
+        int members = 0;
+        for (Team t : teams) {
+            skillSum += t.getSkillSum();
+            members += t.size();
+        }
+        globalAvgSkill = (members == 0) ? 0.0 : (double) skillSum / members;
+        skillWeight = FormationObjective.SKILL_VARIANCE_WEIGHT / teams.size();
+
+        gameOverflow = new int[teams.size()];
+        teamScore = new double[teams.size()];
+        for (int i = 0; i < teams.size(); i++) {
+            gameOverflow[i] = teams.get(i).gameOverflow(TeamBuilder.MAX_PER_GAME_PER_TEAM);
+            teamScore[i] = scoreAfter(i, null, null);
+        }
+    }
+
+    // objective contribution of team i if `out` left it and `in` joined it (either may be null)
+    private double scoreAfter(int i, Participant out, Participant in) {
+        Team t = teams.get(i);
+        int size = t.size();
+        int skillSum = t.getSkillSum();
+        int overflow = gameOverflow[i];
+        int distinctRoles = t.getDistinctRoleCount();
+        int leaders = t.getLeaderCount();
+        int thinkers = t.getThinkerCount();
+
+        if (out != null) {
+            size--;
+            skillSum -= out.getSkillLevel();
+            int g = out.getGameCode();
+            if (AttributeDictionary.isCounted(g) && t.countGame(g) > TeamBuilder.MAX_PER_GAME_PER_TEAM) overflow--;
+            int r = out.getRoleCode();
+            if (AttributeDictionary.isCounted(r) && t.countRole(r) == 1) distinctRoles--;
+            if (out.getPersonalityCode() == AttributeDictionary.PERSONALITY_LEADER) leaders--;
+            else if (out.getPersonalityCode() == AttributeDictionary.PERSONALITY_THINKER) thinkers--;
+        }
+        if (in != null) {
+            size++;
+            skillSum += in.getSkillLevel();
+            int g = in.getGameCode();
+            int gameCount = t.countGame(g) - ((out != null && out.getGameCode() == g) ? 1 : 0);
+            if (AttributeDictionary.isCounted(g) && gameCount >= TeamBuilder.MAX_PER_GAME_PER_TEAM) overflow++;
+            int r = in.getRoleCode();
+            int roleCount = t.countRole(r) - ((out != null && out.getRoleCode() == r) ? 1 : 0);
+            if (AttributeDictionary.isCounted(r) && roleCount == 0) distinctRoles++;
+            if (in.getPersonalityCode() == AttributeDictionary.PERSONALITY_LEADER) leaders++;
+            else if (in.getPersonalityCode() == AttributeDictionary.PERSONALITY_THINKER) thinkers++;
+        }
+
+        double avg = (size == 0) ? globalAvgSkill : (double) skillSum / size;
+        double d = avg - globalAvgSkill;
+        return skillWeight * d * d
+                + FormationObjective.penalty(size, overflow, distinctRoles, leaders, thinkers);
+    }
+
+    private void commit(int i, Participant out, Participant in, double newScore) {
+        Team t = teams.get(i);
+        if (out != null) t.removeMember(out);
+        if (in != null) t.addMember(in);
+        gameOverflow[i] = t.gameOverflow(TeamBuilder.MAX_PER_GAME_PER_TEAM);
+        teamScore[i] = newScore;
+    }
+}
@@ -0,0 +1,404 @@
+package teammate.service;
+
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+// Binary snapshot of formed teams, so they can be restored after a restart without re-forming.
+//
+// file    = header, teams, members, columns, strings      (all ints little-endian)
+// header  = MAGIC, short version, short headerSize, int teamCount, int memberCount,
+//           int participantCount, int stringCount, long createdMillis,
+//           long teamsOffset, long membersOffset, long columnsOffset, long stringsOffset,
+//           int formedTeamSize, int reserved                        (version 2 on)
+// teams   = teamCount × (int nameId, int firstMember, int memberCount)
+// members = memberCount × int participant row
+// columns = one int column per attribute, participantCount rows each:
+//           id, name, email, game, skill, role, personalityScore, personalityType
+//           (text attributes are string ids, -1 for null)
+// strings = (stringCount + 1) × int offset into the data that follows, then UTF-8 data
+//
+// Game/role/personality codes are not stored: dictionary codes depend on the order values were
+// first seen in a run, so they are recomputed from the strings when a Participant is rebuilt.
+// open() maps the file read-only and only checks the header; Team and Participant objects are
+// built the first time they are asked for and then reused. Version 1 files (64-byte header, no
+// team size) are still read; their formedTeamSize() is 0.
+public final class TeamSnapshot {
+
+    static final byte[] MAGIC = {'T', 'M', 'S', 'N'};
+    static final short VERSION = 2;
+    static final int HEADER_BYTES = 72;
+    private static final int V1_HEADER_BYTES = 64;
+    private static final int UNKNOWN_TEAM_SIZE = 0;
+
+    private static final int TEAM_RECORD_INTS = 3;
+    private static final int COLUMNS = 8;
+    private static final int COL_ID = 0;
+    private static final int COL_NAME = 1;
+    private static final int COL_EMAIL = 2;
+    private static final int COL_GAME = 3;
+    private static final int COL_SKILL = 4;
+    private static final int COL_ROLE = 5;
+    private static final int COL_SCORE = 6;
+    private static final int COL_TYPE = 7;
+    private static final int NO_STRING = -1;
+
+    private final ByteBuffer data;
+    private final int teamCount;
+    private final int memberCount;
+    private final int participantCount;
+    private final int stringCount;
+    private final long createdMillis;
+    private final int formedTeamSize;
+    private final int teamsOffset;
+    private final int membersOffset;
+    private final int columnsOffset;
+    private final int stringsOffset;
+
+    // built on first access
+    private final Team[] teams;
+    private final Participant[] participants;
+
+    private TeamSnapshot(ByteBuffer data, Path file) throws IOException {
+        this.data = data;
+        if (data.limit() < V1_HEADER_BYTES) {
+            throw new IOException("Not a team snapshot: " + file);
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data.get(i) != MAGIC[i]) {
+                throw new IOException("Not a team snapshot: " + file);
+            }
+        }
+        short version = data.getShort(4);
+        if (version != 1 && version != VERSION) {
+            throw new IOException("Unsupported team snapshot version " + version + ": " + file);
+        }
+        int minHeaderSize = (version == 1) ? V1_HEADER_BYTES : HEADER_BYTES;
+        int headerSize = data.getShort(6);
+        if (headerSize < minHeaderSize || headerSize > data.limit()) {
+            throw new IOException("Corrupt team snapshot (bad header size): " + file);
+        }
+        teamCount = data.getInt(8);
+        memberCount = data.getInt(12);
+        participantCount = data.getInt(16);
+        stringCount = data.getInt(20);
+        createdMillis = data.getLong(24);
+        long teamsAt = data.getLong(32);
+        long membersAt = data.getLong(40);
+        long columnsAt = data.getLong(48);
+        long stringsAt = data.getLong(56);
+        formedTeamSize = (version == 1) ? UNKNOWN_TEAM_SIZE : data.getInt(64);
+
+        long size = data.limit();
+        if (teamCount < 0 || memberCount < 0 || participantCount < 0 || stringCount < 0
+                || teamsAt < headerSize
+                || membersAt < teamsAt + (long) teamCount * TEAM_RECORD_INTS * 4
+                || columnsAt < membersAt + (long) memberCount * 4
+                || stringsAt < columnsAt + (long) participantCount * COLUMNS * 4
+                || stringsAt + (stringCount + 1L) * 4 > size) {
+            throw new IOException("Corrupt team snapshot (bad section table): " + file);
+        }
+        teamsOffset = (int) teamsAt;
+        membersOffset = (int) membersAt;
+        columnsOffset = (int) columnsAt;
+        stringsOffset = (int) stringsAt;
+        if (stringDataStart() + (long) stringOffset(stringCount) > size) {
+            throw new IOException("Corrupt team snapshot (truncated strings): " + file);
+        }
+
+        teams = new Team[teamCount];
+        participants = new Participant[participantCount];
+    }
+
+    // ================== WRITE ==================
+    /**
+     * Writes `teams`, formed with at most `teamSize` members each, to `file`, replacing it. The
+     * snapshot is written to a temporary file next to it and then moved into place, so a crash never
+     * leaves a half-written snapshot behind.
+     */
+    public static void write(List<Team> teams, int teamSize, Path file) throws IOException {
+        // rows: one per distinct participant (by identity), in first-seen order
+        Map<Participant, Integer> rowOf = new IdentityHashMap<>();
+        List<Participant> rows = new ArrayList<>();
+        int memberCount = 0;
+        for (Team t : teams) {
+            for (Participant p : t.getMembers()) {
+                if (rowOf.putIfAbsent(p, rows.size()) == null) {
+                    rows.add(p);
+                }
+                memberCount++;
+            }
+        }
+
+        StringTable strings = new StringTable();
+        ByteBuffer teamTable = allocate((long) teams.size() * TEAM_RECORD_INTS * 4);
+        ByteBuffer members = allocate((long) memberCount * 4);
+        int first = 0;
+        for (Team t : teams) {
+            List<Participant> m = t.getMembers();
+            teamTable.putInt(strings.add(t.getTeamName())).putInt(first).putInt(m.size());
+            for (Participant p : m) {
+                members.putInt(rowOf.get(p));
+            }
+            first += m.size();
+        }
+
+        int n = rows.size();
+        ByteBuffer columns = allocate((long) n * COLUMNS * 4);
+        for (int col = 0; col < COLUMNS; col++) {
+            for (Participant p : rows) {
+                columns.putInt(columnValue(p, col, strings));
+            }
+        }
+        ByteBuffer stringData = strings.encode();
+
+        long teamsAt = HEADER_BYTES;
+        long membersAt = teamsAt + teamTable.capacity();
+        long columnsAt = membersAt + members.capacity();
+        long stringsAt = columnsAt + columns.capacity();
+
+        ByteBuffer header = allocate(HEADER_BYTES);
+        header.put(MAGIC).putShort(VERSION).putShort((short) HEADER_BYTES)
+                .putInt(teams.size()).putInt(memberCount).putInt(n).putInt(strings.size())
+                .putLong(System.currentTimeMillis())
+                .putLong(teamsAt).putLong(membersAt).putLong(columnsAt).putLong(stringsAt)
+                .putInt(teamSize).putInt(0);
+
+        ByteBuffer[] sections = {header, teamTable, members, columns, stringData};
+        long total = 0;
+        for (ByteBuffer b : sections) {
+            b.flip();
+            total += b.remaining();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Team snapshot larger than 2 GB");
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long written = 0;
+            while (written < total) {
+                written += ch.write(sections);
+            }
+            ch.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static int columnValue(Participant p, int col, StringTable strings) throws IOException {
+        switch (col) {
+            case COL_ID:    return strings.add(p.getId());
+            case COL_NAME:  return strings.add(p.getName());
+            case COL_EMAIL: return strings.add(p.getEmail());
+            case COL_GAME:  return strings.id(p.getPreferredGame());
+            case COL_SKILL: return p.getSkillLevel();
+            case COL_ROLE:  return strings.id(p.getRole());
+            case COL_SCORE: return p.getPersonalityScore();
+            default:        return strings.id(p.getPersonalityType());
+        }
+    }
+
+    private static ByteBuffer allocate(long bytes) throws IOException {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Team snapshot larger than 2 GB");
+        }
+        return ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // ================== READ ==================
+    /**
+     * Maps `file` and checks its header. Nothing else is decoded until it is asked for.
+     */
+    public static TeamSnapshot open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Team snapshot larger than 2 GB: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            ByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            return new TeamSnapshot(data, file);
+        }
+    }
+
+    public int teamCount() { return teamCount; }
+    public int participantCount() { return participantCount; }
+    public long createdMillis() { return createdMillis; }
+    // team size chosen when the teams were formed; 0 when unknown (version 1 snapshot)
+    public int formedTeamSize() { return formedTeamSize; }
+
+    public String teamName(int t) {
+        return string(data.getInt(teamRecord(t)));
+    }
+
+    public int teamSize(int t) {
+        return data.getInt(teamRecord(t) + 8);
+    }
+
+    // team t with its members, built on first access
+    public synchronized Team team(int t) {
+        Team team = teams[t];
+        if (team == null) {
+            int record = teamRecord(t);
+            team = new Team(string(data.getInt(record)));
+            int first = data.getInt(record + 4);
+            int count = data.getInt(record + 8);
+            if (first < 0 || count < 0 || (long) first + count > memberCount) {
+                throw new IllegalStateException("Corrupt team snapshot: member range of team " + t);
+            }
+            for (int k = 0; k < count; k++) {
+                team.addMember(participant(data.getInt(membersOffset + (first + k) * 4)));
+            }
+            teams[t] = team;
+        }
+        return team;
+    }
+
+    // participant row i, built on first access
+    public synchronized Participant participant(int row) {
+        Participant p = participants[row];
+        if (p == null) {
+            p = new Participant(stringColumn(COL_NAME, row), stringColumn(COL_EMAIL, row),
+                    stringColumn(COL_GAME, row), intColumn(COL_SKILL, row), stringColumn(COL_ROLE, row));
+            p.setId(stringColumn(COL_ID, row));
+            p.setPersonalityScore(intColumn(COL_SCORE, row));
+            p.setPersonalityType(stringColumn(COL_TYPE, row));
+            participants[row] = p;
+        }
+        return p;
+    }
+
+    // read-only list view; each Team is built when get(i) first reaches it
+    public List<Team> teams() {
+        return new TeamList();
+    }
+
+    private final class TeamList extends AbstractList<Team> implements RandomAccess {
+        @Override
+        public Team get(int index) {
+            return team(index);
+        }
+
+        @Override
+        public int size() {
+            return teamCount;
+        }
+    }
+
+    // ---------- helpers ----------
+    private int teamRecord(int t) {
+        if (t < 0 || t >= teamCount) {
+            throw new IndexOutOfBoundsException("Team " + t + " of " + teamCount);
+        }
+        return teamsOffset + t * TEAM_RECORD_INTS * 4;
+    }
+
+    private int intColumn(int col, int row) {
+        return data.getInt(columnsOffset + (col * participantCount + row) * 4);
+    }
+
+    private String stringColumn(int col, int row) {
+        return string(intColumn(col, row));
+    }
+
+    private int stringOffset(int id) {
+        return data.getInt(stringsOffset + id * 4);
+    }
+
+    private int stringDataStart() {
+        return stringsOffset + (stringCount + 1) * 4;
+    }
+
+    private String string(int id) {
+        if (id == NO_STRING) return null;
+        if (id < 0 || id >= stringCount) {
+            throw new IllegalStateException("Corrupt team snapshot: string id " + id);
+        }
+        int start = stringOffset(id);
+        int end = stringOffset(id + 1);
+        byte[] utf8 = new byte[end - start];
+        data.get(stringDataStart() + start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // string section under construction: offsets plus UTF-8 data in one growing array.
+    // Only values that repeat (game, role, personality type) are looked up for an existing id;
+    // ids, names and emails are nearly always unique, and hashing millions of them costs more
+    // than the few bytes a duplicate would save.
+    private static final class StringTable {
+        private final Map<String, Integer> shared = new HashMap<>();
+        private int[] offsets = new int[1024];
+        private byte[] bytes = new byte[16 * 1024];
+        private int count;
+        private int length;
+
+        int id(String s) throws IOException {
+            if (s == null) return NO_STRING;
+            Integer id = shared.get(s);
+            if (id == null) {
+                id = add(s);
+                shared.put(s, id);
+            }
+            return id;
+        }
+
+        int add(String s) throws IOException {
+            if (s == null) return NO_STRING;
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            if (length + (long) utf8.length > Integer.MAX_VALUE - 16) {
+                throw new IOException("Team snapshot larger than 2 GB");
+            }
+            if (count + 1 == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            if (length + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + utf8.length));
+            }
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            offsets[count] = length;
+            length += utf8.length;
+            return count++;
+        }
+
+        int size() {
+            return count;
+        }
+
+        ByteBuffer encode() throws IOException {
+            ByteBuffer out = allocate((count + 1L) * 4 + length);
+            for (int i = 0; i < count; i++) {
+                out.putInt(offsets[i]);
+            }
+            out.putInt(length);
+            out.put(bytes, 0, length);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package teammate.service;
+
+import teammate.model.AttributeDictionary;
+import teammate.model.Team;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+// Placement scoring driven by a per-event weights file instead of constants in code.
+// The weights are compiled once into small tables indexed by the team's current count:
+//   gameScore[sameGameCount]            reward per free slot under the cap, penalty at/over it
+//   personalityScore[type][typeCount]   same for leaders / thinkers; one entry for Balanced
+// so a probe is a few array reads, one role check and the skill term – no per-call branching on
+// the rules themselves and no allocation. Counts past the end of a table use its last entry.
+// Missing keys keep the default (today's) values; see scoring.example.properties.
+public final class WeightedPlacementScorer implements PlacementScorer {
+
+    private final int[] gameScore;
+    private final int minDistinctRoles;
+    private final int newRoleBelowMin;
+    private final int newRole;
+    private final int existingRole;
+    private final int[][] personalityScore;
+    private final double skillPerUnit;
+    private final int[] maxScore;
+    private final int maxGameScore;
+
+    private WeightedPlacementScorer(Properties p) {
+        int gameCap = intValue(p, "game.maxPerTeam", TeamBuilder.MAX_PER_GAME_PER_TEAM, 0);
+        gameScore = capTable(gameCap,
+                intValue(p, "game.perFreeSlot", 5, Integer.MIN_VALUE),
+                intValue(p, "game.overCapScore", -1000, Integer.MIN_VALUE));
+
+        minDistinctRoles = intValue(p, "role.minDistinct", TeamBuilder.MIN_DISTINCT_ROLES, 0);
+        newRoleBelowMin = intValue(p, "role.newBelowMin", 15, Integer.MIN_VALUE);
+        newRole = intValue(p, "role.new", 5, Integer.MIN_VALUE);
+        existingRole = intValue(p, "role.existing", 1, Integer.MIN_VALUE);
+
+        personalityScore = new int[3][];
+        personalityScore[AttributeDictionary.PERSONALITY_LEADER] = capTable(
+                intValue(p, "leader.maxPerTeam", TeamBuilder.MAX_LEADERS_PER_TEAM, 0),
+                intValue(p, "leader.perFreeSlot", 10, Integer.MIN_VALUE),
+                intValue(p, "leader.overCapScore", -400, Integer.MIN_VALUE));
+        personalityScore[AttributeDictionary.PERSONALITY_THINKER] = capTable(
+                intValue(p, "thinker.maxPerTeam", TeamBuilder.MAX_THINKERS_PER_TEAM, 0),
+                intValue(p, "thinker.perFreeSlot", 6, Integer.MIN_VALUE),
+                intValue(p, "thinker.overCapScore", -250, Integer.MIN_VALUE));
+        personalityScore[AttributeDictionary.PERSONALITY_BALANCED] =
+                new int[] {intValue(p, "balanced.score", 4, Integer.MIN_VALUE)};
+
+        // >= 0 so the skill term never adds points: maxScore (the early-exit bound) leaves it out
+        skillPerUnit = doubleValue(p, "skill.penaltyPerUnit", 2.0, 0.0);
+
+        maxGameScore = max(gameScore);
+        int roleMax = Math.max(newRoleBelowMin, Math.max(newRole, existingRole));
+        maxScore = new int[3];
+        for (int type = 0; type < 3; type++) {
+            maxScore[type] = maxGameScore + roleMax + max(personalityScore[type]);
+        }
+    }
+
+    public static WeightedPlacementScorer fromProperties(Properties weights) {
+        return new WeightedPlacementScorer(weights);
+    }
+
+    public static WeightedPlacementScorer load(Path file) throws IOException {
+        Properties weights = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            weights.load(in);
+        }
+        return new WeightedPlacementScorer(weights);
+    }
+
+    @Override
+    public int score(Team t, int skill, int game, int role, int type, double globalAvgSkill) {
+        int score = gameScore[Math.min(t.countGame(game), gameScore.length - 1)];
+
+        if (t.hasRole(role)) {
+            score += existingRole;
+        } else {
+            score += (t.getDistinctRoleCount() < Math.min(minDistinctRoles, t.size() + 1))
+                    ? newRoleBelowMin : newRole;
+        }
+
+        score += personality(type, t.getLeaderCount(), t.getThinkerCount());
+
+        double newAvg = (double) (t.getSkillSum() + skill) / (t.size() + 1);
+        score -= (int) (Math.abs(globalAvgSkill - newAvg) * skillPerUnit);
+        return score;
+    }
+
+    @Override
+    public int maxScore(int type) {
+        return (type == AttributeDictionary.PERSONALITY_LEADER || type == AttributeDictionary.PERSONALITY_THINKER)
+                ? maxScore[type] : maxScore[AttributeDictionary.PERSONALITY_BALANCED];
+    }
+
+    @Override
+    public int maxScore(int type, int size, int distinctRoles, int leaders, int thinkers, double skillGap) {
+        int newRoleScore = (distinctRoles < Math.min(minDistinctRoles, size + 1)) ? newRoleBelowMin : newRole;
+        return maxGameScore
+                + Math.max(newRoleScore, existingRole)
+                + personality(type, leaders, thinkers)
+                - (int) (skillGap * skillPerUnit);
+    }
+
+    // ---------- helpers ----------
+    private int personality(int type, int leaders, int thinkers) {
+        int[] row;
+        int count;
+        if (type == AttributeDictionary.PERSONALITY_LEADER) {
+            row = personalityScore[AttributeDictionary.PERSONALITY_LEADER];
+            count = leaders;
+        } else if (type == AttributeDictionary.PERSONALITY_THINKER) {
+            row = personalityScore[AttributeDictionary.PERSONALITY_THINKER];
+            count = thinkers;
+        } else {
+            row = personalityScore[AttributeDictionary.PERSONALITY_BALANCED];
+            count = 0;
+        }
+        return row[Math.min(count, row.length - 1)];
+    }
+
+    // entry c: (cap - c) * perFreeSlot below the cap, overCap at c >= cap (the last entry)
+    private static int[] capTable(int cap, int perFreeSlot, int overCap) {
+        int[] table = new int[cap + 1];
+        for (int c = 0; c < cap; c++) {
+            table[c] = (cap - c) * perFreeSlot;
+        }
+        table[cap] = overCap;
+        return table;
+    }
+
+    private static int max(int[] values) {
+        int m = Integer.MIN_VALUE;
+        for (int v : values) m = Math.max(m, v);
+        return m;
+    }
+
+    private static int intValue(Properties p, String key, int def, int min) {
+        String raw = p.getProperty(key);
+        if (raw == null || raw.isBlank()) return def;
+        try {
+            int v = Integer.parseInt(raw.trim());
+            if (v < min) {
+                throw new IllegalArgumentException("Scoring weight " + key + " must be >= " + min + ": " + raw);
+            }
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Scoring weight " + key + " is not a whole number: " + raw, e);
+        }
+    }
+
+    private static double doubleValue(Properties p, String key, double def, double min) {
+        String raw = p.getProperty(key);
+        if (raw == null || raw.isBlank()) return def;
+        double v;
+        try {
+            v = Double.parseDouble(raw.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Scoring weight " + key + " is not a number: " + raw, e);
+        }
+        if (!(v >= min) || Double.isInfinite(v)) {
+            throw new IllegalArgumentException("Scoring weight " + key + " must be a number >= " + min + ": " + raw);
+        }
+        return v;
+    }
+}
@@ -1,12 +1,15 @@
 package teammate.app;
 
 import org.junit.jupiter.api.Test;
+import teammate.model.MergePolicy;
 import teammate.model.Participant;
 import teammate.service.AuthService;
 import teammate.service.LoggerService;
 
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +43,28 @@ class MainTest {
         assertEquals(4, result);
     }
 
+    @Test
+    void askMergePolicy_defaultsToNewestAndRepromptsOnBadInput() {
+        // user types: <Enter> → default; then "9" (invalid) → "3" (skip)
+        Scanner sc = new Scanner(
+                new ByteArrayInputStream("\n9\n3\n".getBytes(StandardCharsets.UTF_8))
+        );
+
+        assertEquals(MergePolicy.NEWEST_WINS, Main.askMergePolicy(sc));
+        assertEquals(MergePolicy.SKIP, Main.askMergePolicy(sc));
+    }
+
+    @Test
+    void askExactFormation_defaultsToNoAndRepromptsOnBadInput() {
+        // user types: <Enter> → no; then "maybe" (invalid) → "y"
+        Scanner sc = new Scanner(
+                new ByteArrayInputStream("\nmaybe\ny\n".getBytes(StandardCharsets.UTF_8))
+        );
+
+        assertFalse(Main.askExactFormation(sc));
+        assertTrue(Main.askExactFormation(sc));
+    }
+
     @Test
     void askTeamSize_respectsLowerBound() {
         // user types: "2" (below 3) → "3" (valid min)
@@ -208,6 +233,27 @@ class MainTest {
         assertEquals("B", Main.participants.get(0).getName());
     }
 
+    @Test
+    void deleteParticipantLogin_onlyDeletesAfterTheUsernameIsTypedAgain() {
+        List<String> deletedLogins = new ArrayList<>();
+        AuthService fakeAuth = new AuthService() {
+            @Override
+            public boolean deleteParticipantAccount(String username, String file) {
+                deletedLogins.add(username);    // prevent file writes
+                return true;
+            }
+        };
+        LoggerService logger = LoggerService.getInstance();
+
+        // cancelled, then a mismatched confirmation, then confirmed
+        Main.deleteParticipantLogin(new Scanner("\n"), logger, fakeAuth);
+        Main.deleteParticipantLogin(new Scanner("userA\nuserB\n"), logger, fakeAuth);
+        assertTrue(deletedLogins.isEmpty());
+
+        Main.deleteParticipantLogin(new Scanner("userA\nUSERA\n"), logger, fakeAuth);
+        assertEquals(List.of("userA"), deletedLogins);
+    }
+
     @Test
     void updateParticipantByNumber_updatesFieldsCorrectly() {
 
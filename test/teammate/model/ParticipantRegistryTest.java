@@ -0,0 +1,136 @@
+package teammate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParticipantRegistryTest {
+
+    private static Participant participant(int n) {
+        Participant p = new Participant("Player " + n, "player" + n + "@uni.edu", "Chess", 5, "Attacker");
+        p.setId("P" + (100 + n));
+        p.setUsername("user" + n);
+        return p;
+    }
+
+    @Test
+    void behavesLikeTheOldList_acrossDeletesAndCompactions() {
+        ParticipantRegistry registry = new ParticipantRegistry(4);
+        List<Participant> expected = new ArrayList<>();
+        Random random = new Random(7);
+        int next = 0;
+
+        for (int round = 0; round < 5000; round++) {
+            int op = random.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                Participant p = participant(next++);
+                assertTrue(registry.add(p));
+                expected.add(p);
+            } else if (op < 8) {
+                int number = random.nextInt(expected.size());
+                assertSame(expected.remove(number), registry.remove(number));
+            } else {
+                Participant p = expected.remove(random.nextInt(expected.size()));
+                assertTrue(registry.remove(p));
+                assertFalse(registry.contains(p));
+            }
+            assertEquals(expected.size(), registry.size());
+        }
+
+        assertEquals(expected, registry);
+        assertEquals(expected, registry.toList());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), registry.get(i));
+            assertEquals(i, registry.indexOf(expected.get(i)));
+        }
+        assertTrue(registry.tombstones() <= Math.max(64, registry.size()));
+    }
+
+    @Test
+    void keyedLookups_areCaseInsensitive_andFollowDeletesAndReindex() {
+        ParticipantRegistry registry = new ParticipantRegistry();
+        Participant a = participant(1);
+        Participant b = participant(2);
+        registry.add(a);
+        registry.add(b);
+
+        assertFalse(registry.add(a), "the same participant is only registered once");
+        assertSame(a, registry.findById("p101"));
+        assertSame(b, registry.findByEmail("PLAYER2@uni.edu"));
+        assertSame(b, registry.findByUsername(" User2 "));
+
+        b.setEmail("new@uni.edu");
+        assertTrue(registry.reindex(b));
+        assertNull(registry.findByEmail("player2@uni.edu"));
+        assertSame(b, registry.findByEmail("new@uni.edu"));
+
+        assertSame(a, registry.remove(0));
+        assertNull(registry.findById("P101"));
+        assertNull(registry.findByUsername("user1"));
+        assertSame(b, registry.get(0));
+        assertFalse(registry.reindex(a));
+    }
+
+    @Test
+    void merge_matchesByIdThenEmail_andCountsPerPolicy() {
+        ParticipantRegistry registry = new ParticipantRegistry();
+        Participant loaded = participant(1);
+        registry.add(loaded);
+
+        Participant sameId = participant(1);
+        sameId.setSkillLevel(9);
+        Participant sameEmail = participant(2);
+        sameEmail.setEmail("PLAYER1@uni.edu");
+        sameEmail.setId(null);
+        Participant fresh = participant(3);
+        Participant freshAgain = participant(3);    // the same row twice in one file
+        freshAgain.setRole("Defender");
+
+        MergeResult skip = registry.merge(List.of(sameId, sameEmail, fresh, freshAgain), MergePolicy.SKIP, 0L);
+        assertEquals(1, skip.getInserted());
+        assertEquals(0, skip.getUpdated());
+        assertEquals(3, skip.getSkipped());
+        assertEquals(2, registry.size());
+        assertEquals(5, loaded.getSkillLevel());
+
+        MergeResult replace = registry.merge(List.of(sameId, freshAgain), MergePolicy.REPLACE, 0L);
+        assertEquals(0, replace.getInserted());
+        assertEquals(2, replace.getUpdated());
+        assertSame(loaded, registry.findById("P101"), "matches are updated in place");
+        assertEquals(9, loaded.getSkillLevel());
+        assertEquals("Defender", fresh.getRole());
+
+        // nothing differs any more, so re-importing the same rows changes nothing
+        MergeResult again = registry.merge(List.of(sameId, freshAgain), MergePolicy.REPLACE, 0L);
+        assertEquals(2, again.getSkipped());
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    void merge_newestWins_comparesTheFileTimeWithTheLastChange() {
+        ParticipantRegistry registry = new ParticipantRegistry();
+        Participant loaded = participant(1);
+        registry.merge(List.of(loaded), MergePolicy.NEWEST_WINS, 1_000L);
+
+        Participant older = participant(1);
+        older.setSkillLevel(2);
+        assertEquals(1, registry.merge(List.of(older), MergePolicy.NEWEST_WINS, 500L).getSkipped());
+        assertEquals(5, loaded.getSkillLevel());
+
+        Participant newer = participant(1);
+        newer.setSkillLevel(8);
+        assertEquals(1, registry.merge(List.of(newer), MergePolicy.NEWEST_WINS, 2_000L).getUpdated());
+        assertEquals(8, loaded.getSkillLevel());
+
+        // an edit made in the app (e.g. a survey) is newer than any file written before it
+        registry.touch(loaded);
+        Participant stale = participant(1);
+        stale.setSkillLevel(1);
+        assertEquals(1, registry.merge(List.of(stale), MergePolicy.NEWEST_WINS, 3_000L).getSkipped());
+        assertEquals(8, loaded.getSkillLevel());
+    }
+}
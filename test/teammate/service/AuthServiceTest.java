@@ -5,18 +5,29 @@ import teammate.model.Participant;
 import teammate.model.Organizer;
 
 import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Map;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class AuthServiceTest {
 
     private AuthService authService;
+    private PrintStream originalOut;
 
     // only use a test file for participants
     private static final String ACCOUNTS_FILE =
@@ -24,24 +35,25 @@ class AuthServiceTest {
 
     @BeforeEach
     void setup() throws Exception {
+        // signup, survey and save messages are not asserted on; keep them out of the test output
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
         // 1) delete any previous test participant file
         Path accPath = Paths.get(ACCOUNTS_FILE);
         Files.deleteIfExists(accPath);
+        Files.deleteIfExists(Paths.get(ACCOUNTS_FILE + ".journal"));
+        Files.deleteIfExists(Paths.get(ACCOUNTS_FILE + ".tmp"));
 
         // 2) create service (this will load REAL csv)
         authService = new AuthService();
 
         // 3) now override all static in-memory state so tests are clean and predictable
 
-        // clear participant maps
-        clearStaticMap("participantCredentials");
-        clearStaticMap("participantProfiles");
-        clearStaticMap("participantIds");
-
-        // reset nextGeneratedNumericId = 101
-        Field idField = AuthService.class.getDeclaredField("nextGeneratedNumericId");
-        idField.setAccessible(true);
-        idField.setInt(null, 101);
+        // clear participant accounts and reset the next generated ID to 101
+        Field accountsField = AuthService.class.getDeclaredField("accounts");
+        accountsField.setAccessible(true);
+        ((AccountRepository) accountsField.get(null)).reset(101);
 
         // set a known organizer account: admin / abcd
         Field orgField = AuthService.class.getDeclaredField("organizerAccount");
@@ -50,13 +62,13 @@ class AuthServiceTest {
         orgField.set(null, testOrg);
     }
 
-    // helper to clear private static final maps
-    @SuppressWarnings("unchecked")
-    private void clearStaticMap(String fieldName) throws Exception {
-        Field f = AuthService.class.getDeclaredField(fieldName);
-        f.setAccessible(true);
-        Map<?, ?> map = (Map<?, ?>) f.get(null); // static → null
-        map.clear();
+    // the journal and the compaction temp file would otherwise be replayed by the next run
+    @AfterEach
+    void cleanup() throws Exception {
+        System.setOut(originalOut);
+        Files.deleteIfExists(Paths.get(ACCOUNTS_FILE));
+        Files.deleteIfExists(Paths.get(ACCOUNTS_FILE + ".journal"));
+        Files.deleteIfExists(Paths.get(ACCOUNTS_FILE + ".tmp"));
     }
 
     // ------------------------------------------------------------
@@ -110,6 +122,45 @@ class AuthServiceTest {
         assertEquals("abcd", p.getPassword());
     }
 
+    @Test
+    void testConcurrentSignups_getDistinctIdsAndOneAccountPerUsername() throws Exception {
+        int threads = 8;
+        int perThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger signedUp = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        // every thread also tries the same "shared" username once; if the prompt
+                        // already sees it taken, the next line is used as the new choice
+                        String own = "user" + Thread.currentThread().getId() + "_" + i;
+                        String input = (i == 0) ? "shared\n" + own + "\nabcd\nabcd\n" : own + "\nabcd\nabcd\n";
+                        Participant p = authService.participantSignup(new Scanner(input), ACCOUNTS_FILE);
+                        if (p != null) {
+                            signedUp.incrementAndGet();
+                            ids.add(p.getId());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // unique names always succeed; a thread that lost the race for "shared" after the prompt
+        // gets null instead of a second account
+        assertTrue(signedUp.get() >= threads * (perThread - 1) + 1);
+        assertTrue(signedUp.get() <= threads * perThread);
+        assertEquals(signedUp.get(), ids.size());
+        assertNotNull(authService.participantLogin(new Scanner("SHARED\nabcd\n")));
+    }
+
     // ------------------------------------------------------------
     // TEST PARTICIPANT LOGIN
     // ------------------------------------------------------------
@@ -156,6 +207,72 @@ class AuthServiceTest {
         assertTrue(txt.contains("Participant_101"));
     }
 
+    @Test
+    void testSaveAfterSurvey_appendsOneJournalRecordAndReloadReplaysIt() throws Exception {
+        authService.participantSignup(new Scanner("john\nabcd\nabcd\n"), ACCOUNTS_FILE);
+        authService.participantSignup(new Scanner("mary\nwxyz\nwxyz\n"), ACCOUNTS_FILE);
+        authService.saveAllAccountsToFile(ACCOUNTS_FILE);      // no CSV yet -> full snapshot
+        String snapshot = Files.readString(Path.of(ACCOUNTS_FILE));
+        Path journal = Path.of(ACCOUNTS_FILE + ".journal");
+        assertFalse(Files.exists(journal));
+
+        // survey result for john only
+        Participant john = authService.participantLogin(new Scanner("john\nabcd\n"));
+        john.setPreferredGame("Chess");
+        john.setSkillLevel(9);
+        john.setPersonalityScore(88);
+        john.setPersonalityType("Leader");
+        authService.markAccountChanged(john);
+        authService.saveAllAccountsToFile(ACCOUNTS_FILE);
+        authService.saveAllAccountsToFile(ACCOUNTS_FILE);      // nothing changed -> nothing appended
+
+        assertEquals(snapshot, Files.readString(Path.of(ACCOUNTS_FILE)));
+        List<String> records = Files.readAllLines(journal);
+        assertEquals(1, records.size());
+        assertTrue(records.get(0).startsWith("U,john,"));
+
+        assertTrue(authService.deleteParticipantAccount("MARY", ACCOUNTS_FILE));
+        // a crash in the middle of the next write leaves a line without '\n'
+        Files.writeString(journal, "U,ann,YWJjZA==,P1", StandardOpenOption.APPEND);
+
+        // restart: snapshot + journal
+        Field accountsField = AuthService.class.getDeclaredField("accounts");
+        accountsField.setAccessible(true);
+        ((AccountRepository) accountsField.get(null)).reset(101);
+        AuthService.loadParticipantAccounts(ACCOUNTS_FILE);
+
+        Participant reloaded = authService.participantLogin(new Scanner("john\nabcd\n"));
+        assertNotNull(reloaded);
+        assertEquals("Chess", reloaded.getPreferredGame());
+        assertEquals(9, reloaded.getSkillLevel());
+        assertEquals("Leader", reloaded.getPersonalityType());
+        assertNull(authService.participantLogin(new Scanner("mary\nwxyz\n")));
+        assertNull(authService.participantLogin(new Scanner("ann\nabcd\n")));
+    }
+
+    @Test
+    void testJournalIsCompactedIntoTheCsvOnceItGrows() throws Exception {
+        authService.participantSignup(new Scanner("john\nabcd\nabcd\n"), ACCOUNTS_FILE);
+        authService.saveAllAccountsToFile(ACCOUNTS_FILE);
+        Participant john = authService.participantLogin(new Scanner("john\nabcd\n"));
+
+        Path journal = Path.of(ACCOUNTS_FILE + ".journal");
+        boolean sawJournal = false;
+        for (int i = 1; i <= 300; i++) {
+            john.setPersonalityScore(i);
+            authService.markAccountChanged(john);
+            authService.saveAllAccountsToFile(ACCOUNTS_FILE);
+            sawJournal |= Files.exists(journal);
+        }
+
+        assertTrue(sawJournal);
+        long journalLines = Files.exists(journal) ? Files.readAllLines(journal).size() : 0;
+        assertTrue(journalLines < 300, "journal should have been compacted");
+        authService.compactAccountsFile(ACCOUNTS_FILE);
+        assertFalse(Files.exists(journal));
+        assertTrue(Files.readString(Path.of(ACCOUNTS_FILE)).contains(",300,"));
+    }
+
     // ------------------------------------------------------------
     // TEST ORGANIZER LOGIN
     // ------------------------------------------------------------
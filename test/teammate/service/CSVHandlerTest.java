@@ -2,7 +2,9 @@ package teammate.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import teammate.model.AttributeDictionary;
 import teammate.model.Participant;
+import teammate.model.ParticipantStore;
 import teammate.model.Team;
 
 import java.io.File;
@@ -244,7 +246,229 @@ class CSVHandlerTest {
         assertTrue(new File(path).exists(), "CSV should be created even if folder was missing");
     }
 
+    @Test
+    void loadParticipantStore_buildsColumnsInRowOrder() throws Exception {
+        File temp = File.createTempFile("participants_store", ".csv");
+        temp.deleteOnExit();
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(temp))) {
+            pw.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            pw.println("P101,Alice,alice@mail.com,Valorant,8,Strategist,20,Leader");
+            pw.println("P102,Bob,bob@mail.com,FIFA,5,Defender,15,Thinker");
+        }
+
+        ParticipantStore store = csvHandler.loadParticipantStore(temp.getAbsolutePath(), logger);
+
+        assertEquals(2, store.size());
+        assertEquals(8, store.skill(0));
+        assertEquals(5, store.skill(1));
+        assertEquals(AttributeDictionary.GAMES.codeOf("Valorant"), store.gameCode(0));
+        assertEquals(AttributeDictionary.ROLES.codeOf("Defender"), store.roleCode(1));
+        assertEquals(AttributeDictionary.PERSONALITY_THINKER, store.personality(1));
+        assertEquals(20, store.personalityScore(0));
+        assertEquals("Alice", store.participant(0).getName());
+    }
+
+    @Test
+    void loadParticipants_quotedFieldsWithCommas_areKeptWhole() throws Exception {
+        File temp = File.createTempFile("participants_quoted", ".csv");
+        temp.deleteOnExit();
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(temp))) {
+            pw.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            pw.print("P101,\"Silva, Ana\",ana@mail.com,\"Valorant\", 7 ,Strategist,30,Leader\r\n");
+            pw.print("P102,\"Bob \"\"The Wall\"\"\",bob@mail.com,FIFA,5,Defender,15,Thinker\r\n");
+        }
+
+        ArrayList<Participant> list = csvHandler.loadParticipants(temp.getAbsolutePath(), logger);
+
+        assertEquals(2, list.size());
+        assertEquals("Silva, Ana", list.get(0).getName());
+        assertEquals("Valorant", list.get(0).getPreferredGame());
+        assertEquals(7, list.get(0).getSkillLevel());
+        assertEquals("Bob \"The Wall\"", list.get(1).getName());
+        assertEquals("Thinker", list.get(1).getPersonalityType());
+    }
+
+    @Test
+    void csvTokenizer_parsesIntsInPlace_andReportsStartLine() throws Exception {
+        CsvTokenizer csv = new CsvTokenizer(new java.io.StringReader(
+                "a,\"multi\nline\",-2147483648\n  \nx,+42,2147483648,,\n"));
+
+        assertTrue(csv.nextRecord());
+        assertEquals(1, csv.lineNumber());
+        assertEquals("multi\nline", csv.field(1));
+        assertEquals(Integer.MIN_VALUE, csv.intField(2));
+
+        assertTrue(csv.nextRecord());
+        assertEquals(3, csv.lineNumber());
+        assertTrue(csv.isBlankRecord());
+
+        assertTrue(csv.nextRecord());
+        assertEquals(4, csv.lineNumber());
+        assertEquals(5, csv.fieldCount());
+        assertEquals(3, csv.presentFieldCount());
+        assertEquals(42, csv.intField(1));
+        assertThrows(NumberFormatException.class, () -> csv.intField(2));
+        assertThrows(NumberFormatException.class, () -> csv.intField(3));
+        assertSame(csv.internedField(0), csv.internedField(0));
+
+        assertFalse(csv.nextRecord());
+    }
+
+    @Test
+    void loadParticipantStore_mappedParallel_matchesStreamingRowsAndWarningLines() throws Exception {
+        File temp = File.createTempFile("participants_mapped", ".csv");
+        temp.deleteOnExit();
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(temp))) {
+            pw.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            for (int i = 0; i < 2000; i++) {
+                if (i % 97 == 0) pw.println("P" + i + ",Short" + i + ",s@mail.com");          // missing columns
+                else if (i % 101 == 0) pw.println("P" + i + ",Bad" + i + ",b@mail.com,FIFA,x" + i + ",Defender,10,Leader");
+                else if (i % 50 == 0) pw.println();
+                else pw.println("P" + i + ",Name" + i + ",n" + i + "@mail.com,Valorant," + (1 + i % 10) + ",Strategist,20,Thinker");
+            }
+        }
+
+        java.io.PrintStream original = System.out;
+        java.io.ByteArrayOutputStream streamOut = new java.io.ByteArrayOutputStream();
+        java.io.ByteArrayOutputStream mappedOut = new java.io.ByteArrayOutputStream();
+        ParticipantStore streamed;
+        ParticipantStore mapped;
+        try {
+            System.setOut(new java.io.PrintStream(streamOut, true));
+            streamed = csvHandler.loadParticipantStore(temp.getAbsolutePath(), logger, 1);
+            System.setOut(new java.io.PrintStream(mappedOut, true));
+            mapped = csvHandler.loadParticipantStore(temp.getAbsolutePath(), logger, 8);
+        } finally {
+            System.setOut(original);
+        }
+
+        assertTrue(streamed.size() > 1800);
+        assertEquals(streamed.size(), mapped.size());
+        for (int i = 0; i < streamed.size(); i++) {
+            assertEquals(streamed.participant(i).getName(), mapped.participant(i).getName());
+        }
+        assertTrue(streamOut.toString().contains("Warning: Line 2 missing columns. Skipping."));
+        assertTrue(streamOut.toString().contains("Warning: Invalid skill value on line 103 (x101). Skipping."));
+        assertEquals(streamOut.toString(), mappedOut.toString());
+    }
 
+    @Test
+    void loadParticipantStore_mappedParallel_quotedLineBreaksAcrossChunks_fallsBackToStreaming() throws Exception {
+        File temp = File.createTempFile("participants_mapped_quoted", ".csv");
+        temp.deleteOnExit();
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(temp))) {
+            pw.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            pw.print("P1,\"Long");
+            for (int i = 0; i < 200; i++) pw.print("\nline " + i);
+            pw.println("\",long@mail.com,Chess,4,Attacker,30,Balanced");
+            pw.println("P2,Bob,bob@mail.com,FIFA,5,Defender,15,Thinker");
+        }
+
+        ParticipantStore store = csvHandler.loadParticipantStore(temp.getAbsolutePath(), logger, 8);
 
+        assertEquals(2, store.size());
+        assertTrue(store.participant(0).getName().endsWith("line 199"));
+        assertEquals("Bob", store.participant(1).getName());
+    }
 
+    @Test
+    void loadParticipantStore_eventSinks_keepOutputOffTheConsole() throws Exception {
+        File temp = File.createTempFile("participants_sinks", ".csv");
+        temp.deleteOnExit();
+
+        try (PrintWriter pw = new PrintWriter(new FileWriter(temp))) {
+            pw.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType");
+            pw.println("P1,Broken");
+            pw.println("P2,Bob,bob@mail.com,FIFA,x,Defender,15,Thinker");
+            pw.println("P3,Cara,cara@mail.com,Chess,4,Attacker,30,Balanced");
+        }
+
+        MetricsEventSink metrics = new MetricsEventSink();
+        BufferedEventSink buffered = new BufferedEventSink();
+        java.io.ByteArrayOutputStream console = new java.io.ByteArrayOutputStream();
+        java.io.PrintStream original = System.out;
+        ParticipantStore counted;
+        try {
+            System.setOut(new java.io.PrintStream(console, true));
+            counted = new CSVHandler(metrics).loadParticipantStore(temp.getAbsolutePath(), logger);
+            new CSVHandler(buffered).loadParticipantStore(temp.getAbsolutePath(), logger);
+            new CSVHandler(EventSink.none()).loadParticipantStore(temp.getAbsolutePath(), logger);
+        } finally {
+            System.setOut(original);
+        }
+
+        assertEquals(1, counted.size());
+        assertEquals("", console.toString());
+        assertEquals(2, metrics.count("csv.warning"));
+        assertEquals(1, metrics.count("csv.loaded"));
+
+        List<String> lines = buffered.drain();
+        assertTrue(lines.contains("Warning: Line 2 missing columns. Skipping."));
+        assertTrue(lines.contains("Warning: Invalid skill value on line 3 (x). Skipping."));
+        assertEquals(0, buffered.size());
+    }
+
+    @Test
+    void saveTeamsAuto_writesIdColumnAndQuotesValuesThatNeedIt() throws Exception {
+        Participant p1 = new Participant("Smith, Ann", "ann@mail.com", "Chess", 6, "Attacker");
+        p1.setId("P7");
+        p1.setPersonalityType("Leader");
+        Participant p2 = new Participant("Zoë \"Z\"", "zoe@mail.com", "FIFA", 10, "Defender");
+        p2.setId("P8");
+        p2.setPersonalityType("Thinker");
+        Team team = new Team("Team 1");
+        team.addMember(p1);
+        team.addMember(p2);
+
+        java.nio.file.Path folder = Files.createTempDirectory("teams_export");
+        String path = csvHandler.saveTeamsAuto(List.of(team), folder, false, logger);
+
+        assertNotNull(path);
+        List<String> lines = Files.readAllLines(java.nio.file.Path.of(path), java.nio.charset.StandardCharsets.UTF_8);
+        assertEquals(TeamCsvExporter.HEADER, lines.get(0));
+        assertEquals("Team 1,P7,\"Smith, Ann\",ann@mail.com,Chess,6,Attacker,Leader", lines.get(1));
+        assertEquals("Team 1,P8,\"Zoë \"\"Z\"\"\",zoe@mail.com,FIFA,10,Defender,Thinker", lines.get(2));
+        assertEquals("", lines.get(3));
+
+        // the participant loader reads the quoted values back unchanged
+        try (java.io.Reader in = Files.newBufferedReader(java.nio.file.Path.of(path))) {
+            CsvTokenizer csv = new CsvTokenizer(in);
+            assertTrue(csv.nextRecord());
+            assertTrue(csv.nextRecord());
+            assertEquals("Smith, Ann", csv.field(2));
+            assertTrue(csv.nextRecord());
+            assertEquals("Zoë \"Z\"", csv.field(2));
+        }
+    }
+
+    @Test
+    void saveTeamsAuto_gzip_matchesPlainExport() throws Exception {
+        List<Team> teams = new ArrayList<>();
+        for (int t = 0; t < 50; t++) {
+            Team team = new Team("Team " + (t + 1));
+            for (int m = 0; m < 5; m++) {
+                Participant p = new Participant("User" + t + "_" + m, "u" + t + m + "@mail.com", "Valorant", m + 1, "Support");
+                p.setId("P" + (100 + t * 5 + m));
+                p.setPersonalityType("Balanced");
+                team.addMember(p);
+            }
+            teams.add(team);
+        }
+
+        java.io.ByteArrayOutputStream plain = new java.io.ByteArrayOutputStream();
+        assertEquals(250, new TeamCsvExporter(64).write(teams, plain));
+
+        java.nio.file.Path folder = Files.createTempDirectory("teams_export_gz");
+        String path = csvHandler.saveTeamsAuto(teams, folder, true, logger);
+
+        assertNotNull(path);
+        assertTrue(path.endsWith(".csv.gz"));
+        try (java.util.zip.GZIPInputStream in = new java.util.zip.GZIPInputStream(Files.newInputStream(java.nio.file.Path.of(path)))) {
+            assertArrayEquals(plain.toByteArray(), in.readAllBytes());
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package teammate.service;
+
+import org.junit.jupiter.api.Test;
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactTeamSolverTest {
+
+    private static final String[] GAMES = {"Chess", "FIFA", "Valorant", "DOTA 2", "CS:GO", "Basketball"};
+    private static final String[] ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
+    private static final String[] TYPES = {"Leader", "Balanced", "Thinker"};
+
+    // games / roles / types drawn from the first `spread` options, so small spreads force penalties
+    private static ArrayList<Participant> participants(int n, int spread, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ArrayList<Participant> list = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Participant p = new Participant("Player " + i, "player" + i + "@uni.edu",
+                    GAMES[random.nextInt(Math.min(spread, GAMES.length))], 1 + random.nextInt(10),
+                    ROLES[random.nextInt(Math.min(spread, ROLES.length))]);
+            p.setPersonalityType(TYPES[random.nextInt(Math.min(spread, TYPES.length))]);
+            list.add(p);
+        }
+        return list;
+    }
+
+    private static double average(List<Participant> participants) {
+        return participants.stream().mapToInt(Participant::getSkillLevel).average().orElse(0.0);
+    }
+
+    // lowest objective over every assignment into `teams` teams of [minSize, teamSize] members
+    private static double bruteForce(List<Participant> participants, int teams, int minSize, int teamSize) {
+        int[] assign = new int[participants.size()];
+        double[] best = {Double.MAX_VALUE};
+        bruteForce(participants, assign, 0, teams, minSize, teamSize, average(participants), best);
+        return best[0];
+    }
+
+    private static void bruteForce(List<Participant> participants, int[] assign, int i, int teams,
+                                   int minSize, int teamSize, double avg, double[] best) {
+        if (i == assign.length) {
+            List<Team> formed = new ArrayList<>();
+            for (int t = 0; t < teams; t++) formed.add(new Team("Team " + t));
+            for (int j = 0; j < assign.length; j++) formed.get(assign[j]).addMember(participants.get(j));
+            for (Team t : formed) {
+                if (t.size() < minSize || t.size() > teamSize) return;
+            }
+            best[0] = Math.min(best[0], FormationObjective.evaluate(formed, avg));
+            return;
+        }
+        for (int t = 0; t < teams; t++) {
+            assign[i] = t;
+            bruteForce(participants, assign, i + 1, teams, minSize, teamSize, avg, best);
+        }
+    }
+
+    private static void assertEveryoneOnceWithinSizes(List<Participant> participants, List<Team> teams,
+                                                      int minSize, int teamSize) {
+        Map<Participant, Team> seen = new IdentityHashMap<>();
+        for (Team t : teams) {
+            assertTrue(t.size() >= minSize && t.size() <= teamSize, t.getTeamName() + " size " + t.size());
+            for (Participant p : t.getMembers()) {
+                assertNull(seen.put(p, t), p.getName() + " placed twice");
+            }
+        }
+        assertEquals(participants.size(), seen.size());
+    }
+
+    @Test
+    void smallInstances_matchBruteForce_andAreProvenOptimal() {
+        for (int seed = 0; seed < 12; seed++) {
+            int n = 7 + seed % 3;
+            int teamSize = 3 + seed % 2;
+            ArrayList<Participant> list = participants(n, (seed % 2 == 0) ? 6 : 2, seed);
+
+            SolverResult result = new ExactTeamSolver().solve(list, teamSize, null, 0);
+
+            int teams = (n + teamSize - 1) / teamSize;
+            int minSize = Math.min(3, n / teams);       // e.g. 7 players in teams of 3: 3 + 2 + 2
+            assertEquals(teams, result.getTeams().size());
+            assertEveryoneOnceWithinSizes(list, result.getTeams(), minSize, teamSize);
+            assertTrue(result.isOptimal(), "seed " + seed);
+            assertEquals(0.0, result.getGap());
+            assertEquals(bruteForce(list, teams, minSize, teamSize), result.getObjective(), 1e-9, "seed " + seed);
+            assertEquals(FormationObjective.evaluate(result.getTeams(), average(list)), result.getObjective(), 1e-9);
+        }
+    }
+
+    @Test
+    void timeLimit_returnsTheBestTeamsFound_withAValidGap_andNeverWorseThanTheStart() {
+        ArrayList<Participant> list = participants(150, 2, 42);
+        int teamSize = 5;
+        ArrayList<Team> start = new TeamBuilder(EventSink.none())
+                .buildTeams(list, teamSize, LoggerService.getInstance(), new SplittableRandom(1));
+        double startObjective = FormationObjective.evaluate(start, average(list));
+
+        long began = System.nanoTime();
+        SolverResult result = new ExactTeamSolver().solve(list, teamSize, start, 300);
+        long tookMillis = (System.nanoTime() - began) / 1_000_000L;
+
+        assertTrue(tookMillis < 5_000, "took " + tookMillis + " ms");
+        assertEveryoneOnceWithinSizes(list, result.getTeams(), 3, teamSize);
+        assertTrue(result.getObjective() <= startObjective + 1e-9);
+        assertTrue(result.getLowerBound() <= result.getObjective());
+        assertTrue(result.getLowerBound() > 0.0, "skewed games and roles force some penalty");
+        assertFalse(result.isOptimal());
+        assertEquals(result.getObjective() - result.getLowerBound(), result.getGap(), 1e-9);
+        assertTrue(result.getRelativeGap() > 0.0 && result.getRelativeGap() <= 1.0);
+    }
+
+    @Test
+    void rejectsEventsAboveTheLimit() {
+        ArrayList<Participant> list = participants(ExactTeamSolver.MAX_PARTICIPANTS + 1, 6, 3);
+        assertThrows(IllegalArgumentException.class, () -> new ExactTeamSolver().solve(list, 5, null, 100));
+    }
+}
@@ -0,0 +1,72 @@
+package teammate.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitterTest {
+
+    @Test
+    void concurrentSaves_shareWrites_andEveryFutureCompletes() throws Exception {
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch firstWriteStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstWrite = new CountDownLatch(1);
+        GroupCommitter committer = new GroupCommitter("test-saves", 0, 64, file -> {
+            if (started.getAndIncrement() == 0) {
+                firstWriteStarted.countDown();
+                try {
+                    releaseFirstWrite.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        CompletableFuture<Void> first = committer.submit("accounts.csv");
+        assertTrue(firstWriteStarted.await(5, TimeUnit.SECONDS));
+
+        // these arrive while the first write is still running, so they cannot be part of it
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            waiting.add(committer.submit("accounts.csv"));
+        }
+        assertFalse(first.isDone());
+        releaseFirstWrite.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<Void> f : waiting) {
+            f.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(21, committer.requests());
+        assertEquals(2, committer.writes(), "the 20 queued saves should share one write");
+    }
+
+    @Test
+    void failedWrite_failsEveryRequestInTheBatch_andLaterWritesStillRun() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        GroupCommitter committer = new GroupCommitter("test-saves", 50, 2, file -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new IOException("disk full");
+            }
+        });
+
+        CompletableFuture<Void> a = committer.submit("accounts.csv");
+        CompletableFuture<Void> b = committer.submit("accounts.csv");
+        ExecutionException ea = assertThrows(ExecutionException.class, () -> a.get(5, TimeUnit.SECONDS));
+        ExecutionException eb = assertThrows(ExecutionException.class, () -> b.get(5, TimeUnit.SECONDS));
+        assertEquals("disk full", ea.getCause().getMessage());
+        assertSame(ea.getCause(), eb.getCause());
+
+        committer.submit("accounts.csv").get(5, TimeUnit.SECONDS);
+        assertEquals(1, committer.writes());
+    }
+}
@@ -0,0 +1,220 @@
+package teammate.service;
+
+import org.junit.jupiter.api.Test;
+import teammate.model.AttributeDictionary;
+import teammate.model.MergePolicy;
+import teammate.model.MergeResult;
+import teammate.model.Participant;
+import teammate.model.ParticipantRegistry;
+import teammate.model.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalFormationTest {
+
+    private static final String[] GAMES = {"Chess", "FIFA", "Valorant", "DOTA 2", "CS:GO", "Basketball"};
+    private static final String[] ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
+    private static final String[] TYPES = {"Leader", "Balanced", "Thinker"};
+
+    private static Participant participant(int n) {
+        Participant p = new Participant("Player " + n, "player" + n + "@uni.edu",
+                GAMES[n % GAMES.length], 1 + n % 10, ROLES[n % ROLES.length]);
+        p.setId("P" + (100 + n));
+        p.setPersonalityType(TYPES[n % TYPES.length]);
+        return p;
+    }
+
+    private static List<Team> fullTeams(int teamCount, int teamSize) {
+        List<Team> teams = new ArrayList<>();
+        int n = 0;
+        for (int t = 1; t <= teamCount; t++) {
+            Team team = new Team("Team " + t);
+            for (int i = 0; i < teamSize; i++) {
+                team.addMember(participant(n++));
+            }
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    private static int members(List<Team> teams) {
+        int n = 0;
+        for (Team t : teams) n += t.size();
+        return n;
+    }
+
+    private static void assertAggregatesMatchMembers(List<Team> teams) {
+        for (Team t : teams) {
+            int skill = 0;
+            for (Participant p : t.getMembers()) skill += p.getSkillLevel();
+            assertEquals(skill, t.getSkillSum(), t.getTeamName());
+        }
+    }
+
+    @Test
+    void add_waitsWhileTeamsAreFull_thenOpensANewTeamFromThePool() {
+        List<Team> teams = fullTeams(4, 4);
+        IncrementalFormation formation = new IncrementalFormation(teams, 4, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(1));
+
+        assertNull(formation.add(participant(100)));
+        assertNull(formation.add(participant(101)));
+        assertEquals(2, formation.waiting().size());
+
+        Team opened = formation.add(participant(102));
+        assertNotNull(opened);
+        assertEquals(5, formation.teams().size());
+        assertTrue(formation.waiting().isEmpty());
+        assertEquals(19, members(formation.teams()));
+
+        // the new team has room, so the next participant is placed straight away
+        assertNotNull(formation.add(participant(103)));
+        assertEquals(20, members(formation.teams()));
+        assertAggregatesMatchMembers(formation.teams());
+    }
+
+    @Test
+    void remove_backfillsFromThePool_andDissolvesTeamsThatGetTooSmall() {
+        List<Team> teams = fullTeams(3, 3);
+        IncrementalFormation formation = new IncrementalFormation(teams, 3, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(2));
+        Participant waiting = participant(50);
+        assertNull(formation.add(waiting));
+
+        // a restored copy of the member stands for the same person
+        Participant copy = participant(0);
+        assertNotNull(formation.remove(copy));
+        assertSame(formation.teamOf(waiting), formation.teamOf(participant(50)));
+        assertNotNull(formation.teamOf(waiting), "the waiting participant fills the gap");
+        assertEquals(9, members(formation.teams()));
+
+        // nobody waiting: the team that drops below 3 is dissolved; the others are full, so its
+        // two remaining members wait for a team
+        Team shrinking = formation.teamOf(participant(1));
+        formation.remove(participant(1));
+        assertFalse(formation.teams().contains(shrinking));
+        assertEquals(2, formation.teams().size());
+        assertEquals(2, formation.waiting().size());
+        for (Team t : formation.teams()) {
+            assertEquals(3, t.size(), t.getTeamName());
+        }
+        assertAggregatesMatchMembers(formation.teams());
+    }
+
+    @Test
+    void detachEditAdd_keepsTeamTotalsConsistent_andUnchangedMembersStayPut() {
+        List<Team> teams = fullTeams(5, 4);
+        IncrementalFormation formation = new IncrementalFormation(teams, 4, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(3));
+        Participant p = teams.get(2).getMembers().get(1);
+
+        Team previous = formation.detach(p);
+        assertSame(teams.get(2), previous);
+        assertSame(previous, formation.add(p, previous), "nothing changed: back to the same team");
+
+        previous = formation.detach(p);
+        p.setSkillLevel(10);
+        p.setPersonalityType("Leader");
+        assertNotNull(formation.add(p));
+        assertEquals(20, members(formation.teams()));
+        assertAggregatesMatchMembers(formation.teams());
+    }
+
+    @Test
+    void aStrangerWhoOnlySharesAName_isNotTakenForTheMember() {
+        List<Team> teams = fullTeams(3, 3);
+        IncrementalFormation formation = new IncrementalFormation(teams, 3, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(4));
+        Participant waiting = participant(50);
+        formation.add(waiting);
+
+        Participant stranger = new Participant("Player 0", "other@x", "Chess", 5, "Attacker");
+        stranger.setId("P999");
+        assertNull(formation.teamOf(stranger));
+        assertFalse(formation.contains(stranger));
+        assertNull(formation.remove(stranger));
+        assertEquals(9, members(formation.teams()));
+
+        Participant namesake = new Participant("Player 50", "namesake@x", "Chess", 5, "Attacker");
+        namesake.setId("P998");
+        assertNull(formation.remove(namesake));
+        assertEquals(1, formation.waiting().size(), "only the same person leaves the pool");
+    }
+
+    @Test
+    void newTeams_continueAfterTheHighestTeamNumber_whenNumbersHaveGaps() {
+        List<Team> teams = new ArrayList<>();
+        int n = 0;
+        for (String name : new String[]{"Team 1", "Team 2", "Team 5"}) {     // teams 3 and 4 merged away
+            Team team = new Team(name);
+            for (int i = 0; i < 3; i++) team.addMember(participant(n++));
+            teams.add(team);
+        }
+        IncrementalFormation formation = new IncrementalFormation(teams, 3, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(5));
+
+        formation.add(participant(60));
+        formation.add(participant(61));
+        assertNotNull(formation.add(participant(62)));
+
+        assertEquals(4, formation.teams().size());
+        assertEquals("Team 6", formation.teams().get(3).getTeamName());
+    }
+
+    @Test
+    void membersWhoseIdOrEmailChangedWhilePlaced_canStillBeRemoved() {
+        List<Team> teams = fullTeams(4, 4);
+        IncrementalFormation formation = new IncrementalFormation(teams, 4, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(6));
+        Participant p = teams.get(1).getMembers().get(0);
+        p.setId("P900");
+        p.setEmail("renamed@uni.edu");
+
+        assertSame(p, formation.remove(p));
+        assertNull(formation.teamOf(p));
+
+        // the old id and email (participant 4's) no longer resolve to the removed member
+        Participant oldKeys = participant(4);
+        assertNull(formation.teamOf(oldKeys));
+        assertNull(formation.detach(oldKeys));
+        assertNull(formation.remove(oldKeys));
+        assertEquals(15, members(formation.teams()));
+        assertAggregatesMatchMembers(formation.teams());
+    }
+
+    @Test
+    void reImportingAPlacedMember_thenRemovingIt_leavesTheTeamTotalsAtZero() {
+        Participant member = new Participant("Kim", "kim@uni.edu", "Chess", 7, "Strategist");
+        member.setId("P500");
+        member.setPersonalityType("Leader");
+        Team team = new Team("Team 1");
+        team.addMember(member);
+        ParticipantRegistry registry = new ParticipantRegistry();
+        registry.add(member);
+        IncrementalFormation formation = new IncrementalFormation(List.of(team), 4, new TeamBuilder(EventSink.none()),
+                new SplittableRandom(7));
+
+        Participant row = new Participant("Kim", "kim@uni.edu", "FIFA", 3, "Attacker");
+        row.setId("P500");
+        row.setPersonalityType("Thinker");
+        MergeResult merged = registry.merge(List.of(row), MergePolicy.REPLACE, 0L, formation.mergeListener());
+        assertEquals(1, merged.getUpdated());
+        assertSame(team, formation.teamOf(member));
+        assertEquals(1, team.getThinkerCount());
+        assertEquals(0, team.getLeaderCount());
+
+        formation.remove(member);
+        assertEquals(0, team.size());
+        assertEquals(0, team.getSkillSum());
+        assertEquals(0, team.countGame(member.getGameCode()));
+        assertEquals(0, team.countGame(AttributeDictionary.GAMES.codeOf("Chess")));
+        assertEquals(0, team.getLeaderCount());
+        assertEquals(0, team.getThinkerCount());
+        assertEquals(0, team.getDistinctGameCount());
+        assertEquals(0, team.getDistinctRoleCount());
+    }
+}
@@ -0,0 +1,158 @@
+package teammate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerServiceTest {
+
+    // text and binary log files go here instead of src/teammate/Log
+    @TempDir
+    Path logDir;
+
+    private LoggerService logger;
+
+    @BeforeEach
+    void setUp() {
+        logger = new LoggerService(logDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.stopAsync();
+    }
+
+    @Test
+    void asyncMode_writesEveryRecordFromAllThreads_afterFlush() throws Exception {
+        String marker = "async-test-" + System.nanoTime();
+        logger.startAsync();
+        assertTrue(logger.isAsync());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            Thread th = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    logger.info(marker + " t" + id + " #" + i);
+                }
+            });
+            threads.add(th);
+            th.start();
+        }
+        for (Thread th : threads) th.join();
+        logger.error(marker + " failure", new IllegalStateException("boom"));
+        logger.flush();
+
+        assertEquals(20000, countLines("log_", marker));
+        assertEquals(1, countLines("error.log", marker + " failure"));
+    }
+
+    @Test
+    void stopAsync_drainsQueue_andFallsBackToDirectWrites() throws Exception {
+        String marker = "async-stop-" + System.nanoTime();
+        logger.startAsync();
+        for (int i = 0; i < 1000; i++) {
+            logger.info(marker + " queued " + i);
+        }
+        logger.stopAsync();
+        assertFalse(logger.isAsync());
+
+        logger.info(marker + " direct");
+
+        assertEquals(1000, countLines("log_", marker + " queued"));
+        assertEquals(1, countLines("log_", marker + " direct"));
+    }
+
+    @Test
+    void levelThreshold_dropsLowerLevels_withoutEvaluatingSuppliers() throws Exception {
+        String marker = "level-test-" + System.nanoTime();
+        logger.setLevel(LogLevel.INFO);
+        java.util.concurrent.atomic.AtomicInteger calls = new java.util.concurrent.atomic.AtomicInteger();
+
+        logger.debug(() -> marker + " supplier " + calls.incrementAndGet());
+        logger.debug("{} template", marker);
+        logger.warn("{} warned {}", marker, 3);
+        assertFalse(logger.isDebugEnabled());
+        assertEquals(0, calls.get());
+
+        logger.setLevel(LogLevel.DEBUG);
+        logger.debug(() -> marker + " supplier " + calls.incrementAndGet());
+
+        assertEquals(1, calls.get());
+        assertEquals(0, countLines("log_", marker + " template"));
+        assertEquals(1, countLines("log_", "DEBUG: " + marker + " supplier 1"));
+        assertEquals(1, countLines("log_", "WARN: " + marker + " warned 3"));
+    }
+
+    @Test
+    void templates_areFilledInOrder_inBothModes() throws Exception {
+        assertEquals("a=1 b=x c={}", LoggerService.format("a={} b={} c={}", new Object[]{1, "x"}));
+        assertEquals("no args", LoggerService.format("no args", new Object[]{1}));
+
+        String marker = "template-test-" + System.nanoTime();
+        logger.info("{} size={} avg={}", marker, 5, 4.5);
+        logger.startAsync();
+        logger.info("{} async size={} avg={}", marker, 6, 5.5);
+        logger.flush();
+
+        assertEquals(1, countLines("log_", "] " + marker + " size=5 avg=4.5"));
+        assertEquals(1, countLines("log_", "] " + marker + " async size=6 avg=5.5"));
+    }
+
+    @Test
+    void binaryMode_decodesToTheSameTextLines() throws Exception {
+        String marker = "binary-test-" + System.nanoTime();
+        logger.setLevel(LogLevel.DEBUG);
+        logger.startAsync(LogFormat.BINARY);
+        for (int i = 0; i < 3; i++) {
+            logger.info("Team summary: {} | size={} | avgSkill={} | ok={}", marker + " Team " + i, 5, 4.5 + i, true);
+        }
+        logger.debug("{} moved {} from {}", marker, -7L, null);
+        logger.info(marker + " plain text, with {} braces");
+        logger.stopAsync();
+
+        // a second session appends to the same hourly file
+        logger.startAsync(LogFormat.BINARY);
+        logger.warn("{} after reopen {}", marker, "x");
+        logger.stopAsync();
+
+        List<String> lines = new ArrayList<>();
+        File[] bins = logDir.toFile().listFiles((d, name) -> name.endsWith(".bin"));
+        assertNotNull(bins);
+        assertEquals(1, bins.length);
+        for (File f : bins) {
+            BinaryLogReader.decode(f.toPath(), line -> {
+                if (line.contains(marker)) lines.add(line);
+            });
+        }
+
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}] Team summary: .*"));
+        assertTrue(lines.get(2).endsWith("Team summary: " + marker + " Team 2 | size=5 | avgSkill=6.5 | ok=true"));
+        assertTrue(lines.get(3).endsWith("] DEBUG: " + marker + " moved -7 from null"));
+        assertTrue(lines.get(4).endsWith("] " + marker + " plain text, with {} braces"));
+        assertTrue(lines.get(5).endsWith("] WARN: " + marker + " after reopen x"));
+        assertEquals(0, countLines("log_", "] Team summary: " + marker));
+    }
+
+    // lines containing `text` in every text log file whose name starts with `prefix`
+    private long countLines(String prefix, String text) throws Exception {
+        File[] files = logDir.toFile().listFiles(
+                (d, name) -> name.startsWith(prefix) && !name.endsWith(".bin"));
+        assertNotNull(files);
+        long count = 0;
+        for (File f : files) {
+            count += Files.readAllLines(f.toPath()).stream().filter(l -> l.contains(text)).count();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package teammate.service;
+
+import org.junit.jupiter.api.Test;
+import teammate.model.AttributeDictionary;
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlacementScorerTest {
+
+    private static final String[] GAMES = {"Chess", "FIFA", "Valorant", "DOTA 2", "CS:GO", "Basketball"};
+    private static final String[] ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
+    private static final String[] TYPES = {"Leader", "Balanced", "Thinker"};
+
+    private static List<Team> randomTeams(Random random) {
+        List<Team> teams = new ArrayList<>();
+        for (int t = 0; t < 200; t++) {
+            Team team = new Team("Team " + t);
+            int size = random.nextInt(8);
+            for (int i = 0; i < size; i++) {
+                Participant p = new Participant("P", "p@uni.edu", GAMES[random.nextInt(GAMES.length)],
+                        1 + random.nextInt(10), ROLES[random.nextInt(ROLES.length)]);
+                p.setPersonalityType(TYPES[random.nextInt(TYPES.length)]);
+                team.addMember(p);
+            }
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    private static void assertSameScores(PlacementScorer expected, PlacementScorer actual) {
+        Random random = new Random(11);
+        for (Team t : randomTeams(random)) {
+            for (int probe = 0; probe < 20; probe++) {
+                int skill = 1 + random.nextInt(10);
+                int game = AttributeDictionary.GAMES.codeOf(GAMES[random.nextInt(GAMES.length)]);
+                int role = AttributeDictionary.ROLES.codeOf(ROLES[random.nextInt(ROLES.length)]);
+                int type = random.nextInt(3);
+                double avg = 1 + random.nextDouble() * 9;
+                assertEquals(expected.score(t, skill, game, role, type, avg),
+                        actual.score(t, skill, game, role, type, avg));
+            }
+        }
+        for (int type = 0; type < 3; type++) {
+            assertEquals(expected.maxScore(type), actual.maxScore(type));
+        }
+    }
+
+    @Test
+    void weightedScorer_withDefaultWeights_scoresExactlyLikeTheBuiltInRules() throws Exception {
+        assertSameScores(PlacementScorer.standard(), WeightedPlacementScorer.fromProperties(new Properties()));
+        assertSameScores(PlacementScorer.standard(),
+                WeightedPlacementScorer.load(Path.of("src/teammate/config/scoring.example.properties")));
+    }
+
+    @Test
+    void weightedScorer_appliesCustomWeights_andRejectsBadValues() {
+        Properties weights = new Properties();
+        weights.setProperty("game.maxPerTeam", "1");
+        weights.setProperty("game.overCapScore", "-50");
+        weights.setProperty("skill.penaltyPerUnit", "0");
+        PlacementScorer scorer = WeightedPlacementScorer.fromProperties(weights);
+
+        Participant chess = new Participant("A", "a@uni.edu", "Chess", 5, "Attacker");
+        chess.setPersonalityType("Balanced");
+        Team team = new Team("Team 1");
+        team.addMember(chess);
+        int chessCode = AttributeDictionary.GAMES.codeOf("Chess");
+        int defender = AttributeDictionary.ROLES.codeOf("Defender");
+
+        // one Chess player already reaches the cap of 1: -50, new role below the minimum +15, balanced +4
+        assertEquals(-50 + 15 + 4,
+                scorer.score(team, 5, chessCode, defender, AttributeDictionary.PERSONALITY_BALANCED, 5.0));
+        assertEquals(5 + 15 + 4, scorer.maxScore(AttributeDictionary.PERSONALITY_BALANCED));
+
+        Properties bad = new Properties();
+        bad.setProperty("leader.maxPerTeam", "two");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> WeightedPlacementScorer.fromProperties(bad));
+        assertTrue(e.getMessage().contains("leader.maxPerTeam"));
+    }
+
+    @Test
+    void weightedScorer_rejectsANegativeSkillPenalty_soScoresStayWithinMaxScore() {
+        // a negative penalty would add points and push score() above maxScore(), breaking the early exit
+        for (String value : new String[]{"-0.5", "NaN", "Infinity"}) {
+            Properties bad = new Properties();
+            bad.setProperty("skill.penaltyPerUnit", value);
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> WeightedPlacementScorer.fromProperties(bad), value);
+            assertTrue(e.getMessage().contains("skill.penaltyPerUnit"));
+        }
+
+        Properties zero = new Properties();
+        zero.setProperty("skill.penaltyPerUnit", "0");
+        WeightedPlacementScorer scorer = WeightedPlacementScorer.fromProperties(zero);
+        Team team = new Team("T");
+        int score = scorer.score(team, 10, 1, 1, AttributeDictionary.PERSONALITY_LEADER, 1.0);
+        assertTrue(score <= scorer.maxScore(AttributeDictionary.PERSONALITY_LEADER));
+    }
+}
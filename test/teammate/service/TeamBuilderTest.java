@@ -1,11 +1,15 @@
 package teammate.service;
 
 import org.junit.jupiter.api.Test;
+import teammate.model.AttributeDictionary;
 import teammate.model.Participant;
+import teammate.model.ParticipantStore;
 import teammate.model.Team;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -250,20 +254,47 @@ class TeamBuilderTest {
     }
 
     @Test
-    void safeLower_handlesNull() {
-        TeamBuilder builder = new TeamBuilder();
-        String result = invokeSafeLower(builder, null);
-        assertEquals("", result, "safeLower(null) must return empty string");
+    void normalise_handlesNull() {
+        assertEquals("", AttributeDictionary.normalise(null), "normalise(null) must return empty string");
     }
 
-    private String invokeSafeLower(TeamBuilder b, String s) {
-        try {
-            var m = TeamBuilder.class.getDeclaredMethod("safeLower", String.class);
-            m.setAccessible(true);
-            return (String) m.invoke(b, s);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+    @Test
+    void attributeCodes_ignoreCaseAndWhitespace_andExtendForUnknownValues() {
+        Participant a = createParticipant("A", "Valorant", 5, "Attacker", "leader");
+        Participant b = createParticipant("B", " valorant ", 5, "ATTACKER", "Balanced");
+        Participant c = createParticipant("C", "Table Tennis", 5, "Goalkeeper", null);
+
+        assertEquals(a.getGameCode(), b.getGameCode());
+        assertEquals(a.getRoleCode(), b.getRoleCode());
+        assertEquals(AttributeDictionary.PERSONALITY_LEADER, a.getPersonalityCode());
+        assertEquals(AttributeDictionary.PERSONALITY_BALANCED, c.getPersonalityCode());
+
+        // unknown CSV values get their own new codes
+        assertNotEquals(a.getGameCode(), c.getGameCode());
+        assertNotEquals(AttributeDictionary.EMPTY, c.getRoleCode());
+        assertEquals("Table Tennis", AttributeDictionary.GAMES.labelOf(c.getGameCode()));
+        // original spelling is kept for display
+        assertEquals(" valorant ", b.getPreferredGame());
+    }
+
+    @Test
+    void attributeCodes_pastTheLimit_shareOverflow_whichIsNeverCounted() {
+        // own dictionary, so the shared GAMES / ROLES codes are not used up for other tests
+        AttributeDictionary dictionary = new AttributeDictionary(new String[]{"Chess"});
+        for (int i = 0; i < 300; i++) {
+            dictionary.codeOf("Game " + i);
         }
+
+        assertEquals(AttributeDictionary.OVERFLOW - 1, dictionary.codeOf("Game 252"));
+        assertEquals(AttributeDictionary.OVERFLOW, dictionary.codeOf("Game 253"));
+        assertEquals(AttributeDictionary.OVERFLOW, dictionary.codeOf("game 299"));
+        assertEquals("Other", dictionary.labelOf(AttributeDictionary.OVERFLOW));
+        assertEquals(AttributeDictionary.MAX_CODES, dictionary.size());
+
+        assertTrue(AttributeDictionary.isCounted(dictionary.codeOf("Game 252")));
+        assertFalse(AttributeDictionary.isCounted(AttributeDictionary.OVERFLOW));
+        assertFalse(AttributeDictionary.isCounted(AttributeDictionary.EMPTY));
+        assertFalse(new Team("T").hasRole(AttributeDictionary.OVERFLOW));
     }
 
     @Test
@@ -312,12 +343,259 @@ class TeamBuilderTest {
 
         ArrayList<Team> list = new ArrayList<>(List.of(t1, t2, t3));
 
-        var method = TeamBuilder.class.getDeclaredMethod("findTeamWithLowestSize", List.class, Team.class);
+        var method = TeamBuilder.class.getDeclaredMethod("findTeamWithLowestSize", List.class, Team.class, boolean.class);
         method.setAccessible(true);
 
-        Team result = (Team) method.invoke(builder, list, t2);
+        Team result = (Team) method.invoke(builder, list, t2, true);
 
         assertEquals(t3, result, "findTeamWithLowestSize must ignore excluded team");
     }
 
+    @Test
+    void teamAggregates_trackAddAndRemove() {
+        Team t = new Team("Agg");
+        Participant a = createParticipant("A", "Valorant", 8, "Attacker", "Leader");
+        Participant b = createParticipant("B", " valorant ", 4, "Defender", "Thinker");
+        Participant c = createParticipant("C", "FIFA", 6, "attacker", "Balanced");
+
+        t.addMember(a);
+        t.addMember(b);
+        t.addMember(c);
+
+        assertEquals(18, t.getSkillSum());
+        assertEquals(2, t.countGame(a.getGameCode()), "Game count must ignore case/whitespace");
+        assertEquals(2, t.getDistinctGameCount());
+        assertEquals(2, t.getDistinctRoleCount());
+        assertTrue(t.hasRole(a.getRoleCode()));
+        assertEquals(1, t.getLeaderCount());
+        assertEquals(1, t.getThinkerCount());
+
+        assertTrue(t.removeMember(a));
+        assertEquals(10, t.getSkillSum());
+        assertEquals(1, t.countGame(b.getGameCode()));
+        assertTrue(t.hasRole(c.getRoleCode()), "Role still held by C");
+        assertEquals(0, t.getLeaderCount());
+
+        t.clearMembers();
+        assertEquals(0, t.size());
+        assertEquals(0, t.getSkillSum());
+        assertEquals(0, t.getDistinctRoleCount());
+    }
+
+    @Test
+    void buildTeams_fromStore_assignsEveryRowOnce_andLeavesInputOrderAlone() {
+        TeamBuilder builder = new TeamBuilder();
+        ArrayList<Participant> list = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            list.add(createParticipant("S" + i, (i % 2 == 0) ? "FIFA" : "Chess", i % 10 + 1,
+                    (i % 3 == 0) ? "Attacker" : "Supporter", "Balanced"));
+        }
+        ArrayList<Participant> before = new ArrayList<>(list);
+
+        ArrayList<Team> teams = builder.buildTeams(ParticipantStore.of(list), 4, LoggerService.getInstance());
+
+        assertEquals(3, teams.size());
+        long placed = teams.stream().flatMap(t -> t.getMembers().stream()).distinct().count();
+        assertEquals(12, placed, "Each participant must be placed exactly once");
+        assertEquals(before, list, "Forming teams must not reorder the caller's participants");
+    }
+
+    @Test
+    void candidateIndex_tracksOpenTeamsBySize() {
+        List<Team> teams = List.of(new Team("A"), new Team("B"), new Team("C"));
+        TeamCandidateIndex index = new TeamCandidateIndex(teams, 2);
+        assertEquals(3, index.emptyCount());
+        assertEquals(0, index.partialCount());
+
+        join(teams, index, 0, "Leader");
+        join(teams, index, 1, "Balanced");
+        assertEquals(2, index.bucketCount(), "Teams with different leader counts are bucketed apart");
+        join(teams, index, 1, "Balanced"); // team 1 is now full
+        assertEquals(1, index.emptyCount());
+        assertEquals(1, index.partialCount());
+        assertEquals(0, index.partialTeam(0));
+        assertEquals(1, index.bucketCount(), "Full teams leave their bucket");
+        assertEquals(2, index.smallestOpenTeam(), "Empty team 2 is the smallest open team");
+
+        join(teams, index, 2, "Balanced");
+        join(teams, index, 2, "Balanced");
+        join(teams, index, 0, "Balanced");
+        assertFalse(index.hasOpenTeam());
+        assertEquals(-1, index.smallestOpenTeam());
+        assertEquals(0, index.bucketCount());
+    }
+
+    private void join(List<Team> teams, TeamCandidateIndex index, int t, String personality) {
+        teams.get(t).addMember(createParticipant("J" + teams.get(t).size() + t, "FIFA", 5, "Attacker", personality));
+        index.memberAdded(t);
+    }
+
+    @Test
+    void selectBestTeam_findsTheSameBestScoreAsScoringEveryTeam() {
+        TeamBuilder builder = new TeamBuilder();
+        SplittableRandom random = new SplittableRandom(11);
+        String[] types = {"Leader", "Thinker", "Balanced"};
+        int teamSize = 5;
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            teams.add(new Team("Team " + i));
+        }
+        TeamCandidateIndex index = new TeamCandidateIndex(teams, teamSize);
+        double avg = 5.5;
+
+        for (int i = 0; i < 550; i++) {
+            Participant p = createParticipant("S" + i,
+                    AttributeDictionary.SURVEY_GAMES.get(random.nextInt(AttributeDictionary.SURVEY_GAMES.size())),
+                    1 + random.nextInt(10),
+                    AttributeDictionary.SURVEY_ROLES.get(random.nextInt(AttributeDictionary.SURVEY_ROLES.size())),
+                    types[random.nextInt(types.length)]);
+            int game = p.getGameCode();
+            int role = p.getRoleCode();
+            int type = p.getPersonalityCode();
+
+            int fullScanBest = Integer.MIN_VALUE;
+            for (Team t : teams) {
+                if (t.size() < teamSize) {
+                    fullScanBest = Math.max(fullScanBest,
+                            builder.evaluatePlacementScore(t, p.getSkillLevel(), game, role, type, avg));
+                }
+            }
+
+            int chosen = builder.selectBestTeam(index, teams, p.getSkillLevel(), game, role, type, avg, random);
+            Team team = teams.get(chosen);
+            assertTrue(team.size() < teamSize, "Only teams with room may be chosen");
+            assertEquals(fullScanBest,
+                    builder.evaluatePlacementScore(team, p.getSkillLevel(), game, role, type, avg),
+                    "Pruned selection must find a best-scoring team");
+
+            team.addMember(p);
+            index.memberAdded(chosen);
+        }
+    }
+
+    @Test
+    void buildTeams_probesFarFewerTeamsThanThereAre() {
+        AtomicLong probes = new AtomicLong();
+        PlacementScorer standard = PlacementScorer.standard();
+        PlacementScorer counting = new PlacementScorer() {
+            @Override
+            public int score(Team t, int skill, int game, int role, int type, double globalAvgSkill) {
+                probes.incrementAndGet();
+                return standard.score(t, skill, game, role, type, globalAvgSkill);
+            }
+
+            @Override
+            public int maxScore(int type) {
+                return standard.maxScore(type);
+            }
+
+            @Override
+            public int maxScore(int type, int size, int distinctRoles, int leaders, int thinkers, double skillGap) {
+                return standard.maxScore(type, size, distinctRoles, leaders, thinkers, skillGap);
+            }
+        };
+
+        SplittableRandom random = new SplittableRandom(3);
+        String[] types = {"Leader", "Thinker", "Balanced"};
+        ArrayList<Participant> list = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            list.add(createParticipant("B" + i,
+                    AttributeDictionary.SURVEY_GAMES.get(random.nextInt(AttributeDictionary.SURVEY_GAMES.size())),
+                    1 + random.nextInt(10),
+                    AttributeDictionary.SURVEY_ROLES.get(random.nextInt(AttributeDictionary.SURVEY_ROLES.size())),
+                    types[random.nextInt(types.length)]));
+        }
+
+        ArrayList<Team> teams = new TeamBuilder(EventSink.none(), counting)
+                .buildTeams(list, 5, LoggerService.getInstance(), new SplittableRandom(3));
+
+        assertEquals(2000, teams.size());
+        double perParticipant = (double) probes.get() / list.size();
+        assertTrue(perParticipant < teams.size() / 50.0,
+                "Expected far fewer probes than the " + teams.size() + " teams, got " + perParticipant + " per participant");
+    }
+
+    @Test
+    void buildTeamsBestOf_placesEveryoneAndIsRepeatableForSameSeed() {
+        TeamBuilder builder = new TeamBuilder();
+        ArrayList<Participant> list = new ArrayList<>();
+        String[] games = {"FIFA", "Chess", "Valorant"};
+        String[] roles = {"Attacker", "Defender", "Supporter", "Strategist"};
+        for (int i = 1; i <= 30; i++) {
+            list.add(createParticipant("M" + i, games[i % 3], i % 10 + 1, roles[i % 4],
+                    (i % 5 == 0) ? "Leader" : "Balanced"));
+        }
+        ParticipantStore store = ParticipantStore.of(list);
+        double avg = (double) store.totalSkill() / store.size();
+
+        ArrayList<Team> first = builder.buildTeamsBestOf(store, 5, 6, 42L, LoggerService.getInstance());
+        ArrayList<Team> second = builder.buildTeamsBestOf(store, 5, 6, 42L, LoggerService.getInstance());
+
+        assertEquals(30, first.stream().mapToInt(Team::size).sum());
+        assertEquals(FormationObjective.evaluate(first, avg), FormationObjective.evaluate(second, avg), 1e-9);
+    }
+
+    @Test
+    void formationObjective_countsConstraintViolations() {
+        Team t = new Team("Bad");
+        for (int i = 0; i < 3; i++) {
+            t.addMember(createParticipant("L" + i, "FIFA", 5, "Attacker", "Leader"));
+        }
+        // 1 member over the game cap, 2 roles short, 1 leader over the cap; skill exactly average
+        double expected = FormationObjective.GAME_CAP_WEIGHT
+                + 2 * FormationObjective.ROLE_SHORTFALL_WEIGHT
+                + FormationObjective.LEADER_OVERFLOW_WEIGHT;
+
+        assertEquals(expected, FormationObjective.evaluate(List.of(t), 5.0), 1e-9);
+    }
+
+    @Test
+    void improveTeams_reducesObjectiveAndKeepsSizesInBounds() {
+        Team high = new Team("High");
+        Team low = new Team("Low");
+        String[] roles = {"Attacker", "Defender", "Supporter", "Strategist"};
+        for (int i = 0; i < 4; i++) {
+            high.addMember(createParticipant("H" + i, "FIFA", 10, roles[i], "Balanced"));
+            low.addMember(createParticipant("L" + i, "Chess", 1, roles[i], "Balanced"));
+        }
+        List<Team> teams = new ArrayList<>(List.of(high, low));
+        double before = FormationObjective.evaluate(teams, 5.5);
+
+        new TeamBuilder().improveTeams(teams, 4, 0, 2000, LoggerService.getInstance());
+
+        double after = FormationObjective.evaluate(teams, 5.5);
+        assertTrue(after < before, "Local search must lower the objective of an unbalanced split");
+        for (Team t : teams) {
+            assertTrue(t.size() >= 3 && t.size() <= 4, "Sizes must stay within [3, teamSize]");
+        }
+        assertEquals(8, high.size() + low.size());
+    }
+
+    @Test
+    void buildTeams_sameSeed_givesIdenticalExportedCsv() throws Exception {
+        ArrayList<Participant> list = new ArrayList<>();
+        String[] games = {"FIFA", "Chess", "Valorant", "CS:GO"};
+        String[] roles = {"Attacker", "Defender", "Supporter"};
+        String[] types = {"Leader", "Thinker", "Balanced"};
+        for (int i = 1; i <= 23; i++) {
+            list.add(createParticipant("R" + i, games[i % 4], i % 7 + 1, roles[i % 3], types[i % 3]));
+        }
+        CSVHandler csv = new CSVHandler();
+        LoggerService logger = LoggerService.getInstance();
+
+        TeamFormationTask first = new TeamFormationTask(list, 4, new TeamBuilder(),
+                FormationOptions.defaults().seed(7));
+        first.run();
+        String firstCsv = java.nio.file.Files.readString(
+                java.nio.file.Path.of(csv.saveTeamsAuto(first.getResult(), logger)));
+
+        TeamFormationTask second = new TeamFormationTask(list, 4, new TeamBuilder(),
+                FormationOptions.defaults().seed(7));
+        second.run();
+        String secondCsv = java.nio.file.Files.readString(
+                java.nio.file.Path.of(csv.saveTeamsAuto(second.getResult(), logger)));
+
+        assertEquals(firstCsv, secondCsv, "Same seed must give byte-identical team exports");
+    }
+
 }
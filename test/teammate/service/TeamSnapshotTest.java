@@ -0,0 +1,130 @@
+package teammate.service;
+
+import org.junit.jupiter.api.Test;
+import teammate.model.Participant;
+import teammate.model.Team;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeamSnapshotTest {
+
+    private static Participant participant(String id, String name, String game, int skill,
+                                           String role, int score, String type) {
+        Participant p = new Participant(name, name.toLowerCase() + "@mail.com", game, skill, role);
+        p.setId(id);
+        p.setPersonalityScore(score);
+        p.setPersonalityType(type);
+        return p;
+    }
+
+    private static List<Team> sampleTeams() {
+        Team a = new Team("Team 1");
+        a.addMember(participant("P101", "Alice", "Valorant", 8, "Strategist", 92, "Leader"));
+        a.addMember(participant("P102", "Bob", "FIFA", 5, "Defender", 70, "Balanced"));
+        Team b = new Team("Team 2");
+        b.addMember(participant("P103", "Zoë", "Valorant", 6, "Attacker", 55, "Thinker"));
+        Participant noId = new Participant("Dan", null, "Chess", 3, "Supporter");
+        noId.setPersonalityType("Balanced");
+        b.addMember(noId);
+        List<Team> teams = new ArrayList<>();
+        teams.add(a);
+        teams.add(b);
+        return teams;
+    }
+
+    @Test
+    void writeThenOpen_restoresTeamsMembersAndAttributes() throws Exception {
+        List<Team> original = sampleTeams();
+        Path file = Files.createTempDirectory("snapshot").resolve("teams.snapshot");
+
+        TeamSnapshot.write(original, 4, file);
+        TeamSnapshot snapshot = TeamSnapshot.open(file);
+
+        assertEquals(2, snapshot.teamCount());
+        assertEquals(4, snapshot.participantCount());
+        assertEquals(4, snapshot.formedTeamSize());
+        List<Team> restored = snapshot.teams();
+        assertEquals(2, restored.size());
+        for (int t = 0; t < original.size(); t++) {
+            Team before = original.get(t);
+            Team after = restored.get(t);
+            assertEquals(before.getTeamName(), after.getTeamName());
+            assertEquals(before.size(), after.size());
+            assertEquals(before.getSkillSum(), after.getSkillSum());
+            assertEquals(before.getLeaderCount(), after.getLeaderCount());
+            for (int m = 0; m < before.size(); m++) {
+                Participant x = before.getMembers().get(m);
+                Participant y = after.getMembers().get(m);
+                assertEquals(x.getId(), y.getId());
+                assertEquals(x.getName(), y.getName());
+                assertEquals(x.getEmail(), y.getEmail());
+                assertEquals(x.getPreferredGame(), y.getPreferredGame());
+                assertEquals(x.getSkillLevel(), y.getSkillLevel());
+                assertEquals(x.getRole(), y.getRole());
+                assertEquals(x.getPersonalityScore(), y.getPersonalityScore());
+                assertEquals(x.getPersonalityType(), y.getPersonalityType());
+                assertEquals(x.getGameCode(), y.getGameCode());
+            }
+        }
+        assertNull(restored.get(1).getMembers().get(1).getId());
+        assertFalse(Files.exists(file.resolveSibling("teams.snapshot.tmp")));
+    }
+
+    @Test
+    void open_buildsEachTeamOnceOnFirstAccess() throws Exception {
+        Path file = Files.createTempDirectory("snapshot_lazy").resolve("teams.snapshot");
+        TeamSnapshot.write(sampleTeams(), 4, file);
+
+        TeamSnapshot snapshot = TeamSnapshot.open(file);
+
+        assertEquals("Team 2", snapshot.teamName(1));
+        assertEquals(2, snapshot.teamSize(1));
+        assertSame(snapshot.team(1), snapshot.teams().get(1));
+        assertSame(snapshot.participant(0), snapshot.team(0).getMembers().get(0));
+    }
+
+    @Test
+    void open_rejectsOtherFilesAndNewerVersions() throws Exception {
+        Path dir = Files.createTempDirectory("snapshot_bad");
+        Path text = dir.resolve("teams.csv");
+        Files.writeString(text, "TeamName,ID,Name,Email,Game,Skill,Role,Personality\n".repeat(4));
+        assertThrows(IOException.class, () -> TeamSnapshot.open(text));
+
+        Path file = dir.resolve("teams.snapshot");
+        TeamSnapshot.write(sampleTeams(), 4, file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[4] = 99;      // version
+        Files.write(file, bytes);
+        IOException e = assertThrows(IOException.class, () -> TeamSnapshot.open(file));
+        assertTrue(e.getMessage().contains("version"));
+    }
+
+    @Test
+    void open_readsVersion1Snapshots_withoutATeamSize() throws Exception {
+        Path file = Files.createTempDirectory("snapshot_v1").resolve("teams.snapshot");
+        TeamSnapshot.write(sampleTeams(), 4, file);
+
+        // rewrite as version 1: no team size, so the 64-byte header and every section 8 bytes earlier
+        byte[] v2 = Files.readAllBytes(file);
+        ByteBuffer v1 = ByteBuffer.allocate(v2.length - 8).order(ByteOrder.LITTLE_ENDIAN);
+        v1.put(v2, 0, 64).put(v2, 72, v2.length - 72);
+        v1.putShort(4, (short) 1).putShort(6, (short) 64);
+        for (int at = 32; at < 64; at += 8) {
+            v1.putLong(at, v1.getLong(at) - 8);
+        }
+        Files.write(file, v1.array());
+
+        TeamSnapshot snapshot = TeamSnapshot.open(file);
+        assertEquals(0, snapshot.formedTeamSize());
+        assertEquals(2, snapshot.teamCount());
+        assertEquals("Bob", snapshot.team(0).getMembers().get(1).getName());
+    }
+}